@@ -0,0 +1,48 @@
+package com.example.demo.configuration;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import com.example.demo.tasklet.BatchMetadataCleanupTasklet;
+
+/**
+ * BATCH_* 中繼資料表的清理作業
+ * 每個作業名稱保留最新的 batch.housekeeping.cleanup.keep-instances 個 JobInstance，
+ * 每個交易最多刪除 batch.housekeeping.cleanup.batch-size 個
+ * 本身也是例行作業，resourceless 模式下執行紀錄不會再寫入被清理的資料表
+ */
+@Configuration
+public class BatchMetadataCleanupConfig {
+
+    public static final String JOB_NAME = "batchMetadataCleanupJob";
+
+    @Bean
+    public Step batchMetadataCleanupStep(HousekeepingJobs housekeepingJobs,
+                                         DataSource dataSource,
+                                         DataSourceTransactionManager transactionManager,
+                                         @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix,
+                                         @Value("${batch.housekeeping.cleanup.keep-instances:20}") int keepInstances,
+                                         @Value("${batch.housekeeping.cleanup.batch-size:500}") int batchSize) {
+        return new StepBuilder("batchMetadataCleanupStep", housekeepingJobs.jobRepository(JOB_NAME))
+                .tasklet(new BatchMetadataCleanupTasklet(dataSource, tablePrefix, keepInstances, batchSize),
+                        transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Job batchMetadataCleanupJob(HousekeepingJobs housekeepingJobs,
+                                       @Qualifier("batchMetadataCleanupStep") Step batchMetadataCleanupStep) {
+        return new JobBuilder(JOB_NAME, housekeepingJobs.jobRepository(JOB_NAME))
+                .start(batchMetadataCleanupStep)
+                .build();
+    }
+}
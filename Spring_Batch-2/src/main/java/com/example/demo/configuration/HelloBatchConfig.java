@@ -5,7 +5,6 @@ import javax.sql.DataSource;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.context.annotation.Bean;
@@ -15,22 +14,24 @@ import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 @Configuration
 public class HelloBatchConfig {
 
+    public static final String JOB_NAME = "HelloJob8";
+
     @Bean
     public DataSourceTransactionManager transactionManager(DataSource dataSource) {
         return new DataSourceTransactionManager(dataSource);
     }
 
     @Bean
-    public Step sampleStep(JobRepository jobRepository, DataSourceTransactionManager transactionManager) {
-        return new StepBuilder("helloStep8", jobRepository).tasklet((contribution, chunkContext) -> {
+    public Step sampleStep(HousekeepingJobs housekeepingJobs, DataSourceTransactionManager transactionManager) {
+        return new StepBuilder("helloStep8", housekeepingJobs.jobRepository(JOB_NAME)).tasklet((contribution, chunkContext) -> {
             System.out.println("Hello world2!");
             return RepeatStatus.FINISHED;
-        }, transactionManager).build();
+        }, housekeepingJobs.transactionManager(transactionManager)).build();
     }
 
     @Bean
-    public Job sampleJob(JobRepository jobRepository, Step sampleStep) {
-        return new JobBuilder("HelloJob8", jobRepository).start(sampleStep).build();
+    public Job sampleJob(HousekeepingJobs housekeepingJobs, Step sampleStep) {
+        return new JobBuilder(JOB_NAME, housekeepingJobs.jobRepository(JOB_NAME)).start(sampleStep).build();
     }
 
 }
@@ -0,0 +1,53 @@
+package com.example.demo.configuration;
+
+import java.util.List;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 啟動時平行執行例行作業
+ * 每個作業在各自的執行緒執行，不阻塞應用程式啟動，作業之間也不互相等待
+ * 取代 Spring Boot 的 JobLauncherApplicationRunner (spring.batch.job.enabled=false)，
+ * 因為例行作業使用各自的 JobRepository
+ */
+@Log4j2
+@Component
+public class HousekeepingJobRunner implements ApplicationRunner {
+
+    private final HousekeepingJobs housekeepingJobs;
+    private final List<Job> jobs;
+    private final boolean enabled;
+    private final SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("housekeeping-");
+
+    public HousekeepingJobRunner(HousekeepingJobs housekeepingJobs, List<Job> jobs,
+                                 @Value("${batch.housekeeping.run-on-startup:true}") boolean enabled) {
+        this.housekeepingJobs = housekeepingJobs;
+        this.jobs = jobs;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!enabled) {
+            return;
+        }
+        jobs.stream()
+                .filter(housekeepingJobs::manages)
+                .forEach(job -> taskExecutor.execute(() -> {
+                    try {
+                        JobExecution execution = housekeepingJobs.run(job);
+                        log.info("Housekeeping job {} finished with status {}", job.getName(), execution.getStatus());
+                    } catch (Exception e) {
+                        log.error("Housekeeping job {} failed to start", job.getName(), e);
+                    }
+                }));
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.demo.configuration;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 例行 (housekeeping) 作業的 JobRepository 與啟動器
+ * batch.housekeeping.repository=resourceless (預設)：每個作業各自使用一個 ResourcelessJobRepository，
+ * 只在記憶體中保留最近一次執行，不寫入 BATCH_* 資料表；每次以相同 (空的) 參數重複使用同一個 JobInstance
+ * batch.housekeeping.repository=jdbc：使用 Spring Boot 的 JobRepository 保留歷史，
+ * 以 time 參數每次建立新的 JobInstance，筆數由 batchMetadataCleanupJob 限制
+ *
+ * 每個作業的 JobRepository 與 JobLauncher 第一次使用時建立，之後重複使用；
+ * ResourcelessJobRepository 不是執行緒安全的，同一個作業的執行依序進行
+ */
+@Log4j2
+@Component
+public class HousekeepingJobs {
+
+    private final boolean resourceless;
+    private final JobRepository jobRepository;
+
+    private final Set<String> jobNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, JobRepository> repositories = new ConcurrentHashMap<>();
+    private final Map<String, TaskExecutorJobLauncher> launchers = new ConcurrentHashMap<>();
+
+    public HousekeepingJobs(JobRepository jobRepository,
+                            @Value("${batch.housekeeping.repository:resourceless}") String repository) {
+        if (!"resourceless".equals(repository) && !"jdbc".equals(repository)) {
+            throw new IllegalArgumentException("Unknown batch.housekeeping.repository: " + repository);
+        }
+        this.resourceless = "resourceless".equals(repository);
+        this.jobRepository = jobRepository;
+        log.info("Housekeeping jobs use the {} job repository", repository);
+    }
+
+    /**
+     * 作業與其步驟使用的 JobRepository
+     */
+    public JobRepository jobRepository(String jobName) {
+        jobNames.add(jobName);
+        if (!resourceless) {
+            return jobRepository;
+        }
+        return repositories.computeIfAbsent(jobName, name -> new ResourcelessJobRepository());
+    }
+
+    /**
+     * 不存取資料庫的步驟使用的交易管理器；resourceless 模式下不取得資料庫連線
+     */
+    public PlatformTransactionManager transactionManager(PlatformTransactionManager transactionManager) {
+        return resourceless ? new ResourcelessTransactionManager() : transactionManager;
+    }
+
+    /**
+     * 是否由此類別管理 (作業以 jobRepository(jobName) 建立)
+     */
+    public boolean manages(Job job) {
+        return jobNames.contains(job.getName());
+    }
+
+    public JobExecution run(Job job) throws JobExecutionException {
+        JobParameters params = resourceless ? new JobParameters() : new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+        TaskExecutorJobLauncher launcher = launchers.computeIfAbsent(job.getName(), this::createLauncher);
+        synchronized (launcher) {
+            return launcher.run(job, params);
+        }
+    }
+
+    private TaskExecutorJobLauncher createLauncher(String jobName) {
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository(jobName));
+        try {
+            launcher.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create launcher for " + jobName, e);
+        }
+        return launcher;
+    }
+}
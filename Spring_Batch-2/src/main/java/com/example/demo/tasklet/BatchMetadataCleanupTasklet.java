@@ -0,0 +1,107 @@
+package com.example.demo.tasklet;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 清理 BATCH_* 中繼資料表
+ * 每個作業名稱只保留最新的 keepInstances 個 JobInstance，較舊的連同其執行、參數、步驟與 context 一起刪除
+ * 1. 每次執行 (一個交易) 最多刪除 batchSize 個 JobInstance，以 IN 清單整批刪除各資料表，
+ *    回傳 CONTINUABLE 直到沒有可刪除的資料，避免單一交易鎖住大量資料列
+ * 2. 仍在執行中 (END_TIME 為 null) 的 JobInstance 不刪除
+ * 3. 各資料表刪除的筆數累計在步驟的 ExecutionContext，完成時記錄總數
+ */
+@Log4j2
+public class BatchMetadataCleanupTasklet implements Tasklet {
+
+    private static final String SELECT_EXPIRED_INSTANCES = """
+            SELECT JOB_INSTANCE_ID FROM (
+                SELECT I.JOB_INSTANCE_ID,
+                       ROW_NUMBER() OVER (PARTITION BY I.JOB_NAME ORDER BY I.JOB_INSTANCE_ID DESC) AS RN
+                FROM %PREFIX%JOB_INSTANCE I
+            ) T
+            WHERE T.RN > :keep
+              AND NOT EXISTS (SELECT 1 FROM %PREFIX%JOB_EXECUTION E
+                              WHERE E.JOB_INSTANCE_ID = T.JOB_INSTANCE_ID AND E.END_TIME IS NULL)
+            ORDER BY T.JOB_INSTANCE_ID
+            LIMIT :limit
+            """;
+
+    private static final String JOB_EXECUTIONS = """
+            SELECT JOB_EXECUTION_ID FROM %PREFIX%JOB_EXECUTION WHERE JOB_INSTANCE_ID IN (:ids)""";
+
+    /**
+     * 依外鍵順序刪除：資料表名稱 (不含前綴) -> DELETE 語句
+     */
+    private static final Map<String, String> DELETES = new LinkedHashMap<>();
+
+    static {
+        DELETES.put("STEP_EXECUTION_CONTEXT", """
+                DELETE FROM %PREFIX%STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN (
+                    SELECT STEP_EXECUTION_ID FROM %PREFIX%STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (""" + JOB_EXECUTIONS + "))");
+        DELETES.put("STEP_EXECUTION", """
+                DELETE FROM %PREFIX%STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (""" + JOB_EXECUTIONS + ")");
+        DELETES.put("JOB_EXECUTION_CONTEXT", """
+                DELETE FROM %PREFIX%JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (""" + JOB_EXECUTIONS + ")");
+        DELETES.put("JOB_EXECUTION_PARAMS", """
+                DELETE FROM %PREFIX%JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (""" + JOB_EXECUTIONS + ")");
+        DELETES.put("JOB_EXECUTION", """
+                DELETE FROM %PREFIX%JOB_EXECUTION WHERE JOB_INSTANCE_ID IN (:ids)""");
+        DELETES.put("JOB_INSTANCE", """
+                DELETE FROM %PREFIX%JOB_INSTANCE WHERE JOB_INSTANCE_ID IN (:ids)""");
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final String tablePrefix;
+    private final int keepInstances;
+    private final int batchSize;
+
+    public BatchMetadataCleanupTasklet(DataSource dataSource, String tablePrefix, int keepInstances, int batchSize) {
+        if (keepInstances < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("keepInstances and batchSize must be positive");
+        }
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.tablePrefix = tablePrefix;
+        this.keepInstances = keepInstances;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext counts = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        List<Long> ids = jdbcTemplate.queryForList(sql(SELECT_EXPIRED_INSTANCES),
+                Map.of("keep", keepInstances, "limit", batchSize), Long.class);
+        if (ids.isEmpty()) {
+            Map<String, Long> totals = new LinkedHashMap<>();
+            DELETES.keySet().forEach(table -> totals.put(tablePrefix + table, counts.getLong(table, 0L)));
+            log.info("Batch metadata cleanup finished, keeping {} instances per job, rows deleted: {}",
+                    keepInstances, totals);
+            return RepeatStatus.FINISHED;
+        }
+
+        Map<String, Object> params = Map.of("ids", ids);
+        DELETES.forEach((table, delete) -> {
+            int deleted = jdbcTemplate.update(sql(delete), params);
+            counts.putLong(table, counts.getLong(table, 0L) + deleted);
+        });
+        contribution.incrementWriteCount(ids.size());
+        log.info("Deleted {} job instances ({}..{})", ids.size(), ids.get(0), ids.get(ids.size() - 1));
+        return RepeatStatus.CONTINUABLE;
+    }
+
+    private String sql(String template) {
+        return template.replace("%PREFIX%", tablePrefix);
+    }
+}
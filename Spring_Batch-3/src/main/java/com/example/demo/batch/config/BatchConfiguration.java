@@ -1,14 +1,21 @@
 package com.example.demo.batch.config;
 
+import javax.sql.DataSource;
+
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.data.RepositoryItemWriter;
 import org.springframework.batch.item.data.builder.RepositoryItemWriterBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.mapping.RecordFieldSetMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,6 +25,7 @@ import org.springframework.orm.jpa.JpaTransactionManager;
 import com.example.demo.batch.dto.PersonDTO;
 import com.example.demo.batch.entity.Person;
 import com.example.demo.batch.listener.JobCompleteionNotificationListener;
+import com.example.demo.batch.listener.QuarantineSkipListener;
 import com.example.demo.batch.processor.PersonItemProcessor;
 import com.example.demo.batch.repository.PersonRepository;
 
@@ -40,17 +48,31 @@ public class BatchConfiguration {
         return new JpaTransactionManager (entityManagerFactory);
     }
 
+    /**
+     * 隔离表监听器，记录略过的数据行与来源行号
+     */
+    @Bean
+    public QuarantineSkipListener<PersonDTO, Person> quarantine(DataSource dataSource,
+                                                                @Value("${batch.quarantine.batch-size:500}") int batchSize) {
+        return new QuarantineSkipListener<>("sample-data.csv", dataSource, batchSize);
+    }
+
     /**
      * 读取器 (Reader)
+     * LineMapper 由隔离表监听器包装，记录每个 item 的来源行号
      */
     @Bean
-    public FlatFileItemReader<PersonDTO> reader(){
+    public FlatFileItemReader<PersonDTO> reader(QuarantineSkipListener<PersonDTO, Person> quarantine){
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames("firstName", "lastName");//读取的数据被映射到Person对象，包含firstName和lastName字段
+        DefaultLineMapper<PersonDTO> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(new RecordFieldSetMapper<>(PersonDTO.class));
+
         return new FlatFileItemReaderBuilder<PersonDTO>()
                 .name("personItemReader")
                 .resource(new ClassPathResource("sample-data.csv"))//从sample-data.csv文件读取数据
-                .delimited()
-                .names("firstName", "lastName")//读取的数据被映射到Person对象，包含firstName和lastName字段
-                .targetType(PersonDTO.class)
+                .lineMapper(quarantine.trackLines(lineMapper))
                 .build();
     }
 
@@ -90,18 +112,22 @@ public class BatchConfiguration {
 
     /**
      * 步骤定义 (Step)
+     * 解析或验证失败的数据行略过并写入隔离表，超过 batch.person.skip-limit 时步骤失败
      */
     @Bean
     public Step step1(JobRepository jobRepository,
                       JpaTransactionManager  transactionManager,
                       FlatFileItemReader<PersonDTO> reader,  // 修改为PersonDTO
                       PersonItemProcessor processor,
-                      RepositoryItemWriter<Person> writer){  // 修改为RepositoryItemWriter<Person>
-        return new StepBuilder("step14", jobRepository)
+                      RepositoryItemWriter<Person> writer,  // 修改为RepositoryItemWriter<Person>
+                      ImportFaultTolerance faultTolerance,
+                      QuarantineSkipListener<PersonDTO, Person> quarantine,
+                      @Value("${batch.person.skip-limit:100}") int skipLimit){
+        SimpleStepBuilder<PersonDTO, Person> builder = new StepBuilder("step14", jobRepository)
                 .<PersonDTO, Person> chunk(3, transactionManager)  // 修改为PersonDTO和Person
                 .reader(reader)
                 .processor(processor)
-                .writer(writer)
-                .build();
+                .writer(writer);
+        return faultTolerance.apply(builder, quarantine, skipLimit).build();
     }
 }
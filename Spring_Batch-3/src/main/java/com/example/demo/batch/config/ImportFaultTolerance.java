@@ -0,0 +1,65 @@
+package com.example.demo.batch.config;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.validator.ValidationException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.retry.backoff.ExponentialBackOffPolicy;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.batch.listener.QuarantineSkipListener;
+
+/**
+ * CSV 导入步骤的容错设定
+ * 1. 略过：解析失败 (FlatFileParseException)、验证失败 (ValidationException)、写入违反约束
+ *    (DataIntegrityViolationException)，略过的数据行由 QuarantineSkipListener 写入隔离表；
+ *    超过 skipLimit 时步骤失败
+ * 2. 重试：暂时性的数据库错误 (TransientDataAccessException、RecoverableDataAccessException)，
+ *    依 batch.import.retry.* 以指数退避重试，超过次数时步骤失败
+ *
+ * 一行错误的数据只会被隔离，作业仍可完成，排程不会每次从头重读整个文件
+ */
+@Component
+public class ImportFaultTolerance {
+
+    private final int retryLimit;
+    private final long initialIntervalMillis;
+    private final long maxIntervalMillis;
+
+    public ImportFaultTolerance(@Value("${batch.import.retry.limit:3}") int retryLimit,
+                                @Value("${batch.import.retry.initial-interval-ms:200}") long initialIntervalMillis,
+                                @Value("${batch.import.retry.max-interval-ms:5000}") long maxIntervalMillis) {
+        this.retryLimit = retryLimit;
+        this.initialIntervalMillis = initialIntervalMillis;
+        this.maxIntervalMillis = maxIntervalMillis;
+    }
+
+    public <I, O> FaultTolerantStepBuilder<I, O> apply(SimpleStepBuilder<I, O> builder,
+                                                       QuarantineSkipListener<I, O> quarantine,
+                                                       int skipLimit) {
+        ExponentialBackOffPolicy backOffPolicy = new ExponentialBackOffPolicy();
+        backOffPolicy.setInitialInterval(initialIntervalMillis);
+        backOffPolicy.setMaxInterval(maxIntervalMillis);
+
+        FaultTolerantStepBuilder<I, O> faultTolerant = builder.faultTolerant()
+                .skip(FlatFileParseException.class)
+                .skip(ValidationException.class)
+                .skip(DataIntegrityViolationException.class)
+                .skipLimit(skipLimit)
+                .retry(TransientDataAccessException.class)
+                .retry(RecoverableDataAccessException.class)
+                .retryLimit(retryLimit)
+                .backOffPolicy(backOffPolicy)
+                .listener((SkipListener<I, O>) quarantine)
+                .listener((ChunkListener) quarantine);
+        faultTolerant.listener((ItemProcessListener<I, O>) quarantine);
+        return faultTolerant;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.batch.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 导入时被略过的数据行 (解析失败、验证失败、写入违反约束)，由 QuarantineSkipListener 批次写入
+// 数据表由 Hibernate 依实体建立，line_number 为来源文件的行号 (含标题行)，无法对应时为 null
+@Entity
+@Table(name = "import_quarantine")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuarantinedRow {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String jobName;
+    private Long jobExecutionId;
+    private String stepName;
+    private String source;
+    private Integer lineNumber;
+
+    @Column(length = 4000)
+    private String rawLine;
+
+    // READ / PROCESS / WRITE
+    private String phase;
+
+    @Column(length = 2000)
+    private String error;
+
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,104 @@
+package com.example.demo.batch.listener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.batch.entity.Person;
+import com.example.demo.batch.repository.PersonRepository;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * person 导入结果验证
+ * 作业开始前记录最大 id (watermark)，作业结束后只检查 id 大于 watermark 的数据，即本次执行写入的数据：
+ * 1. 笔数核对：范围内的笔数与步骤的 writeCount 比较
+ * 2. 抽样检查：在范围内随机抽取 sampleSize 笔，检查姓名已由 PersonItemProcessor 转为大写且不为空
+ * 只执行聚合查询与逐笔抽样，不载入整张表，内存用量与表大小无关
+ *
+ * 前提：person.id 为自增主键，且同一时间只有一个作业写入 person 表；
+ * 其他程序同时写入时笔数会多于 writeCount，结果会标示为不一致
+ */
+@Log4j2
+@Component
+public class PersonWriteVerifier {
+
+    private final PersonRepository personRepository;
+    private final int sampleSize;
+
+    public PersonWriteVerifier(PersonRepository personRepository,
+                               @Value("${batch.person.verify.sample-size:5}") int sampleSize) {
+        this.personRepository = personRepository;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * 验证结果，problems 最多 sampleSize + 1 笔
+     */
+    public record Result(long expectedRows, long writtenRows, Long firstId, long lastId,
+                         int sampled, List<String> problems) {
+
+        public boolean passed() {
+            return problems.isEmpty();
+        }
+    }
+
+    /**
+     * 目前最大的 id，作业开始前记录
+     */
+    public long watermark() {
+        return personRepository.findMaxId();
+    }
+
+    /**
+     * 验证 id 大于 afterId 的数据
+     *
+     * @param afterId      作业开始前的 watermark
+     * @param expectedRows 步骤的 writeCount 合计
+     */
+    public Result verify(long afterId, long expectedRows) {
+        List<String> problems = new ArrayList<>();
+
+        long writtenRows = personRepository.countByIdGreaterThan(afterId);
+        if (writtenRows != expectedRows) {
+            problems.add("row count " + writtenRows + " does not match write count " + expectedRows);
+        }
+
+        Long firstId = personRepository.findMinIdAfter(afterId);
+        long lastId = personRepository.findMaxId();
+        int sampled = 0;
+        if (firstId != null) {
+            for (int i = 0; i < sampleSize; i++) {
+                long id = ThreadLocalRandom.current().nextLong(firstId, lastId + 1);
+                Person person = personRepository.findFirstByIdGreaterThanEqualOrderByIdAsc(id).orElse(null);
+                if (person == null) {
+                    continue;
+                }
+                sampled++;
+                log.info("SAMPLED <{}>", person);
+                String problem = check(person);
+                if (problem != null) {
+                    problems.add(problem);
+                }
+            }
+        }
+        return new Result(expectedRows, writtenRows, firstId, lastId, sampled, problems);
+    }
+
+    /**
+     * 单笔检查，通过时回传 null
+     */
+    private static String check(Person person) {
+        if (!isNormalized(person.getFirstName()) || !isNormalized(person.getLastName())) {
+            return "person " + person.getId() + " is not normalized: " + person.getFirstName() + " " + person.getLastName();
+        }
+        return null;
+    }
+
+    private static boolean isNormalized(String name) {
+        return name != null && !name.isBlank() && name.equals(name.toUpperCase());
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.demo.batch.listener;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.file.LineMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.demo.batch.entity.QuarantinedRow;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 把略过的数据行写入隔离表 import_quarantine
+ * 1. trackLines 包装读取器的 LineMapper，记录每个 item 的行号与原始内容，直到所在的 chunk 提交
+ * 2. 读取失败 (FlatFileParseException) 直接取例外中的行号；处理与写入失败依 item 找回来源行
+ * 3. 同一个 chunk 略过的数据行先暂存，在 chunk 交易提交前以一次 JDBC 批次写入，与 chunk 一起提交或回滚
+ *
+ * chunk 回滚后逐笔重新处理 (scan) 时同一数据行可能多次触发，回滚的交易不会写入，已提交的读取错误不再重复写入
+ * 每个步骤各自建立一个实例，只用于单线程步骤，且同一步骤不同时执行
+ */
+@Log4j2
+public class QuarantineSkipListener<I, O> implements SkipListener<I, O>, ItemProcessListener<I, O>, ChunkListener {
+
+    private static final int MAX_RAW_LINE = 4000;
+    private static final int MAX_ERROR = 2000;
+
+    private final String source;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    /**
+     * 目前 chunk 的 item 与来源行；回滚后逐笔重新处理 (scan) 时仍需要，只在整个 chunk 完成后清除
+     */
+    private final Map<Object, SourceLine> lines = new IdentityHashMap<>();
+    private final List<QuarantinedRow> pending = new ArrayList<>();
+
+    /**
+     * 读取错误在 chunk 逐笔重新处理的每个交易都会再通知一次，已提交的不再写入
+     */
+    private final Set<Throwable> committedReadErrors = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Throwable> pendingReadErrors = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private StepExecution stepExecution;
+    private boolean flushRegistered;
+
+    private record SourceLine(int lineNumber, String line) {
+    }
+
+    public QuarantineSkipListener(String source, DataSource dataSource, int batchSize) {
+        this.source = source;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 包装读取器的 LineMapper，记录每个 item 的来源行
+     */
+    public LineMapper<I> trackLines(LineMapper<I> delegate) {
+        return (line, lineNumber) -> {
+            I item = delegate.mapLine(line, lineNumber);
+            lines.put(item, new SourceLine(lineNumber, line));
+            return item;
+        };
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        stepExecution = context.getStepContext().getStepExecution();
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        if (context.isComplete()) {
+            lines.clear();
+            committedReadErrors.clear();
+        }
+    }
+
+    @Override
+    public void afterProcess(I item, O result) {
+        SourceLine sourceLine = lines.get(item);
+        if (result != null && sourceLine != null) {
+            lines.put(result, sourceLine);
+        }
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        if (committedReadErrors.contains(t) || !pendingReadErrors.add(t)) {
+            return;
+        }
+        if (t instanceof FlatFileParseException e) {
+            quarantine("READ", new SourceLine(e.getLineNumber(), e.getInput()), t);
+        } else {
+            quarantine("READ", null, t);
+        }
+    }
+
+    @Override
+    public void onSkipInProcess(I item, Throwable t) {
+        quarantine("PROCESS", lines.get(item), t);
+    }
+
+    @Override
+    public void onSkipInWrite(O item, Throwable t) {
+        quarantine("WRITE", lines.get(item), t);
+    }
+
+    private void quarantine(String phase, SourceLine sourceLine, Throwable t) {
+        QuarantinedRow row = new QuarantinedRow(null,
+                stepExecution != null ? stepExecution.getJobExecution().getJobInstance().getJobName() : null,
+                stepExecution != null ? stepExecution.getJobExecutionId() : null,
+                stepExecution != null ? stepExecution.getStepName() : null,
+                source,
+                sourceLine != null ? sourceLine.lineNumber() : null,
+                sourceLine != null ? truncate(sourceLine.line(), MAX_RAW_LINE) : null,
+                phase,
+                truncate(t.getClass().getSimpleName() + ": " + t.getMessage(), MAX_ERROR),
+                LocalDateTime.now());
+        pending.add(row);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writePending();
+            committedReadErrors.addAll(pendingReadErrors);
+            pendingReadErrors.clear();
+        } else if (!flushRegistered) {
+            flushRegistered = true;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    writePending();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        committedReadErrors.addAll(pendingReadErrors);
+                    }
+                    pendingReadErrors.clear();
+                    pending.clear();
+                    flushRegistered = false;
+                }
+            });
+        }
+    }
+
+    private void writePending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO import_quarantine
+                    (job_name, job_execution_id, step_name, source, line_number, raw_line, phase, error, created_at)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, pending, batchSize, (ps, row) -> {
+            ps.setString(1, row.getJobName());
+            ps.setObject(2, row.getJobExecutionId(), Types.BIGINT);
+            ps.setString(3, row.getStepName());
+            ps.setString(4, row.getSource());
+            ps.setObject(5, row.getLineNumber(), Types.INTEGER);
+            ps.setString(6, row.getRawLine());
+            ps.setString(7, row.getPhase());
+            ps.setString(8, row.getError());
+            ps.setTimestamp(9, Timestamp.valueOf(row.getCreatedAt()));
+        });
+        pending.forEach(row -> log.warn("Quarantined {} line {} ({}): {}",
+                row.getSource(), row.getLineNumber(), row.getPhase(), row.getError()));
+        pending.clear();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.demo.batch.processor;
 
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.validator.ValidationException;
 
 import com.example.demo.batch.dto.PersonDTO;
 import com.example.demo.batch.entity.Person;
@@ -10,12 +11,16 @@ import lombok.extern.log4j.Log4j2;
 /**
  * 功能：实现了ItemProcessor接口，定义数据处理逻辑
  * 处理内容：将人名转换为大写形式
+ * 验证：姓或名为空时抛出 ValidationException，由步骤略过并写入隔离表
  * 日志：记录转换前后的数据对比
  */
 @Log4j2
 public class PersonItemProcessor implements ItemProcessor<PersonDTO,Person> {
     @Override
     public Person process(final PersonDTO person) throws Exception {
+        if (isBlank(person.firstName()) || isBlank(person.lastName())) {
+            throw new ValidationException("First and last name are required: " + person);
+        }
         final String firstName = person.firstName().toUpperCase();
         final String lastName = person.lastName().toUpperCase();
 
@@ -26,4 +31,8 @@ public class PersonItemProcessor implements ItemProcessor<PersonDTO,Person> {
         return transformedPerson;
     }
 
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
 }
@@ -9,31 +9,68 @@ import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import com.example.demo.batch.config.BatchMetadataRetentionConfig;
+import com.example.demo.batch.reader.HealthInsuranceItemReader;
+import com.example.demo.batch.reader.PersonItemReader;
+
 @Configuration
 @EnableScheduling
 public class BatchScheduler {
 
     private final JobLauncher jobLauncher;
+    private final JobLaunchGate jobLaunchGate;
     private final List<Job> jobs;
 
-    public BatchScheduler(JobLauncher jobLauncher, List<Job> jobs) {
+    public BatchScheduler(JobLauncher jobLauncher, JobLaunchGate jobLaunchGate, List<Job> jobs) {
         this.jobLauncher = jobLauncher;
+        this.jobLaunchGate = jobLaunchGate;
         this.jobs = jobs;
     }
 
-    // 每隔5分鐘執行一次
+    // 每隔5分鐘執行一次，輸入檔案未變更的作業只記錄 NOOP；保留作業另依 batch.retention.cron 執行
     @Scheduled(fixedRate = 300000)
     public void perform() throws JobExecutionException {
         JobParameters params = new JobParametersBuilder()
                 .addLong("time", System.currentTimeMillis()) // 使用時間戳以保證每次執行都有不同的參數
                 .toJobParameters();
         for (Job job : jobs) {
+            if (BatchMetadataRetentionConfig.JOB_NAME.equals(job.getName())) {
+                continue;
+            }
             System.out.println("Starting job: " + job.getName());
-            JobExecution jobExecution = jobLauncher.run(job, params);
+            JobExecution jobExecution = jobLaunchGate.run(job, params, inputFingerprint(job));
             System.out.println("Batch job " + job.getName() + " status: " + jobExecution.getStatus());
         }
     }
+
+    // 清理 BATCH_* 資料表中超過保留期限的執行，預設每天 03:30
+    @Scheduled(cron = "${batch.retention.cron:0 30 3 * * *}")
+    public void performRetention() throws JobExecutionException {
+        JobParameters params = new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+        Job job = jobs.stream()
+                .filter(candidate -> BatchMetadataRetentionConfig.JOB_NAME.equals(candidate.getName()))
+                .findFirst()
+                .orElseThrow();
+        System.out.println("Starting job: " + job.getName());
+        JobExecution jobExecution = jobLauncher.run(job, params);
+        System.out.println("Batch job " + job.getName() + " status: " + jobExecution.getStatus()
+                + " " + jobExecution.getExitStatus().getExitDescription());
+    }
+
+    /**
+     * 讀取 CSV 的作業以檔案指紋判斷是否變更，其他作業回傳 null 直接執行
+     */
+    private String inputFingerprint(Job job) {
+        return switch (job.getName()) {
+            case "importUserJob4" -> jobLaunchGate.fileFingerprint(new ClassPathResource(PersonItemReader.DEFAULT_RESOURCE));
+            case "healthInsuranceJob" -> jobLaunchGate.fileFingerprint(new ClassPathResource(HealthInsuranceItemReader.DEFAULT_RESOURCE));
+            default -> null;
+        };
+    }
 }
@@ -0,0 +1,143 @@
+package com.example.demo.batch.Scheduled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 排程作業的啟動閘門
+ * 啟動前計算作業輸入的指紋，與上一次成功執行時的指紋相同就不執行作業：
+ * 1. 檔案輸入：大小 + CRC32C 串流校驗碼；大小與修改時間都沒變時沿用上次的校驗碼，不重新讀檔
+ * 2. 指紋以非識別參數 input.fingerprint 保存在 JobRepository，應用程式重啟後仍可比對
+ * 3. 輸入未變更時只在 JobRepository 記錄一筆 NOOP 執行（沒有任何步驟），不讀取資料
+ *
+ * 只比對最後一次執行，上次失敗或仍在執行時一律啟動作業
+ * 手動觸發不經過閘門；batch.scheduler.skip-unchanged=false 可關閉
+ */
+@Log4j2
+@Component
+public class JobLaunchGate {
+
+    public static final String FINGERPRINT_PARAMETER = "input.fingerprint";
+
+    private final JobLauncher jobLauncher;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final boolean skipUnchanged;
+
+    private final Map<String, FileChecksum> checksums = new ConcurrentHashMap<>();
+
+    private record FileChecksum(long size, long lastModified, long checksum) {
+    }
+
+    public JobLaunchGate(JobLauncher jobLauncher,
+                         JobRepository jobRepository,
+                         JobExplorer jobExplorer,
+                         @Value("${batch.scheduler.skip-unchanged:true}") boolean skipUnchanged) {
+        this.jobLauncher = jobLauncher;
+        this.jobRepository = jobRepository;
+        this.jobExplorer = jobExplorer;
+        this.skipUnchanged = skipUnchanged;
+    }
+
+    /**
+     * 輸入有變更時啟動作業，否則記錄 NOOP 執行
+     *
+     * @param fingerprint 作業輸入的指紋，多個輸入以 | 串接；null 表示無法判斷，直接啟動
+     */
+    public JobExecution run(Job job, JobParameters params, String fingerprint) throws JobExecutionException {
+        if (!skipUnchanged || fingerprint == null) {
+            return jobLauncher.run(job, params);
+        }
+
+        JobParameters gatedParams = new JobParametersBuilder(params)
+                .addString(FINGERPRINT_PARAMETER, fingerprint, false)
+                .toJobParameters();
+
+        if (fingerprint.equals(lastCompletedFingerprint(job.getName()))) {
+            return recordNoop(job.getName(), gatedParams, fingerprint);
+        }
+        return jobLauncher.run(job, gatedParams);
+    }
+
+    /**
+     * 檔案指紋：檔名 + 大小 + CRC32C
+     * 校驗碼依資源描述快取，大小與修改時間不變時不重新讀檔
+     */
+    public String fileFingerprint(Resource resource) {
+        try {
+            long size = resource.contentLength();
+            long lastModified = resource.lastModified();
+            FileChecksum cached = checksums.get(resource.getDescription());
+            if (cached == null || cached.size() != size || cached.lastModified() != lastModified) {
+                cached = new FileChecksum(size, lastModified, checksum(resource));
+                checksums.put(resource.getDescription(), cached);
+            }
+            return "file:" + resource.getFilename() + ":" + size + ":" + Long.toHexString(cached.checksum());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fingerprint " + resource.getDescription(), e);
+        }
+    }
+
+    private String lastCompletedFingerprint(String jobName) {
+        JobInstance instance = jobExplorer.getLastJobInstance(jobName);
+        if (instance == null) {
+            return null;
+        }
+        JobExecution execution = jobExplorer.getLastJobExecution(instance);
+        if (execution == null || execution.getStatus() != BatchStatus.COMPLETED) {
+            return null;
+        }
+        return execution.getJobParameters().getString(FINGERPRINT_PARAMETER);
+    }
+
+    /**
+     * 只寫入 JOB_INSTANCE / JOB_EXECUTION / 參數，不執行任何步驟
+     */
+    private JobExecution recordNoop(String jobName, JobParameters params, String fingerprint)
+            throws JobExecutionException {
+        JobExecution execution = jobRepository.createJobExecution(jobName, params);
+        LocalDateTime now = LocalDateTime.now();
+        execution.setStartTime(now);
+        execution.setEndTime(now);
+        execution.setStatus(BatchStatus.COMPLETED);
+        execution.setExitStatus(ExitStatus.NOOP.addExitDescription("Input unchanged: " + fingerprint));
+        jobRepository.update(execution);
+
+        log.info("Skipped {}: input unchanged ({})", jobName, fingerprint);
+        return execution;
+    }
+
+    private static long checksum(Resource resource) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = resource.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -8,11 +8,13 @@ import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.data.RepositoryItemWriter;
 import org.springframework.batch.item.data.builder.RepositoryItemWriterBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -83,11 +85,13 @@ public class BatchConfiguration {
      * 写入器 (Writer)
      * 功能：将处理后的数据写入数据库
      * 实现：使用SQL将Person对象的数据插入person表
+     * batch.person.writer=jdbc 时改用 JDBC 批次插入，建议同时调大 batch.person.chunk-size
      */
     @Bean
-    public RepositoryItemWriter<Person> writer(PersonRepository repository) {
+    public ItemWriter<Person> writer(PersonItemWriter personItemWriter,
+                                     @Value("${batch.person.writer:repository}") String writerMode) {
         // 使用獨立的 PersonItemWriter 類
-        return new PersonItemWriter(repository).createWriter();
+        return personItemWriter.createWriter(writerMode);
     }
     //@Bean
     //public RepositoryItemWriter<Person> writer(PersonRepository repository) {
@@ -117,9 +121,10 @@ public class BatchConfiguration {
                       PlatformTransactionManager transactionManager,
                       FlatFileItemReader<PersonDTO> reader,  // 修改为PersonDTO
                       PersonItemProcessor processor,
-                      RepositoryItemWriter<Person> writer){  // 修改为RepositoryItemWriter<Person>
+                      ItemWriter<Person> writer,
+                      @Value("${batch.person.chunk-size:3}") int chunkSize){
         return new StepBuilder("step14", jobRepository)
-                .<PersonDTO, Person> chunk(3, transactionManager)  // 修改为PersonDTO和Person
+                .<PersonDTO, Person> chunk(chunkSize, transactionManager)  // 修改为PersonDTO和Person
                 .reader(reader)
                 .processor(processor)
                 .writer(writer)
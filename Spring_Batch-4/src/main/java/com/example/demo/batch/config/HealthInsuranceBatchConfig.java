@@ -10,6 +10,7 @@ import org.springframework.batch.item.data.RepositoryItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -54,12 +55,14 @@ public class HealthInsuranceBatchConfig {
                       PlatformTransactionManager transactionManager,
                       @Qualifier("healthInsuranceReader") FlatFileItemReader<HealthInsuranceDTO> reader,  // 修改为PersonDTO
                       HealthInsuranceItemProcessor processor,
-                      HealthInsuranceItemWriter writer){  // 修改为RepositoryItemWriter<Person>
+                      HealthInsuranceItemWriter writer,
+                      @Value("${batch.health-insurance.writer:repository}") String writerMode,
+                      @Value("${batch.health-insurance.chunk-size:3}") int chunkSize){
         return new StepBuilder("HealthInsuranceStep", jobRepository)
-                .<HealthInsuranceDTO, HealthInsurance> chunk(3, transactionManager)  // 修改为PersonDTO和Person
+                .<HealthInsuranceDTO, HealthInsurance> chunk(chunkSize, transactionManager)  // 修改为PersonDTO和Person
                 .reader(reader)
                 .processor(processor)
-                .writer(writer.createWriter())
+                .writer(writer.createWriter(writerMode))
                 .build();
     }
 }
@@ -13,10 +13,12 @@ import com.example.demo.batch.dto.HealthInsuranceDTO;
 @Component
 public class HealthInsuranceItemReader {
 
+    public static final String DEFAULT_RESOURCE = "UpdateHealthInsurancePremiumFromNH.csv";
+
     public FlatFileItemReader<HealthInsuranceDTO> createReader() {
         return new FlatFileItemReaderBuilder<HealthInsuranceDTO>()
                 .name("healthInsuranceItemReader")
-                .resource(new ClassPathResource("UpdateHealthInsurancePremiumFromNH.csv"))
+                .resource(new ClassPathResource(DEFAULT_RESOURCE))
                 .delimited()
                 .delimiter(",")
                 .quoteCharacter('"') // 指定引號字符，因為您的數據用引號包圍
@@ -13,10 +13,12 @@ import com.example.demo.batch.dto.PersonDTO;
 @Component
 public class PersonItemReader{
 
+    public static final String DEFAULT_RESOURCE = "sample-data.csv";
+
     public FlatFileItemReader<PersonDTO> createReader() {
         return new FlatFileItemReaderBuilder<PersonDTO>()
                 .name("personItemReader")
-                .resource(new ClassPathResource("sample-data.csv"))
+                .resource(new ClassPathResource(DEFAULT_RESOURCE))
                 .delimited()
                 .names(Arrays.stream(PersonDTO.class.getRecordComponents())
                         .map(RecordComponent::getName)
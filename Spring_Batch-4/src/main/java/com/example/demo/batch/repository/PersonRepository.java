@@ -1,10 +1,36 @@
 package com.example.demo.batch.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.example.demo.batch.entity.Person;
 
 @Repository
 public interface PersonRepository extends JpaRepository<Person, Long> {
+
+    /**
+     * 目前最大的 id，表为空时为 0
+     */
+    @Query("SELECT COALESCE(MAX(p.id), 0) FROM Person p")
+    long findMaxId();
+
+    /**
+     * 指定 id 之后最小的 id，没有数据时为 null
+     */
+    @Query("SELECT MIN(p.id) FROM Person p WHERE p.id > :afterId")
+    Long findMinIdAfter(@Param("afterId") Long afterId);
+
+    /**
+     * 指定 id 之后的笔数，以主键索引做范围扫描
+     */
+    long countByIdGreaterThan(Long afterId);
+
+    /**
+     * id 大于等于指定值的第一笔，用于抽样
+     */
+    Optional<Person> findFirstByIdGreaterThanEqualOrderByIdAsc(Long id);
 }
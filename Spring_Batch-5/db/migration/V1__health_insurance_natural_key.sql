@@ -0,0 +1,41 @@
+-- V1：健保数据自然键 (file_name, national_no, cif_no, withhold_date) 唯一索引 (PostgreSQL)
+-- 同一身份证号、客户编号、扣缴日期会出现在不同的来源文件中，因此自然键包含 file_name
+-- upsert 写入器需要此唯一索引；新建的数据表由 Hibernate 依实体的 @UniqueConstraint 建立，不需执行本脚本
+--
+-- 既有数据表由 DBA 手动执行，应用程序不会自动执行（缺少索引时 upsert 步骤会直接失败）：
+--   1. 先执行「预览」确认要删除的笔数
+--   2. 依序执行其余部分：备份重复数据、删除、建立索引，全部在同一个交易中
+--   3. 确认无误后可删除备份表 health_insurance_dedup_backup
+
+-- 预览：每个自然键保留 id 最大的一行，其余为要删除的笔数
+SELECT COUNT(*) AS rows_to_delete
+FROM health_insurance a
+WHERE EXISTS (SELECT 1 FROM health_insurance b
+              WHERE b.file_name = a.file_name
+                AND b.national_no = a.national_no
+                AND b.cif_no = a.cif_no
+                AND b.withhold_date = a.withhold_date
+                AND b.id > a.id);
+
+BEGIN;
+
+-- 备份要删除的数据
+CREATE TABLE health_insurance_dedup_backup AS
+SELECT a.*
+FROM health_insurance a
+WHERE EXISTS (SELECT 1 FROM health_insurance b
+              WHERE b.file_name = a.file_name
+                AND b.national_no = a.national_no
+                AND b.cif_no = a.cif_no
+                AND b.withhold_date = a.withhold_date
+                AND b.id > a.id);
+
+DELETE FROM health_insurance a
+USING health_insurance_dedup_backup d
+WHERE a.id = d.id;
+
+-- 自然键字段为 null 的数据无法以 ON CONFLICT 比对，upsert 模式会拒绝这类数据行；既有的 null 数据不受影响
+CREATE UNIQUE INDEX uk_health_insurance_natural_key
+    ON health_insurance (file_name, national_no, cif_no, withhold_date);
+
+COMMIT;
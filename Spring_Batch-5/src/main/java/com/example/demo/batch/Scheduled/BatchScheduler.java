@@ -7,18 +7,24 @@ import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionException;
 import org.springframework.batch.core.JobParameters;
 import org.springframework.batch.core.JobParametersBuilder;
-import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import com.example.demo.batch.config.BatchMetadataRetentionConfig;
+import com.example.demo.batch.config.HousekeepingJobs;
+import com.example.demo.batch.reader.HealthInsuranceItemReader;
+import com.example.demo.batch.reader.PersonItemReader;
+
 @Configuration
 @EnableScheduling
 public class BatchScheduler {
 
-    private final JobLauncher jobLauncher;
+    private final JobLaunchGate jobLaunchGate;
+    private final HousekeepingJobs housekeepingJobs;
 
     @Autowired
     @Qualifier("importUserJob4")
@@ -32,11 +38,16 @@ public class BatchScheduler {
     @Qualifier("sampleJob")
     private Job sampleJob;
 
-    public BatchScheduler(JobLauncher jobLauncher) {
-        this.jobLauncher = jobLauncher;
+    @Autowired
+    @Qualifier(BatchMetadataRetentionConfig.JOB_NAME)
+    private Job batchMetadataRetentionJob;
+
+    public BatchScheduler(JobLaunchGate jobLaunchGate, HousekeepingJobs housekeepingJobs) {
+        this.jobLaunchGate = jobLaunchGate;
+        this.housekeepingJobs = housekeepingJobs;
     }
 
-    // importUserJob4 每5分钟执行一次
+    // importUserJob4 每5分钟执行一次，输入文件未变更时只记录 NOOP
     @Scheduled(fixedRate = 300000) // 5分钟 = 300000毫秒
     public void runImportUserJob() throws JobExecutionException {
         JobParameters params = new JobParametersBuilder()
@@ -44,11 +55,12 @@ public class BatchScheduler {
                 .toJobParameters();
 
         System.out.println("Starting job: " + importUserJob4.getName());
-        JobExecution jobExecution = jobLauncher.run(importUserJob4, params);
+        JobExecution jobExecution = jobLaunchGate.run(importUserJob4, params,
+                jobLaunchGate.fileFingerprint(new ClassPathResource(PersonItemReader.DEFAULT_RESOURCE)));
         System.out.println("Batch job " + importUserJob4.getName() + " status: " + jobExecution.getStatus());
     }
 
-    // healthInsuranceJob 每2分钟执行一次
+    // healthInsuranceJob 每2分钟执行一次，输入文件未变更时只记录 NOOP
     @Scheduled(fixedRate = 120000) // 2分钟 = 120000毫秒
     public void runHealthInsuranceJob() throws JobExecutionException {
         JobParameters params = new JobParametersBuilder()
@@ -56,19 +68,26 @@ public class BatchScheduler {
                 .toJobParameters();
 
         System.out.println("Starting job: " + healthInsuranceJob.getName());
-        JobExecution jobExecution = jobLauncher.run(healthInsuranceJob, params);
+        JobExecution jobExecution = jobLaunchGate.run(healthInsuranceJob, params,
+                jobLaunchGate.fileFingerprint(new ClassPathResource(HealthInsuranceItemReader.DEFAULT_RESOURCE)));
         System.out.println("Batch job " + healthInsuranceJob.getName() + " status: " + jobExecution.getStatus());
     }
 
     // 如果您也需要为sampleJob设置不同的执行周期，可以添加类似的方法
+    // sampleJob 是例行作业，默认不写入 BATCH_* 数据表 (batch.housekeeping.repository)
     @Scheduled(fixedRate = 60000) // 1分钟 = 60000毫秒，根据实际需求调整
     public void runSampleJob() throws JobExecutionException {
-        JobParameters params = new JobParametersBuilder()
-                .addLong("time", System.currentTimeMillis())
-                .toJobParameters();
-
         System.out.println("Starting job: " + sampleJob.getName());
-        JobExecution jobExecution = jobLauncher.run(sampleJob, params);
+        JobExecution jobExecution = housekeepingJobs.run(sampleJob);
         System.out.println("Batch job " + sampleJob.getName() + " status: " + jobExecution.getStatus());
     }
+
+    // 清理 BATCH_* 数据表中超过保留期限的执行，默认每天 03:30
+    @Scheduled(cron = "${batch.retention.cron:0 30 3 * * *}")
+    public void runBatchMetadataRetentionJob() throws JobExecutionException {
+        System.out.println("Starting job: " + batchMetadataRetentionJob.getName());
+        JobExecution jobExecution = housekeepingJobs.run(batchMetadataRetentionJob);
+        System.out.println("Batch job " + batchMetadataRetentionJob.getName() + " status: " + jobExecution.getStatus()
+                + " " + jobExecution.getExitStatus().getExitDescription());
+    }
 }
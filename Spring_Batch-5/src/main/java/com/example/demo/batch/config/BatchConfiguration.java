@@ -1,14 +1,18 @@
 package com.example.demo.batch.config;
 
+import javax.sql.DataSource;
+
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.data.RepositoryItemWriter;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -17,6 +21,7 @@ import org.springframework.transaction.PlatformTransactionManager;
 import com.example.demo.batch.dto.PersonDTO;
 import com.example.demo.batch.entity.Person;
 import com.example.demo.batch.listener.JobCompleteionNotificationListener;
+import com.example.demo.batch.listener.QuarantineSkipListener;
 import com.example.demo.batch.processor.PersonItemProcessor;
 import com.example.demo.batch.reader.PersonItemReader;
 import com.example.demo.batch.repository.PersonRepository;
@@ -37,12 +42,23 @@ public class BatchConfiguration {
     @Autowired
     private PersonItemWriter personItemWriter;
 
+    /**
+     * 隔离表监听器，记录略过的数据行与来源行号
+     */
+    @Bean(name = "personQuarantine")
+    public QuarantineSkipListener<PersonDTO, Person> personQuarantine(
+            DataSource dataSource,
+            @Value("${batch.quarantine.batch-size:500}") int batchSize) {
+        return new QuarantineSkipListener<>(PersonItemReader.DEFAULT_RESOURCE, dataSource, batchSize);
+    }
+
     /**
      * 定义读取器 (Reader)
      */
     @Bean(name = "personReader")
-    public FlatFileItemReader<PersonDTO> personItemReader() {
-        return personItemReader.createReader();
+    public FlatFileItemReader<PersonDTO> personItemReader(
+            @Qualifier("personQuarantine") QuarantineSkipListener<PersonDTO, Person> quarantine) {
+        return personItemReader.createReader(quarantine::trackLines);
     }
 
     /**
@@ -61,18 +77,25 @@ public class BatchConfiguration {
 
     /**
      * 定义步骤 (Step)
+     * batch.person.writer=jdbc 时改用 JDBC 批次插入，建议同时调大 batch.person.chunk-size
+     * 解析或验证失败的数据行略过并写入隔离表，超过 batch.person.skip-limit 时步骤失败
      */
     @Bean(name = "personStep")
     public Step step1(JobRepository jobRepository,
                       PlatformTransactionManager transactionManager,
                       @Qualifier("personReader") FlatFileItemReader<PersonDTO> reader,
                       PersonItemProcessor processor,
-                      PersonItemWriter writer) {
-        return new StepBuilder("personStep", jobRepository)
-                .<PersonDTO, Person> chunk(3, transactionManager)
+                      PersonItemWriter writer,
+                      ImportFaultTolerance faultTolerance,
+                      @Qualifier("personQuarantine") QuarantineSkipListener<PersonDTO, Person> quarantine,
+                      @Value("${batch.person.writer:repository}") String writerMode,
+                      @Value("${batch.person.chunk-size:3}") int chunkSize,
+                      @Value("${batch.person.skip-limit:100}") int skipLimit) {
+        SimpleStepBuilder<PersonDTO, Person> builder = new StepBuilder("personStep", jobRepository)
+                .<PersonDTO, Person> chunk(chunkSize, transactionManager)
                 .reader(reader)
                 .processor(processor)
-                .writer(writer.createWriter())
-                .build();
+                .writer(writer.createWriter(writerMode));
+        return faultTolerance.apply(builder, quarantine, skipLimit).build();
     }
 }
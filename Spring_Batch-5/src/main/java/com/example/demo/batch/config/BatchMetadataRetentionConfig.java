@@ -0,0 +1,54 @@
+package com.example.demo.batch.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.batch.tasklet.BatchMetadataRetentionTasklet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * BATCH_* 元数据表的保留作业
+ * 删除 (batch.retention.mode=delete) 或归档后删除 (archive) 结束超过 batch.retention.days 天的作业执行，
+ * 每个事务最多处理 batch.retention.batch-size 笔；由 BatchScheduler 依 batch.retention.cron 执行
+ * 本身是例行作业 (HousekeepingJobs)，默认不在 BATCH_* 数据表留下自己的执行记录
+ */
+@Configuration
+public class BatchMetadataRetentionConfig {
+
+    public static final String JOB_NAME = "batchMetadataRetentionJob";
+
+    @Bean
+    public Step batchMetadataRetentionStep(HousekeepingJobs housekeepingJobs,
+                                           PlatformTransactionManager transactionManager,
+                                           DataSource dataSource,
+                                           ObjectMapper objectMapper,
+                                           @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix,
+                                           @Value("${batch.retention.days:30}") int retentionDays,
+                                           @Value("${batch.retention.batch-size:500}") int batchSize,
+                                           @Value("${batch.retention.mode:archive}") String mode) {
+        if (!"archive".equals(mode) && !"delete".equals(mode)) {
+            throw new IllegalArgumentException("Unknown batch.retention.mode: " + mode);
+        }
+        return new StepBuilder("batchMetadataRetentionStep", housekeepingJobs.jobRepository(JOB_NAME))
+                .tasklet(new BatchMetadataRetentionTasklet(dataSource, objectMapper, tablePrefix,
+                        retentionDays, batchSize, "archive".equals(mode)), transactionManager)
+                .build();
+    }
+
+    @Bean(name = JOB_NAME)
+    public Job batchMetadataRetentionJob(HousekeepingJobs housekeepingJobs,
+                                         @Qualifier("batchMetadataRetentionStep") Step batchMetadataRetentionStep) {
+        return new JobBuilder(JOB_NAME, housekeepingJobs.jobRepository(JOB_NAME))
+                .start(batchMetadataRetentionStep)
+                .build();
+    }
+}
@@ -1,13 +1,18 @@
 package com.example.demo.batch.config;
 
+import javax.sql.DataSource;
+
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.support.CompositeItemProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -15,7 +20,10 @@ import org.springframework.transaction.PlatformTransactionManager;
 
 import com.example.demo.batch.dto.HealthInsuranceDTO;
 import com.example.demo.batch.entity.HealthInsurance;
+import com.example.demo.batch.listener.HealthInsuranceNaturalKeyCheck;
 import com.example.demo.batch.listener.JobCompleteionNotificationListener;
+import com.example.demo.batch.listener.QuarantineSkipListener;
+import com.example.demo.batch.processor.HealthInsuranceChangeFilter;
 import com.example.demo.batch.processor.HealthInsuranceItemProcessor;
 import com.example.demo.batch.reader.HealthInsuranceItemReader;
 import com.example.demo.batch.writer.HealthInsuranceItemWriter;
@@ -32,12 +40,23 @@ public class HealthInsuranceBatchConfig {
     @Autowired
     private HealthInsuranceItemWriter healthInsuranceItemWriter;
 
+    /**
+     * 隔离表监听器，记录略过的数据行与来源行号
+     */
+    @Bean(name = "healthInsuranceQuarantine")
+    public QuarantineSkipListener<HealthInsuranceDTO, HealthInsurance> healthInsuranceQuarantine(
+            DataSource dataSource,
+            @Value("${batch.quarantine.batch-size:500}") int batchSize) {
+        return new QuarantineSkipListener<>(HealthInsuranceItemReader.DEFAULT_RESOURCE, dataSource, batchSize);
+    }
+
     /**
      * 定义读取器 (Reader)
      */
     @Bean(name = "healthInsuranceReader")
-    public FlatFileItemReader<HealthInsuranceDTO> healthInsuranceItemReader() {
-        return healthInsuranceItemReader.createReader();
+    public FlatFileItemReader<HealthInsuranceDTO> healthInsuranceItemReader(
+            @Qualifier("healthInsuranceQuarantine") QuarantineSkipListener<HealthInsuranceDTO, HealthInsurance> quarantine) {
+        return healthInsuranceItemReader.createReader(quarantine::trackLines);
     }
 
     /**
@@ -56,18 +75,37 @@ public class HealthInsuranceBatchConfig {
 
     /**
      * 定义步骤 (Step)
+     * batch.health-insurance.writer=jdbc 时改用 JDBC 批次插入，建议同时调大 batch.health-insurance.chunk-size
+     * batch.health-insurance.writer=upsert 时以自然键 upsert，并略过与数据库内容相同的数据行；
+     * 步骤开始前确认自然键唯一索引存在，不存在时步骤失败 (索引由 DBA 手动建立)
+     * 解析或验证失败的数据行略过并写入隔离表，超过 batch.health-insurance.skip-limit 时步骤失败
      */
     @Bean(name = "healthInsuranceStep")
     public Step step1(JobRepository jobRepository,
                       PlatformTransactionManager transactionManager,
                       @Qualifier("healthInsuranceReader") FlatFileItemReader<HealthInsuranceDTO> reader,
                       HealthInsuranceItemProcessor processor,
-                      HealthInsuranceItemWriter writer) {
-        return new StepBuilder("healthInsuranceStep", jobRepository)
-                .<HealthInsuranceDTO, HealthInsurance> chunk(3, transactionManager)
+                      HealthInsuranceChangeFilter changeFilter,
+                      HealthInsuranceNaturalKeyCheck naturalKeyCheck,
+                      HealthInsuranceItemWriter writer,
+                      ImportFaultTolerance faultTolerance,
+                      @Qualifier("healthInsuranceQuarantine") QuarantineSkipListener<HealthInsuranceDTO, HealthInsurance> quarantine,
+                      @Value("${batch.health-insurance.writer:repository}") String writerMode,
+                      @Value("${batch.health-insurance.chunk-size:3}") int chunkSize,
+                      @Value("${batch.health-insurance.skip-limit:100}") int skipLimit) {
+        SimpleStepBuilder<HealthInsuranceDTO, HealthInsurance> builder = new StepBuilder("healthInsuranceStep", jobRepository)
+                .<HealthInsuranceDTO, HealthInsurance> chunk(chunkSize, transactionManager)
                 .reader(reader)
-                .processor(processor)
-                .writer(writer.createWriter())
-                .build();
+                .writer(writer.createWriter(writerMode));
+
+        if (HealthInsuranceItemWriter.UPSERT_MODE.equalsIgnoreCase(writerMode)) {
+            // 先确认索引存在，缺少时不读取现有数据
+            builder.processor(new CompositeItemProcessor<>(processor, changeFilter))
+                   .listener(naturalKeyCheck)
+                   .listener(changeFilter);
+        } else {
+            builder.processor(processor);
+        }
+        return faultTolerance.apply(builder, quarantine, skipLimit).build();
     }
 }
@@ -3,7 +3,6 @@ package com.example.demo.batch.config;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.context.annotation.Bean;
@@ -13,17 +12,19 @@ import org.springframework.transaction.PlatformTransactionManager;
 @Configuration
 public class HelloBatchConfig {
 
+    public static final String JOB_NAME = "HelloJob8";
+
     @Bean
-    public Step sampleStep(JobRepository jobRepository, PlatformTransactionManager transactionManager) {
-        return new StepBuilder("helloStep8", jobRepository).tasklet((contribution, chunkContext) -> {
+    public Step sampleStep(HousekeepingJobs housekeepingJobs, PlatformTransactionManager transactionManager) {
+        return new StepBuilder("helloStep8", housekeepingJobs.jobRepository(JOB_NAME)).tasklet((contribution, chunkContext) -> {
             System.out.println("Hello world2!");
             return RepeatStatus.FINISHED;
-        }, transactionManager).build();
+        }, housekeepingJobs.transactionManager(transactionManager)).build();
     }
 
     @Bean
-    public Job sampleJob(JobRepository jobRepository, Step sampleStep) {
-        return new JobBuilder("HelloJob8", jobRepository).start(sampleStep).build();
+    public Job sampleJob(HousekeepingJobs housekeepingJobs, Step sampleStep) {
+        return new JobBuilder(JOB_NAME, housekeepingJobs.jobRepository(JOB_NAME)).start(sampleStep).build();
     }
 
 }
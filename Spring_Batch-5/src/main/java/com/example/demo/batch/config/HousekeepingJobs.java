@@ -0,0 +1,97 @@
+package com.example.demo.batch.config;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 例行 (housekeeping) 作业的 JobRepository 与启动器，例如每分钟执行的 sampleJob
+ * batch.housekeeping.repository=resourceless (默认)：每个作业各自使用一个 ResourcelessJobRepository，
+ * 只在内存中保留最近一次执行，不写入 BATCH_* 数据表；每次以相同 (空的) 参数重复使用同一个 JobInstance
+ * batch.housekeeping.repository=jdbc：使用 Spring Boot 的 JobRepository 保留历史，以 time 参数每次建立新的 JobInstance
+ *
+ * 每个作业的 JobRepository 与 JobLauncher 第一次使用时建立，之后重复使用；
+ * ResourcelessJobRepository 不是线程安全的，同一个作业的执行依序进行
+ */
+@Log4j2
+@Component
+public class HousekeepingJobs {
+
+    private final boolean resourceless;
+    private final JobRepository jobRepository;
+
+    private final Set<String> jobNames = ConcurrentHashMap.newKeySet();
+    private final Map<String, JobRepository> repositories = new ConcurrentHashMap<>();
+    private final Map<String, TaskExecutorJobLauncher> launchers = new ConcurrentHashMap<>();
+
+    public HousekeepingJobs(JobRepository jobRepository,
+                            @Value("${batch.housekeeping.repository:resourceless}") String repository) {
+        if (!"resourceless".equals(repository) && !"jdbc".equals(repository)) {
+            throw new IllegalArgumentException("Unknown batch.housekeeping.repository: " + repository);
+        }
+        this.resourceless = "resourceless".equals(repository);
+        this.jobRepository = jobRepository;
+        log.info("Housekeeping jobs use the {} job repository", repository);
+    }
+
+    /**
+     * 作业与其步骤使用的 JobRepository
+     */
+    public JobRepository jobRepository(String jobName) {
+        jobNames.add(jobName);
+        if (!resourceless) {
+            return jobRepository;
+        }
+        return repositories.computeIfAbsent(jobName, name -> new ResourcelessJobRepository());
+    }
+
+    /**
+     * 不访问数据库的步骤使用的事务管理器；resourceless 模式下不取得数据库连接
+     */
+    public PlatformTransactionManager transactionManager(PlatformTransactionManager transactionManager) {
+        return resourceless ? new ResourcelessTransactionManager() : transactionManager;
+    }
+
+    /**
+     * 是否由此类管理 (作业以 jobRepository(jobName) 建立)
+     */
+    public boolean manages(Job job) {
+        return jobNames.contains(job.getName());
+    }
+
+    public JobExecution run(Job job) throws JobExecutionException {
+        JobParameters params = resourceless ? new JobParameters() : new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+        TaskExecutorJobLauncher launcher = launchers.computeIfAbsent(job.getName(), this::createLauncher);
+        synchronized (launcher) {
+            return launcher.run(job, params);
+        }
+    }
+
+    private TaskExecutorJobLauncher createLauncher(String jobName) {
+        TaskExecutorJobLauncher launcher = new TaskExecutorJobLauncher();
+        launcher.setJobRepository(jobRepository(jobName));
+        try {
+            launcher.afterPropertiesSet();
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create launcher for " + jobName, e);
+        }
+        return launcher;
+    }
+}
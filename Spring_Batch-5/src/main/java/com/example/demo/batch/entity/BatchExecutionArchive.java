@@ -0,0 +1,38 @@
+package com.example.demo.batch.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// BatchMetadataRetentionTasklet 归档的作业执行，删除前从 BATCH_* 数据表复制
+// payload 为 gzip 压缩的 JSON：执行、参数、步骤与各自的 context
+// 数据表由 Hibernate 依实体建立，以 JOB_EXECUTION_ID 为主键；归档与删除在同一个事务
+@Entity
+@Table(name = "batch_execution_archive", indexes = @Index(name = "idx_batch_execution_archive_job", columnList = "jobName, endTime"))
+@Data
+@NoArgsConstructor
+public class BatchExecutionArchive {
+
+    @Id
+    private Long jobExecutionId;
+
+    private Long jobInstanceId;
+    private String jobName;
+    private String status;
+    private String exitCode;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime archivedAt;
+
+    // 压缩前的字节数
+    private Integer payloadBytes;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] payload;
+}
@@ -5,12 +5,16 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+// 自然键：同一来源文件中，同一身份证号、客户编号、扣缴日期只保留一行，供 upsert 写入器使用
 @Entity
-@Table(name = "healthInsurance")
+@Table(name = "healthInsurance",
+       uniqueConstraints = @UniqueConstraint(name = "uk_health_insurance_natural_key",
+                                             columnNames = {"fileName", "nationalNo", "cifNo", "withholdDate"}))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
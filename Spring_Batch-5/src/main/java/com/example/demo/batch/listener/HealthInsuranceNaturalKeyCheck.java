@@ -0,0 +1,81 @@
+package com.example.demo.batch.listener;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * upsert 写入器需要的自然键唯一索引 uk_health_insurance_natural_key
+ * 步骤开始前检查是否已有 (file_name, national_no, cif_no, withhold_date) 的唯一索引，没有时步骤失败，
+ * 不会修改数据：既有数据表请由 DBA 手动执行 db/migration/V1__health_insurance_natural_key.sql
+ * 新建的数据表由 Hibernate 依实体的 @UniqueConstraint 建立索引
+ * 确认存在后记录在本实例中，每个 JVM 只查询一次
+ */
+@Component
+public class HealthInsuranceNaturalKeyCheck implements StepExecutionListener {
+
+    public static final String INDEX_NAME = "uk_health_insurance_natural_key";
+    private static final String TABLE_NAME = "health_insurance";
+    private static final Set<String> KEY_COLUMNS = Set.of("file_name", "national_no", "cif_no", "withhold_date");
+    private static final String MIGRATION = "db/migration/V1__health_insurance_natural_key.sql";
+
+    private final DataSource dataSource;
+    private volatile boolean present;
+
+    public HealthInsuranceNaturalKeyCheck(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        if (present) {
+            return;
+        }
+        if (!indexExists()) {
+            throw new IllegalStateException("Unique index " + INDEX_NAME + " on " + TABLE_NAME
+                    + " (file_name, national_no, cif_no, withhold_date) is required by"
+                    + " batch.health-insurance.writer=upsert. Run " + MIGRATION
+                    + " manually (review its preview of duplicate rows first) or use another writer mode");
+        }
+        present = true;
+    }
+
+    /**
+     * 是否已有涵盖全部自然键字段的唯一索引 (不限名称，ON CONFLICT 依字段比对索引)
+     */
+    private boolean indexExists() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String table = metaData.storesUpperCaseIdentifiers() ? TABLE_NAME.toUpperCase(Locale.ROOT) : TABLE_NAME;
+            Map<String, Set<String>> uniqueIndexes = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(null, null, table, true, false)) {
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (column != null) {
+                        uniqueIndexes.computeIfAbsent(indexes.getString("INDEX_NAME"), name -> new HashSet<>())
+                                .add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return uniqueIndexes.containsValue(KEY_COLUMNS);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to look up index " + INDEX_NAME, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
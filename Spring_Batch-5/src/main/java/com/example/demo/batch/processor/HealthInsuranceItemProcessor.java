@@ -1,6 +1,9 @@
 package com.example.demo.batch.processor;
 
+import java.util.regex.Pattern;
+
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.validator.ValidationException;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.batch.dto.HealthInsuranceDTO;
@@ -8,11 +11,20 @@ import com.example.demo.batch.entity.HealthInsurance;
 
 import lombok.extern.log4j.Log4j2;
 
+/**
+ * 验证：来源文件、身份证号、客户编号、扣缴日期为必填 (自然键字段)，扣缴日期为民国年 yyyMMdd 七位数字
+ * 验证失败时抛出 ValidationException，由步骤略过并写入隔离表
+ */
 @Log4j2
 @Component
 public class HealthInsuranceItemProcessor implements ItemProcessor<HealthInsuranceDTO, HealthInsurance> {
+
+    private static final Pattern WITHHOLD_DATE = Pattern.compile("\\d{7}");
+
     @Override
     public HealthInsurance process(final HealthInsuranceDTO item) throws Exception {
+        validate(item);
+
         final String fileName = item.fileName();
         final String payType = item.payType();
         final String nationalNo = item.nationalNo();
@@ -25,4 +37,17 @@ public class HealthInsuranceItemProcessor implements ItemProcessor<HealthInsuran
 
         return healthInsurance;
     }
+
+    private static void validate(HealthInsuranceDTO item) {
+        if (isBlank(item.fileName()) || isBlank(item.nationalNo()) || isBlank(item.cifNo())) {
+            throw new ValidationException("fileName, nationalNo and cifNo are required: " + item);
+        }
+        if (item.withholdDate() == null || !WITHHOLD_DATE.matcher(item.withholdDate()).matches()) {
+            throw new ValidationException("withholdDate must be a 7-digit ROC date (yyyMMdd): " + item);
+        }
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
 }
@@ -2,9 +2,14 @@ package com.example.demo.batch.reader;
 
 import java.lang.reflect.RecordComponent;
 import java.util.Arrays;
+import java.util.function.UnaryOperator;
 
 import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.LineMapper;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.mapping.RecordFieldSetMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
@@ -13,18 +18,30 @@ import com.example.demo.batch.dto.HealthInsuranceDTO;
 @Component
 public class HealthInsuranceItemReader {
 
+    public static final String DEFAULT_RESOURCE = "UpdateHealthInsurancePremiumFromNH.csv";
+
     public FlatFileItemReader<HealthInsuranceDTO> createReader() {
+        return createReader(UnaryOperator.identity());
+    }
+
+    /**
+     * lineMapperDecorator 可包装解析逻辑，例如记录每个 item 的来源行号
+     */
+    public FlatFileItemReader<HealthInsuranceDTO> createReader(UnaryOperator<LineMapper<HealthInsuranceDTO>> lineMapperDecorator) {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer(",");
+        tokenizer.setQuoteCharacter('"'); // 指定引號字符，因為您的數據用引號包圍
+        tokenizer.setNames(Arrays.stream(HealthInsuranceDTO.class.getRecordComponents())
+                .map(RecordComponent::getName)
+                .toArray(String[]::new));
+        DefaultLineMapper<HealthInsuranceDTO> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(new RecordFieldSetMapper<>(HealthInsuranceDTO.class));
+
         return new FlatFileItemReaderBuilder<HealthInsuranceDTO>()
                 .name("healthInsuranceItemReader")
-                .resource(new ClassPathResource("UpdateHealthInsurancePremiumFromNH.csv"))
-                .delimited()
-                .delimiter(",")
-                .quoteCharacter('"') // 指定引號字符，因為您的數據用引號包圍
-                .names(Arrays.stream(HealthInsuranceDTO.class.getRecordComponents())
-                        .map(RecordComponent::getName)
-                        .toArray(String[]::new))
+                .resource(new ClassPathResource(DEFAULT_RESOURCE))
+                .lineMapper(lineMapperDecorator.apply(lineMapper))
                 .linesToSkip(1) // 跳過標題行
-                .targetType(HealthInsuranceDTO.class)
                 .build();
     }
 }
@@ -2,9 +2,14 @@ package com.example.demo.batch.reader;
 
 import java.lang.reflect.RecordComponent;
 import java.util.Arrays;
+import java.util.function.UnaryOperator;
 
 import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.file.LineMapper;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.batch.item.file.mapping.DefaultLineMapper;
+import org.springframework.batch.item.file.mapping.RecordFieldSetMapper;
+import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.stereotype.Component;
 
@@ -13,15 +18,28 @@ import com.example.demo.batch.dto.PersonDTO;
 @Component
 public class PersonItemReader{
 
+    public static final String DEFAULT_RESOURCE = "sample-data.csv";
+
     public FlatFileItemReader<PersonDTO> createReader() {
+        return createReader(UnaryOperator.identity());
+    }
+
+    /**
+     * lineMapperDecorator 可包装解析逻辑，例如记录每个 item 的来源行号
+     */
+    public FlatFileItemReader<PersonDTO> createReader(UnaryOperator<LineMapper<PersonDTO>> lineMapperDecorator) {
+        DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
+        tokenizer.setNames(Arrays.stream(PersonDTO.class.getRecordComponents())
+                .map(RecordComponent::getName)
+                .toArray(String[]::new));
+        DefaultLineMapper<PersonDTO> lineMapper = new DefaultLineMapper<>();
+        lineMapper.setLineTokenizer(tokenizer);
+        lineMapper.setFieldSetMapper(new RecordFieldSetMapper<>(PersonDTO.class));
+
         return new FlatFileItemReaderBuilder<PersonDTO>()
                 .name("personItemReader")
-                .resource(new ClassPathResource("sample-data.csv"))
-                .delimited()
-                .names(Arrays.stream(PersonDTO.class.getRecordComponents())
-                        .map(RecordComponent::getName)
-                        .toArray(String[]::new))
-                .targetType(PersonDTO.class)
+                .resource(new ClassPathResource(DEFAULT_RESOURCE))
+                .lineMapper(lineMapperDecorator.apply(lineMapper))
                 .build();
     }
 }
@@ -0,0 +1,281 @@
+package com.example.demo.batch.tasklet;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Clob;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSourceUtils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * BATCH_* 元数据表的保留期限
+ * 删除结束时间早于 retentionDays 天前的作业执行，连同参数、步骤与 context；没有剩余执行的 JobInstance 一并删除
+ * 1. 依 JOB_EXECUTION_ID 递增分批 (keyset)，每次执行 (一个事务) 最多处理 batchSize 笔，
+ *    返回 CONTINUABLE 直到没有符合的执行；处理到的 JOB_EXECUTION_ID 保存在步骤的 ExecutionContext，重启时接续
+ *    每批笔数以 JDBC maxRows 限制，不使用各数据库语法不同的 LIMIT
+ * 2. archive=true 时删除前先写入 batch_execution_archive：每笔执行一行，
+ *    执行、参数、步骤与各自的 context 序列化为 JSON 后以 gzip 压缩
+ * 3. 仍在执行中 (END_TIME 为 null) 的执行不处理；每个作业名称最新的 JobInstance 一律保留，
+ *    JobLaunchGate 以它比对输入指纹；保留的 JobInstance 在第一批查出后保存在 ExecutionContext，之后各批与重启沿用，
+ *    不再每批以子查询扫描 JOB_INSTANCE（之后才建立的 JobInstance 结束时间必定晚于 cutoff，不受影响）
+ * 4. 各数据表删除的笔数累计在 ExecutionContext，完成时写入步骤的结束信息并记录
+ */
+@Log4j2
+public class BatchMetadataRetentionTasklet implements Tasklet {
+
+    private static final String AFTER_KEY = "retention.after";
+    private static final String CUTOFF_KEY = "retention.cutoff";
+    private static final String KEEP_KEY = "retention.keepInstances";
+    private static final String ARCHIVED_KEY = "ARCHIVED";
+
+    private static final String SELECT_EXPIRED_EXECUTIONS = """
+            SELECT E.JOB_EXECUTION_ID, E.JOB_INSTANCE_ID, I.JOB_NAME, E.STATUS, E.EXIT_CODE, E.EXIT_MESSAGE,
+                   E.CREATE_TIME, E.START_TIME, E.END_TIME
+            FROM %PREFIX%JOB_EXECUTION E
+            JOIN %PREFIX%JOB_INSTANCE I ON I.JOB_INSTANCE_ID = E.JOB_INSTANCE_ID
+            WHERE E.JOB_EXECUTION_ID > :after
+              AND E.END_TIME < :cutoff
+              AND E.JOB_INSTANCE_ID NOT IN (:keep)
+            ORDER BY E.JOB_EXECUTION_ID""";
+
+    private static final String SELECT_LATEST_INSTANCES = """
+            SELECT MAX(JOB_INSTANCE_ID) FROM %PREFIX%JOB_INSTANCE GROUP BY JOB_NAME""";
+
+    private static final String SELECT_PARAMS = """
+            SELECT JOB_EXECUTION_ID, PARAMETER_NAME, PARAMETER_TYPE, PARAMETER_VALUE, IDENTIFYING
+            FROM %PREFIX%JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (:ids)""";
+
+    private static final String SELECT_JOB_CONTEXTS = """
+            SELECT JOB_EXECUTION_ID, SHORT_CONTEXT, SERIALIZED_CONTEXT
+            FROM %PREFIX%JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (:ids)""";
+
+    private static final String SELECT_STEPS = """
+            SELECT S.STEP_EXECUTION_ID, S.JOB_EXECUTION_ID, S.STEP_NAME, S.STATUS, S.COMMIT_COUNT, S.READ_COUNT,
+                   S.FILTER_COUNT, S.WRITE_COUNT, S.READ_SKIP_COUNT, S.WRITE_SKIP_COUNT, S.PROCESS_SKIP_COUNT,
+                   S.ROLLBACK_COUNT, S.EXIT_CODE, S.EXIT_MESSAGE, S.START_TIME, S.END_TIME,
+                   C.SHORT_CONTEXT, C.SERIALIZED_CONTEXT
+            FROM %PREFIX%STEP_EXECUTION S
+            LEFT JOIN %PREFIX%STEP_EXECUTION_CONTEXT C ON C.STEP_EXECUTION_ID = S.STEP_EXECUTION_ID
+            WHERE S.JOB_EXECUTION_ID IN (:ids)
+            ORDER BY S.STEP_EXECUTION_ID""";
+
+    private static final String INSERT_ARCHIVE = """
+            INSERT INTO batch_execution_archive
+                (job_execution_id, job_instance_id, job_name, status, exit_code, start_time, end_time,
+                 archived_at, payload_bytes, payload)
+            VALUES (:jobExecutionId, :jobInstanceId, :jobName, :status, :exitCode, :startTime, :endTime,
+                    :archivedAt, :payloadBytes, :payload)""";
+
+    /**
+     * 依外键顺序删除：数据表名称 (不含前缀) -> DELETE 语句
+     */
+    private static final Map<String, String> DELETES = new LinkedHashMap<>();
+
+    static {
+        DELETES.put("STEP_EXECUTION_CONTEXT", """
+                DELETE FROM %PREFIX%STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN (
+                    SELECT STEP_EXECUTION_ID FROM %PREFIX%STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids))""");
+        DELETES.put("STEP_EXECUTION", """
+                DELETE FROM %PREFIX%STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids)""");
+        DELETES.put("JOB_EXECUTION_CONTEXT", """
+                DELETE FROM %PREFIX%JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (:ids)""");
+        DELETES.put("JOB_EXECUTION_PARAMS", """
+                DELETE FROM %PREFIX%JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (:ids)""");
+        DELETES.put("JOB_EXECUTION", """
+                DELETE FROM %PREFIX%JOB_EXECUTION WHERE JOB_EXECUTION_ID IN (:ids)""");
+        DELETES.put("JOB_INSTANCE", """
+                DELETE FROM %PREFIX%JOB_INSTANCE I WHERE I.JOB_INSTANCE_ID IN (:instanceIds)
+                  AND NOT EXISTS (SELECT 1 FROM %PREFIX%JOB_EXECUTION E WHERE E.JOB_INSTANCE_ID = I.JOB_INSTANCE_ID)""");
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate batchTemplate;
+    private final ObjectMapper objectMapper;
+    private final String tablePrefix;
+    private final int retentionDays;
+    private final int batchSize;
+    private final boolean archive;
+
+    public BatchMetadataRetentionTasklet(DataSource dataSource, ObjectMapper objectMapper, String tablePrefix,
+                                         int retentionDays, int batchSize, boolean archive) {
+        if (retentionDays < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("retentionDays and batchSize must be positive");
+        }
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        JdbcTemplate limited = new JdbcTemplate(dataSource);
+        limited.setMaxRows(batchSize);
+        limited.setFetchSize(batchSize);
+        this.batchTemplate = new NamedParameterJdbcTemplate(limited);
+        this.objectMapper = objectMapper;
+        this.tablePrefix = tablePrefix;
+        this.retentionDays = retentionDays;
+        this.batchSize = batchSize;
+        this.archive = archive;
+    }
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        ExecutionContext state = chunkContext.getStepContext().getStepExecution().getExecutionContext();
+        if (!state.containsKey(CUTOFF_KEY)) {
+            state.putString(CUTOFF_KEY, LocalDateTime.now().minusDays(retentionDays).toString());
+        }
+        LocalDateTime cutoff = LocalDateTime.parse(state.getString(CUTOFF_KEY));
+        if (!state.containsKey(KEEP_KEY)) {
+            state.putString(KEEP_KEY, jdbcTemplate.queryForList(sql(SELECT_LATEST_INSTANCES), Map.of(), Long.class)
+                    .stream().map(String::valueOf).collect(Collectors.joining(",")));
+        }
+
+        List<Map<String, Object>> executions = batchTemplate.queryForList(sql(SELECT_EXPIRED_EXECUTIONS), Map.of(
+                "after", state.getLong(AFTER_KEY, 0L),
+                "cutoff", Timestamp.valueOf(cutoff),
+                "keep", keep(state)));
+        if (executions.isEmpty()) {
+            String report = report(state);
+            log.info("Batch metadata retention finished, cutoff {}: {}", cutoff, report);
+            contribution.setExitStatus(ExitStatus.COMPLETED.addExitDescription(report));
+            return RepeatStatus.FINISHED;
+        }
+
+        List<Long> ids = executions.stream().map(row -> number(row, "JOB_EXECUTION_ID")).toList();
+        List<Long> instanceIds = executions.stream().map(row -> number(row, "JOB_INSTANCE_ID")).distinct().toList();
+        if (archive) {
+            archive(executions, ids);
+            add(state, ARCHIVED_KEY, ids.size());
+        }
+
+        Map<String, Object> params = Map.of("ids", ids, "instanceIds", instanceIds);
+        DELETES.forEach((table, delete) -> add(state, table, jdbcTemplate.update(sql(delete), params)));
+        state.putLong(AFTER_KEY, ids.get(ids.size() - 1));
+        contribution.incrementWriteCount(ids.size());
+        log.info("Removed {} job executions ({}..{}) ended before {}", ids.size(), ids.get(0),
+                ids.get(ids.size() - 1), cutoff);
+        return RepeatStatus.CONTINUABLE;
+    }
+
+    /**
+     * 每笔执行一行，payload 为 gzip 压缩的 JSON
+     */
+    private void archive(List<Map<String, Object>> executions, List<Long> ids) {
+        Map<String, Object> idParams = Map.of("ids", ids);
+        Map<Long, List<Map<String, Object>>> params = group(jdbcTemplate.queryForList(sql(SELECT_PARAMS), idParams));
+        Map<Long, List<Map<String, Object>>> contexts = group(jdbcTemplate.queryForList(sql(SELECT_JOB_CONTEXTS), idParams));
+        Map<Long, List<Map<String, Object>>> steps = group(jdbcTemplate.queryForList(sql(SELECT_STEPS), idParams));
+
+        LocalDateTime archivedAt = LocalDateTime.now();
+        List<Map<String, Object>> rows = new ArrayList<>(executions.size());
+        for (Map<String, Object> execution : executions) {
+            Long id = number(execution, "JOB_EXECUTION_ID");
+            Map<String, Object> document = new LinkedHashMap<>(execution);
+            document.put("PARAMS", params.getOrDefault(id, List.of()));
+            List<Map<String, Object>> context = contexts.getOrDefault(id, List.of());
+            document.put("CONTEXT", context.isEmpty() ? null : context.get(0));
+            document.put("STEPS", steps.getOrDefault(id, List.of()));
+            byte[] json = toJson(document);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("jobExecutionId", id);
+            row.put("jobInstanceId", number(execution, "JOB_INSTANCE_ID"));
+            row.put("jobName", execution.get("JOB_NAME"));
+            row.put("status", execution.get("STATUS"));
+            row.put("exitCode", execution.get("EXIT_CODE"));
+            row.put("startTime", execution.get("START_TIME"));
+            row.put("endTime", execution.get("END_TIME"));
+            row.put("archivedAt", Timestamp.valueOf(archivedAt));
+            row.put("payloadBytes", json.length);
+            row.put("payload", gzip(json));
+            rows.add(row);
+        }
+        jdbcTemplate.batchUpdate(INSERT_ARCHIVE, SqlParameterSourceUtils.createBatch(rows));
+    }
+
+    private byte[] toJson(Map<String, Object> document) {
+        try {
+            return objectMapper.writeValueAsBytes(document);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize job execution " + document.get("JOB_EXECUTION_ID"), e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 依 JOB_EXECUTION_ID 分组；CLOB 字段 (部分数据库的 SERIALIZED_CONTEXT) 转为字符串
+     */
+    private static Map<Long, List<Map<String, Object>>> group(List<Map<String, Object>> rows) {
+        rows.forEach(row -> row.replaceAll((column, value) -> value instanceof Clob clob ? text(clob) : value));
+        return rows.stream().collect(Collectors.groupingBy(row -> number(row, "JOB_EXECUTION_ID")));
+    }
+
+    private static String text(Clob clob) {
+        try {
+            return clob.getSubString(1, (int) clob.length());
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot read context", e);
+        }
+    }
+
+    private static Long number(Map<String, Object> row, String column) {
+        return ((Number) row.get(column)).longValue();
+    }
+
+    /**
+     * KEEP_KEY 保存的 JobInstance id；没有任何 JobInstance 时以 -1 代替，NOT IN 不可为空
+     */
+    private static List<Long> keep(ExecutionContext state) {
+        String keep = state.getString(KEEP_KEY);
+        if (keep.isEmpty()) {
+            return List.of(-1L);
+        }
+        return Arrays.stream(keep.split(",")).map(Long::valueOf).toList();
+    }
+
+    private static void add(ExecutionContext state, String key, long count) {
+        state.putLong(key, state.getLong(key, 0L) + count);
+    }
+
+    private String report(ExecutionContext state) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        if (archive) {
+            counts.put("archived", state.getLong(ARCHIVED_KEY, 0L));
+        }
+        DELETES.keySet().forEach(table -> counts.put(tablePrefix + table, state.getLong(table, 0L)));
+        return "rows removed " + counts;
+    }
+
+    private String sql(String template) {
+        return template.replace("%PREFIX%", tablePrefix);
+    }
+}
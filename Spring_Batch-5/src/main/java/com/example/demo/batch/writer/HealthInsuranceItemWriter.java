@@ -1,7 +1,19 @@
 package com.example.demo.batch.writer;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.data.RepositoryItemWriter;
 import org.springframework.batch.item.data.builder.RepositoryItemWriterBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.batch.entity.HealthInsurance;
@@ -10,10 +22,32 @@ import com.example.demo.batch.repository.HealthInsuranceRepository;
 @Component
 public class HealthInsuranceItemWriter {
 
+    /**
+     * 写入器模式：使用 JDBC 批次插入
+     */
+    public static final String JDBC_MODE = "jdbc";
+
+    /**
+     * 写入器模式：以自然键 (file_name, national_no, cif_no, withhold_date) upsert，重复导入不会新增重复数据
+     */
+    public static final String UPSERT_MODE = "upsert";
+
     private final HealthInsuranceRepository healthInsuranceRepository;
+    private final DataSource dataSource;
 
-    public HealthInsuranceItemWriter(HealthInsuranceRepository healthInsuranceRepository){
+    public HealthInsuranceItemWriter(HealthInsuranceRepository healthInsuranceRepository, DataSource dataSource){
         this.healthInsuranceRepository = healthInsuranceRepository;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 依模式建立写入器，jdbc 为批次插入，upsert 为批次 upsert，其余为 RepositoryItemWriter
+     */
+    public ItemWriter<HealthInsurance> createWriter(String mode) {
+        if (UPSERT_MODE.equalsIgnoreCase(mode)) {
+            return createUpsertWriter();
+        }
+        return JDBC_MODE.equalsIgnoreCase(mode) ? createJdbcBatchWriter() : createWriter();
     }
 
     public RepositoryItemWriter<HealthInsurance> createWriter() {
@@ -22,4 +56,62 @@ public class HealthInsuranceItemWriter {
                 .methodName("save")
                 .build();
     }
+
+    /**
+     * JDBC 批次插入写入器
+     * 整个 chunk 以一次 executeBatch 送出，不经过 JPA persist，也没有逐笔取回 IDENTITY 的往返
+     */
+    public JdbcBatchItemWriter<HealthInsurance> createJdbcBatchWriter() {
+        JdbcBatchItemWriter<HealthInsurance> writer = new JdbcBatchItemWriterBuilder<HealthInsurance>()
+                .dataSource(dataSource)
+                .sql("""
+                    INSERT INTO health_insurance
+                        (file_name, pay_type, national_no, cif_no, withhold_date, withhold, reason_type)
+                    VALUES
+                        (:fileName, :payType, :nationalNo, :cifNo, :withholdDate, :withhold, :reasonType)
+                    """)
+                .beanMapped()
+                .build();
+        writer.afterPropertiesSet();
+        return writer;
+    }
+
+    /**
+     * JDBC 批次 upsert 写入器 (PostgreSQL)
+     * 需要自然键唯一索引 uk_health_insurance_natural_key，步骤开始前由 HealthInsuranceNaturalKeyCheck 确认；
+     * 既有数据表请先手动执行 db/migration/V1__health_insurance_natural_key.sql
+     * 自然键字段不可为 null（唯一索引中 null 互不相等，ON CONFLICT 不会成立），由 HealthInsuranceChangeFilter 拒绝
+     * 内容相同时 WHERE 条件不成立，不会产生多余的更新
+     *
+     * reWriteBatchedInserts 会把批次合并为多列 INSERT，同一语句内不能更新同一行两次，
+     * 因此先在 chunk 内依自然键去重，保留最后一笔
+     */
+    public ItemWriter<HealthInsurance> createUpsertWriter() {
+        JdbcBatchItemWriter<HealthInsurance> writer = new JdbcBatchItemWriterBuilder<HealthInsurance>()
+                .dataSource(dataSource)
+                .sql("""
+                    INSERT INTO health_insurance
+                        (file_name, pay_type, national_no, cif_no, withhold_date, withhold, reason_type)
+                    VALUES
+                        (:fileName, :payType, :nationalNo, :cifNo, :withholdDate, :withhold, :reasonType)
+                    ON CONFLICT (file_name, national_no, cif_no, withhold_date) DO UPDATE SET
+                        pay_type = EXCLUDED.pay_type,
+                        withhold = EXCLUDED.withhold,
+                        reason_type = EXCLUDED.reason_type
+                    WHERE (health_insurance.pay_type, health_insurance.withhold, health_insurance.reason_type)
+                          IS DISTINCT FROM
+                          (EXCLUDED.pay_type, EXCLUDED.withhold, EXCLUDED.reason_type)
+                    """)
+                .beanMapped()
+                .build();
+        writer.afterPropertiesSet();
+
+        return chunk -> {
+            Map<List<String>, HealthInsurance> latest = new LinkedHashMap<>();
+            for (HealthInsurance item : chunk) {
+                latest.put(Arrays.asList(item.getFileName(), item.getNationalNo(), item.getCifNo(), item.getWithholdDate()), item);
+            }
+            writer.write(latest.size() == chunk.size() ? chunk : new Chunk<>(new ArrayList<>(latest.values())));
+        };
+    }
 }
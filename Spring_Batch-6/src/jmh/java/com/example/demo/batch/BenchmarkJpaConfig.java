@@ -0,0 +1,46 @@
+package com.example.demo.batch;
+
+import java.util.Properties;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import com.example.demo.batch.repository.BookRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Benchmark 使用的最小 JPA 設定
+ * 由呼叫端註冊 DataSource，提供 EntityManagerFactory、交易管理器與所有 Repository
+ * 命名策略與 Spring Boot 預設相同 (camelCase -> snake_case)，資料表結構由各資料集自行建立
+ */
+@Configuration
+@EnableJpaRepositories(basePackageClasses = BookRepository.class)
+public class BenchmarkJpaConfig {
+
+    @Bean
+    public LocalContainerEntityManagerFactoryBean entityManagerFactory(DataSource dataSource) {
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setPackagesToScan("com.example.demo.batch.entity");
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+
+        Properties properties = new Properties();
+        properties.setProperty("hibernate.hbm2ddl.auto", "none");
+        properties.setProperty("hibernate.physical_naming_strategy",
+                "org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy");
+        factory.setJpaProperties(properties);
+        return factory;
+    }
+
+    @Bean
+    public JpaTransactionManager transactionManager(EntityManagerFactory entityManagerFactory) {
+        return new JpaTransactionManager(entityManagerFactory);
+    }
+}
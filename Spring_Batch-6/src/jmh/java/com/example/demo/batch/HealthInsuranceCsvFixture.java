@@ -0,0 +1,44 @@
+package com.example.demo.batch;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * 產生與 UpdateHealthInsurancePremiumFromNH.csv 相同格式的健保檔案
+ * 存放於 build/jmh-data，同一筆數只產生一次
+ */
+public final class HealthInsuranceCsvFixture {
+
+    private HealthInsuranceCsvFixture() {
+    }
+
+    /**
+     * 每筆使用不同的身分證號與客戶編號，其餘欄位與範例檔相同
+     */
+    public static File prepare(int rows) {
+        File file = new File("build/jmh-data/UpdateHealthInsurancePremiumFromNH-" + rows + ".csv");
+        if (file.exists()) {
+            return file;
+        }
+
+        file.getParentFile().mkdirs();
+        try (BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            writer.write("\"fileName\",\"payType\",\"nationalNo\",\"cifNo\",\"withholdDate\",\"withhold\",\"reasonType\"");
+            writer.newLine();
+            for (int i = 1; i <= rows; i++) {
+                writer.write(String.format(
+                        "\"EPR03077208%06d.enc.dec\",\"67\",\"A%09d    \",\"%016d\",\"1131030\",\"%s\",\"11\"",
+                        i % 1_000_000, i, 2_222_222_222_222_222L + i, (i & 1) == 0 ? "Y" : "N"));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            file.delete();
+            throw new UncheckedIOException(e);
+        }
+        return file;
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.demo.batch.launcher;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import com.example.demo.batch.config.BatchThreads;
+import com.example.demo.batch.config.ConnectionPermitDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * 同時啟動多個作業的效能比較：平台執行緒 vs 虛擬執行緒 (batch.threads.virtual)
+ * 每個作業一個 tasklet 步驟，在交易內執行 queries 次查詢，每次查詢在資料庫端阻塞 queryMillis 毫秒 (H2 別名 SLEEP_MS)，
+ * 模擬作業大部分時間等待 JDBC；JobRepository 的中繼資料寫入同一個資料庫
+ * platform：TaskExecutorJobLauncher + platformThreads 條執行緒的 ThreadPoolTaskExecutor（與 bookLauncherTaskExecutor 相同）
+ * virtual：TaskExecutorJobLauncher + BatchThreads.virtualExecutor，每個作業一條虛擬執行緒，
+ *          DataSource 以 ConnectionPermitDataSource 限制為連線池大小
+ * 兩者使用相同大小的 Hikari 連線池 (poolSize)
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=JobLaunchConcurrencyBenchmark -PjmhJvm=<JDK 21>/bin/java
+ * virtual 需要 JDK 21 以上，以較低版本執行時該組參數會失敗，只留下 platform 的結果
+ * 每次迭代結束時印出 jobs/sec 與最多同時存在的平台執行緒數
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class JobLaunchConcurrencyBenchmark {
+
+    @Param({"50"})
+    private int jobs;
+
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    /**
+     * platform 模式的執行緒數
+     */
+    @Param({"8"})
+    private int platformThreads;
+
+    /**
+     * Hikari maximum-pool-size，Spring Boot 預設為 10
+     */
+    @Param({"10"})
+    private int poolSize;
+
+    @Param({"5"})
+    private int queries;
+
+    @Param({"20"})
+    private int queryMillis;
+
+    private HikariDataSource hikari;
+    private TaskExecutor taskExecutor;
+    private TaskExecutorJobLauncher jobLauncher;
+    private Job job;
+
+    private final AtomicLong run = new AtomicLong();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile CountDownLatch completed;
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private long elapsedNanos;
+    private int launched;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        boolean virtual = "virtual".equals(threads);
+        BatchThreads batchThreads = new BatchThreads(virtual);
+        if (virtual && !batchThreads.isVirtual()) {
+            throw new IllegalStateException("virtual threads require JDK 21+, current JDK "
+                    + Runtime.version().feature() + "; run with -PjmhJvm=<JDK 21>/bin/java");
+        }
+
+        hikari = new HikariDataSource();
+        hikari.setJdbcUrl("jdbc:h2:mem:job-launch-" + threads + ";DB_CLOSE_DELAY=-1");
+        hikari.setUsername("sa");
+        hikari.setMaximumPoolSize(poolSize);
+        new ResourceDatabasePopulator(new ClassPathResource("org/springframework/batch/core/schema-h2.sql"))
+                .execute(hikari);
+        new JdbcTemplate(hikari).execute("CREATE ALIAS IF NOT EXISTS SLEEP_MS FOR 'java.lang.Thread.sleep(long)'");
+
+        DataSource dataSource = virtual ? new ConnectionPermitDataSource(hikari, poolSize, 30_000) : hikari;
+        JdbcTransactionManager transactionManager = new JdbcTransactionManager(dataSource);
+        JobRepositoryFactoryBean factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(dataSource);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        JobRepository jobRepository = factory.getObject();
+
+        taskExecutor = virtual ? batchThreads.virtualExecutor("bench-launch-", jobs) : platformExecutor();
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(taskExecutor);
+        jobLauncher.afterPropertiesSet();
+
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        String sleep = "CALL SLEEP_MS(" + queryMillis + ")";
+        job = new JobBuilder("launchBenchmarkJob", jobRepository)
+                .listener(new JobExecutionListener() {
+                    @Override
+                    public void afterJob(JobExecution jobExecution) {
+                        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+                            failures.incrementAndGet();
+                        }
+                        completed.countDown();
+                    }
+                })
+                .start(new StepBuilder("launchBenchmarkStep", jobRepository)
+                        .tasklet((contribution, chunkContext) -> {
+                            for (int i = 0; i < queries; i++) {
+                                jdbcTemplate.execute(sleep);
+                            }
+                            return RepeatStatus.FINISHED;
+                        }, transactionManager)
+                        .build())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (taskExecutor instanceof ThreadPoolTaskExecutor executor) {
+            executor.shutdown();
+        }
+        if (hikari != null) {
+            hikari.close();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetPeak() {
+        threadMXBean.resetPeakThreadCount();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (launched > 0) {
+            System.out.printf("%n[%s jobs=%d] %.1f jobs/sec, peak platform threads=%d, failed=%d%n",
+                    threads, launched, launched / (elapsedNanos / 1e9), threadMXBean.getPeakThreadCount(),
+                    failures.getAndSet(0));
+        }
+        launched = 0;
+        elapsedNanos = 0;
+    }
+
+    @Benchmark
+    public int launchConcurrently() throws Exception {
+        long start = System.nanoTime();
+        completed = new CountDownLatch(jobs);
+        for (int i = 0; i < jobs; i++) {
+            jobLauncher.run(job, new JobParametersBuilder()
+                    .addLong("run", run.incrementAndGet())
+                    .toJobParameters());
+        }
+        if (!completed.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException(completed.getCount() + " jobs still running after 5 minutes");
+        }
+        elapsedNanos += System.nanoTime() - start;
+        launched += jobs;
+        return jobs;
+    }
+
+    private TaskExecutor platformExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(platformThreads);
+        executor.setMaxPoolSize(platformThreads);
+        executor.setQueueCapacity(jobs);
+        executor.setThreadNamePrefix("bench-launch-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.demo.batch.processor;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * 書籍文字標準化效能比較
+ * legacy*：原本 BookItemProcessor 以 replaceAll / split 實作的版本
+ * normalizer*：BookTextNormalizer 單次走訪版本
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=BookTextNormalizerBenchmark
+ * gc profiler 的 gc.alloc.rate.norm 即每次呼叫（三個欄位）的記憶體配置量
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookTextNormalizerBenchmark {
+
+    /**
+     * 標準化快取上限，0 表示每次都重新計算（快取未命中的情況）
+     */
+    @Param({"10000", "0"})
+    private int cacheSize;
+
+    private static final int SAMPLE_SIZE = 4096;
+    private static final int DISTINCT_VALUES = 200;
+
+    private String[] titles;
+    private String[] authors;
+    private String[] publishers;
+    private BookTextNormalizer normalizer;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        titles = new String[SAMPLE_SIZE];
+        authors = new String[SAMPLE_SIZE];
+        publishers = new String[SAMPLE_SIZE];
+
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int key = random.nextInt(DISTINCT_VALUES);
+            titles[i] = "  The   Art of   Programming & Design #" + random.nextInt(1_000_000) + " (2nd ed.)  ";
+            authors[i] = "  jOHN    ronald  reuel " + key + "  ";
+            publishers[i] = " addison  wesley\tprofessional " + key + " ";
+        }
+        normalizer = new BookTextNormalizer(cacheSize);
+    }
+
+    private int next() {
+        index = (index + 1) & (SAMPLE_SIZE - 1);
+        return index;
+    }
+
+    @Benchmark
+    public void legacy(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(legacyCleanTitle(titles[i]));
+        blackhole.consume(legacyCleanAuthor(authors[i]));
+        blackhole.consume(legacyNormalizePublisher(publishers[i]));
+    }
+
+    @Benchmark
+    public void normalizer(Blackhole blackhole) {
+        int i = next();
+        blackhole.consume(normalizer.cleanTitle(titles[i]));
+        blackhole.consume(normalizer.cleanAuthor(authors[i]));
+        blackhole.consume(normalizer.normalizePublisher(publishers[i]));
+    }
+
+    // ================================
+    // 原本 BookItemProcessor 的實作（比較基準）
+    // ================================
+
+    static String legacyCleanTitle(String title) {
+        if (title == null) return "Unknown Title";
+
+        return title.trim()
+                .replaceAll("\\s+", " ")
+                .replaceAll("[^\\w\\s\\-:;,.()?!]", "")
+                .toUpperCase();
+    }
+
+    static String legacyCleanAuthor(String author) {
+        if (author == null) return "Unknown Author";
+
+        author = author.trim().replaceAll("\\s+", " ").toLowerCase();
+
+        StringBuilder sb = new StringBuilder();
+        for (String word : author.split(" ")) {
+            if (!word.isEmpty()) {
+                sb.append(Character.toUpperCase(word.charAt(0)))
+                        .append(word.substring(1))
+                        .append(" ");
+            }
+        }
+        return sb.toString().trim();
+    }
+
+    static String legacyNormalizePublisher(String publisher) {
+        if (publisher == null) return "Unknown Publisher";
+
+        return publisher.trim()
+                .replaceAll("\\s+", " ")
+                .toUpperCase();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.demo.batch.reader;
+
+import java.io.File;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import com.example.demo.batch.BenchmarkJpaConfig;
+import com.example.demo.batch.repository.BookRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * 讀取器 Benchmark 使用的嵌入式資料集
+ * 1. 使用 H2 檔案資料庫 (PostgreSQL 相容模式)，存放於 build/jmh-data，同一筆數只建立一次
+ * 2. 建立最小的 Spring 容器 (DataSource、JPA、BookRepository)，與應用程式使用相同的 BookItemReaders
+ */
+public class BookBenchmarkDataset implements AutoCloseable {
+
+    private final AnnotationConfigApplicationContext context;
+
+    public BookBenchmarkDataset(int rows) {
+        String url = "jdbc:h2:file:" + new File("build/jmh-data/books-" + rows).getAbsolutePath()
+                + ";MODE=PostgreSQL;NON_KEYWORDS=YEAR,VALUE";
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(url, "sa", "");
+        prepare(new JdbcTemplate(dataSource), rows);
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> dataSource);
+        context.register(BenchmarkJpaConfig.class);
+        context.refresh();
+    }
+
+    public BookItemReaders readers() {
+        return new BookItemReaders(
+                context.getBean(BookRepository.class),
+                context.getBean(EntityManagerFactory.class),
+                context.getBean(DataSource.class));
+    }
+
+    public DataSource dataSource() {
+        return context.getBean(DataSource.class);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    /**
+     * 筆數不符時重新產生資料
+     * 作者取 5000 種值，讓「同作者多本書」的複雜查詢有結果
+     */
+    private static void prepare(JdbcTemplate jdbcTemplate, int rows) {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS book (
+                    id INTEGER PRIMARY KEY,
+                    isbn INTEGER,
+                    title VARCHAR(255),
+                    author VARCHAR(255),
+                    year INTEGER,
+                    publisher VARCHAR(255),
+                    cost DOUBLE PRECISION
+                )
+                """);
+
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM book", Long.class);
+        if (existing != null && existing == rows) {
+            return;
+        }
+
+        jdbcTemplate.execute("TRUNCATE TABLE book");
+        jdbcTemplate.update("""
+                INSERT INTO book (id, isbn, title, author, year, publisher, cost)
+                SELECT x,
+                       100000 + x,
+                       '  the   book  title no.' || x || ' & more  ',
+                       '  author   NAME ' || MOD(x, 5000),
+                       1990 + MOD(x, 35),
+                       ' publisher  ' || MOD(x, 200),
+                       10 + MOD(x * 7, 120)
+                FROM SYSTEM_RANGE(1, ?)
+                """, rows);
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_book_year_id ON book (year, id)");
+    }
+}
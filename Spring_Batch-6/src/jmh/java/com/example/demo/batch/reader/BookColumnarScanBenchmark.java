@@ -0,0 +1,146 @@
+package com.example.demo.batch.reader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.writer.BookColumnarExportWriter;
+import com.example.demo.batch.writer.BookColumnarFormat.Column;
+import com.example.demo.batch.writer.BookCsvExportWriter;
+
+/**
+ * 匯出檔案的報告掃描效能比較：依分類加總價格（分類統計報告需要的欄位）
+ * csv / csvGzip：BookCsvExportWriter 的輸出，逐行切分並解析分類與價格
+ * columnar：BookColumnarExportWriter 的輸出，只解壓 CATEGORY 與 COST 欄位
+ * 匯出檔案在 Trial 開始時以 rowGroupSize 筆為一個 chunk 寫入 build/jmh-export
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=BookColumnarScanBenchmark
+ * Trial 開始時印出各格式的檔案大小；-PjmhRows=100000 可縮小筆數
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BookColumnarScanBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"10000"})
+    private int rowGroupSize;
+
+    private Path csv;
+    private Path csvGzip;
+    private Path columnar;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // 與 BookBenchmarkDataset 相同的資料分布，經 BookItemProcessor 正規化後的樣子
+        String[] categories = {"NEW_RELEASE", "RECENT", "CLASSIC", "VINTAGE"};
+        List<BookDTO> books = new ArrayList<>(rows);
+        for (int x = 1; x <= rows; x++) {
+            books.add(new BookDTO(x, 100000 + x, "THE BOOK TITLE NO." + x + " & MORE", "Author Name " + (x % 5000),
+                    1990 + x % 35, "PUBLISHER " + (x % 200), 10.0 + (x * 7) % 120, categories[x % 4], true));
+        }
+
+        Path directory = Files.createDirectories(Path.of("build/jmh-export"));
+        export(new BookCsvExportWriter(directory, "scan_csv", BookCsvExportWriter.Compression.NONE,
+                Long.MAX_VALUE, Long.MAX_VALUE, 1024 * 1024), books);
+        export(new BookCsvExportWriter(directory, "scan_gzip", BookCsvExportWriter.Compression.GZIP,
+                Long.MAX_VALUE, Long.MAX_VALUE, 1024 * 1024), books);
+        columnar = directory.resolve("scan_columnar.bcol");
+        export(new BookColumnarExportWriter(columnar, 1024 * 1024), books);
+        csv = directory.resolve("scan_csv_part-00001.csv");
+        csvGzip = directory.resolve("scan_gzip_part-00001.csv.gz");
+
+        System.out.printf("%n[rows=%d] csv=%d bytes, csv.gz=%d bytes, columnar=%d bytes%n",
+                rows, Files.size(csv), Files.size(csvGzip), Files.size(columnar));
+    }
+
+    @Benchmark
+    public Map<String, Double> csv() throws IOException {
+        return scanCsv(Files.newInputStream(csv));
+    }
+
+    @Benchmark
+    public Map<String, Double> csvGzip() throws IOException {
+        return scanCsv(new GZIPInputStream(Files.newInputStream(csvGzip), 64 * 1024));
+    }
+
+    @Benchmark
+    public Map<String, Double> columnar() throws IOException {
+        Map<String, Double> totals = new HashMap<>();
+        try (BookColumnarFileReader reader = new BookColumnarFileReader(columnar, EnumSet.of(Column.CATEGORY, Column.COST))) {
+            double[] sums = new double[0];
+            for (BookColumnarFileReader.RowGroup group = reader.next(); group != null; group = reader.next()) {
+                if (sums.length < reader.dictionary(Column.CATEGORY).size()) {
+                    sums = Arrays.copyOf(sums, reader.dictionary(Column.CATEGORY).size());
+                }
+                for (int row = 0; row < group.rows(); row++) {
+                    if (!group.isNull(Column.COST, row)) {
+                        sums[group.intValue(Column.CATEGORY, row)] += group.doubleValue(Column.COST, row);
+                    }
+                }
+            }
+            List<String> dictionary = reader.dictionary(Column.CATEGORY);
+            for (int code = 0; code < sums.length; code++) {
+                totals.put(dictionary.get(code), sums[code]);
+            }
+        }
+        return totals;
+    }
+
+    private static Map<String, Double> scanCsv(InputStream in) throws IOException {
+        Map<String, Double> totals = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024)) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split(",");
+                totals.merge(fields[7], Double.parseDouble(fields[6]), Double::sum);
+            }
+        }
+        return totals;
+    }
+
+    private void export(ItemStreamWriter<BookDTO> writer, List<BookDTO> books) throws Exception {
+        ExecutionContext executionContext = new ExecutionContext();
+        writer.open(executionContext);
+        for (int from = 0; from < books.size(); from += rowGroupSize) {
+            writer.write(new Chunk<>(books.subList(from, Math.min(from + rowGroupSize, books.size()))));
+            writer.update(executionContext);
+        }
+        writer.close();
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.demo.batch.reader;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.beans.factory.InitializingBean;
+
+import com.example.demo.batch.entity.Book;
+
+/**
+ * BookItemReaders 各讀取器的效能比較
+ * 每次呼叫從頭到尾讀完一次查詢結果，輸出：
+ * 1. items：每秒讀取筆數 (AuxCounters)
+ * 2. gc.alloc.rate.norm：每次完整讀取的配置量，除以 TearDown 印出的 items/scan 即每筆配置量
+ * 3. gc.count / gc.time：GC 次數與暫停時間 (gc profiler)
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=BookReaderBenchmark -PjmhRows=10000,1000000
+ * 注意：JPA 分頁讀取器使用 OFFSET 分頁，在千萬筆資料下每頁成本隨頁數線性增加，可能需要數小時
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BookReaderBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    private int rows;
+
+    @Param({"repository", "repositoryCustom", "keyset", "keysetAfterYear",
+            "jpaPaging", "jpaPagingComplex", "jdbcCursor", "jdbcCursorComplex"})
+    private String reader;
+
+    private BookBenchmarkDataset dataset;
+    private BookItemReaders readers;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private long scans;
+    private long scannedItems;
+    private long allocatedBytes;
+
+    /**
+     * 以 OPERATIONS 型別回報，JMH 會換算成每秒讀取筆數
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ItemCounter {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = new BookBenchmarkDataset(rows);
+        readers = dataset.readers();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (scans > 0 && scannedItems > 0) {
+            System.out.printf("%n[%s rows=%d] items/scan=%d, allocated bytes/item=%.1f%n",
+                    reader, rows, scannedItems / scans, (double) allocatedBytes / scannedItems);
+        }
+        scans = 0;
+        scannedItems = 0;
+        allocatedBytes = 0;
+    }
+
+    @Benchmark
+    public long readAll(ItemCounter counter) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        ItemStreamReader<Book> itemReader = createReader();
+        if (itemReader instanceof InitializingBean initializingBean) {
+            initializingBean.afterPropertiesSet();
+        }
+
+        long count = 0;
+        long checksum = 0;
+        itemReader.open(new ExecutionContext());
+        try {
+            Book book;
+            while ((book = itemReader.read()) != null) {
+                checksum += book.getId();
+                count++;
+            }
+        } finally {
+            itemReader.close();
+        }
+
+        allocatedBytes += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        scannedItems += count;
+        scans++;
+        counter.items += count;
+        return checksum;
+    }
+
+    private ItemStreamReader<Book> createReader() {
+        return switch (reader) {
+            case "repository" -> readers.createRepositoryItemReader();
+            case "repositoryCustom" -> readers.createRepositoryItemReaderWithCustomQuery();
+            case "keyset" -> readers.createKeysetItemReader();
+            case "keysetAfterYear" -> readers.createKeysetItemReaderAfterYear(2020);
+            case "jpaPaging" -> readers.createJpaPagingItemReader();
+            case "jpaPagingComplex" -> readers.createJpaPagingItemReaderComplex();
+            case "jdbcCursor" -> readers.createJdbcCursorItemReader();
+            case "jdbcCursorComplex" -> readers.createJdbcCursorItemReaderComplex();
+            default -> throw new IllegalArgumentException("Unknown reader: " + reader);
+        };
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo.batch.reader;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import com.example.demo.batch.HealthInsuranceCsvFixture;
+import com.example.demo.batch.dto.HealthInsuranceDTO;
+
+/**
+ * 健保檔案讀取器效能比較
+ * 每次呼叫從頭到尾讀完一次檔案，輸出：
+ * 1. items：每秒讀取筆數 (AuxCounters)
+ * 2. gc.alloc.rate.norm：每次完整讀取的配置量，TearDown 另外印出每筆配置量
+ * flatFile：目前的 FlatFileItemReader (DelimitedLineTokenizer + 反射建立 record)
+ * mapped：MappedHealthInsuranceItemReader
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=HealthInsuranceReaderBenchmark -PjmhRows=1000000
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HealthInsuranceReaderBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"flatFile", "mapped"})
+    private String reader;
+
+    private Resource csv;
+    private final HealthInsuranceItemReader readers = new HealthInsuranceItemReader();
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private long scannedItems;
+    private long allocatedBytes;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class ItemCounter {
+        public long items;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            items = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        csv = new FileSystemResource(HealthInsuranceCsvFixture.prepare(rows));
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (scannedItems > 0) {
+            System.out.printf("%n[%s rows=%d] allocated bytes/item=%.1f%n",
+                    reader, rows, (double) allocatedBytes / scannedItems);
+        }
+        scannedItems = 0;
+        allocatedBytes = 0;
+    }
+
+    @Benchmark
+    public long readAll(ItemCounter counter) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        ItemStreamReader<HealthInsuranceDTO> itemReader = "mapped".equals(reader)
+                ? readers.createMappedReader(csv)
+                : readers.createReader(csv);
+
+        long count = 0;
+        long checksum = 0;
+        itemReader.open(new ExecutionContext());
+        try {
+            HealthInsuranceDTO item;
+            while ((item = itemReader.read()) != null) {
+                checksum += item.nationalNo().length() + item.withhold().charAt(0);
+                count++;
+            }
+        } finally {
+            itemReader.close();
+        }
+
+        allocatedBytes += threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+        scannedItems += count;
+        counter.items += count;
+        return checksum;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.batch.writer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.core.io.FileSystemResource;
+
+import com.example.demo.batch.dto.BookDTO;
+
+/**
+ * 書籍 CSV 匯出的寫入器效能比較
+ * 每次呼叫以 chunk 為單位寫完整個書目（每個 chunk 結束時呼叫 update，與步驟提交相同）
+ * flatFile：原本的 FlatFileItemWriter (未壓縮)
+ * none / gzip：BookCsvExportWriter 的兩種壓縮方式
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=BookCsvExportBenchmark
+ * 每次迭代結束時印出 rows/sec 與輸出檔案的總位元組數；-PjmhRows=100000 可縮小筆數
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BookCsvExportBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"flatFile", "none", "gzip"})
+    private String writer;
+
+    /**
+     * 8 為目前 bookJpaStep 的 chunk 大小
+     */
+    @Param({"8", "1000"})
+    private int chunkSize;
+
+    private final List<BookDTO> books = new ArrayList<>();
+    private Path directory;
+    private int run;
+
+    private long writtenRows;
+    private long elapsedNanos;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        // 與 BookBenchmarkDataset 相同的資料分布，經 BookItemProcessor 正規化後的樣子
+        String[] categories = {"NEW_RELEASE", "RECENT", "CLASSIC", "VINTAGE"};
+        for (int x = 1; x <= rows; x++) {
+            books.add(new BookDTO(x, 100000 + x, "THE BOOK TITLE NO." + x + " & MORE", "Author Name " + (x % 5000),
+                    1990 + x % 35, "PUBLISHER " + (x % 200), 10.0 + (x * 7) % 120, categories[x % 4], true));
+        }
+        directory = Files.createDirectories(Path.of("build/jmh-export"));
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() throws IOException {
+        long bytes;
+        try (Stream<Path> files = Files.list(directory)) {
+            bytes = files.filter(Files::isRegularFile).mapToLong(BookCsvExportBenchmark::size).sum();
+        }
+        if (writtenRows > 0) {
+            System.out.printf("%n[%s chunk=%d rows=%d] %.0f rows/sec, %d bytes on disk%n",
+                    writer, chunkSize, writtenRows, writtenRows / (elapsedNanos / 1e9), bytes);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> file.toFile().delete());
+        }
+        writtenRows = 0;
+        elapsedNanos = 0;
+    }
+
+    @Benchmark
+    public long export() throws Exception {
+        long start = System.nanoTime();
+
+        ItemStreamWriter<BookDTO> itemWriter = createWriter(++run);
+        ExecutionContext executionContext = new ExecutionContext();
+        itemWriter.open(executionContext);
+        try {
+            for (int from = 0; from < books.size(); from += chunkSize) {
+                itemWriter.write(new Chunk<>(books.subList(from, Math.min(from + chunkSize, books.size()))));
+                itemWriter.update(executionContext);
+            }
+        } finally {
+            itemWriter.close();
+        }
+
+        elapsedNanos += System.nanoTime() - start;
+        writtenRows += books.size();
+        return books.size();
+    }
+
+    private ItemStreamWriter<BookDTO> createWriter(int id) {
+        if ("flatFile".equals(writer)) {
+            return new FlatFileItemWriterBuilder<BookDTO>()
+                    .name("bookCsvItemWriter")
+                    .resource(new FileSystemResource(directory.resolve("flat_" + id + ".csv")))
+                    .delimited()
+                    .delimiter(",")
+                    .names("id", "isbn", "title", "author", "year", "publisher", "cost", "category", "isProcessed")
+                    .headerCallback(w -> w.write("ID,ISBN,Title,Author,Year,Publisher,Cost,Category,IsProcessed"))
+                    .build();
+        }
+        return new BookCsvExportWriter(directory, "export_" + id, BookCsvExportWriter.Compression.from(writer),
+                1_000_000, 256L * 1024 * 1024, 1024 * 1024);
+    }
+
+    private static long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
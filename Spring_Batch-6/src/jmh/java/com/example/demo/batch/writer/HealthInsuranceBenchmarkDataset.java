@@ -0,0 +1,96 @@
+package com.example.demo.batch.writer;
+
+import java.io.File;
+
+import javax.sql.DataSource;
+
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.batch.BenchmarkJpaConfig;
+import com.example.demo.batch.HealthInsuranceCsvFixture;
+import com.example.demo.batch.repository.HealthInsuranceRepository;
+
+/**
+ * 健保寫入器 Benchmark 使用的資料集
+ * 1. 產生 rows 筆與 UpdateHealthInsurancePremiumFromNH.csv 相同格式的檔案，存放於 build/jmh-data，同一筆數只產生一次
+ * 2. 預設寫入 H2 檔案資料庫 (PostgreSQL 相容模式)；設定環境變數 BENCHMARK_JDBC_URL / BENCHMARK_JDBC_USER /
+ *    BENCHMARK_JDBC_PASSWORD 時改寫入該資料庫，例如 jdbc:postgresql://localhost:5432/test?reWriteBatchedInserts=true
+ * 3. 使用單一連線，避免每個 chunk 重新建立連線的成本混入寫入時間
+ */
+public class HealthInsuranceBenchmarkDataset implements AutoCloseable {
+
+    private final File csvFile;
+    private final SingleConnectionDataSource dataSource;
+    private final AnnotationConfigApplicationContext context;
+
+    public HealthInsuranceBenchmarkDataset(int rows) {
+        csvFile = HealthInsuranceCsvFixture.prepare(rows);
+        dataSource = createDataSource();
+        createTable(new JdbcTemplate(dataSource));
+
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(DataSource.class, () -> dataSource);
+        context.register(BenchmarkJpaConfig.class);
+        context.refresh();
+    }
+
+    public Resource csv() {
+        return new FileSystemResource(csvFile);
+    }
+
+    public HealthInsuranceItemWriter writers() {
+        return new HealthInsuranceItemWriter(context.getBean(HealthInsuranceRepository.class), dataSource);
+    }
+
+    public PlatformTransactionManager transactionManager() {
+        return context.getBean(PlatformTransactionManager.class);
+    }
+
+    public void truncate() {
+        new JdbcTemplate(dataSource).execute("TRUNCATE TABLE health_insurance");
+    }
+
+    public long count() {
+        Long count = new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM health_insurance", Long.class);
+        return count == null ? 0 : count;
+    }
+
+    @Override
+    public void close() {
+        context.close();
+        dataSource.destroy();
+    }
+
+    private static SingleConnectionDataSource createDataSource() {
+        String url = System.getenv("BENCHMARK_JDBC_URL");
+        if (url == null || url.isBlank()) {
+            return new SingleConnectionDataSource("jdbc:h2:file:"
+                    + new File("build/jmh-data/health-insurance").getAbsolutePath() + ";MODE=PostgreSQL",
+                    "sa", "", true);
+        }
+        return new SingleConnectionDataSource(url,
+                System.getenv().getOrDefault("BENCHMARK_JDBC_USER", "postgres"),
+                System.getenv().getOrDefault("BENCHMARK_JDBC_PASSWORD", "postgres"),
+                true);
+    }
+
+    private static void createTable(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.execute("""
+                CREATE TABLE IF NOT EXISTS health_insurance (
+                    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+                    file_name VARCHAR(255),
+                    pay_type VARCHAR(255),
+                    national_no VARCHAR(255),
+                    cif_no VARCHAR(255),
+                    withhold_date VARCHAR(255),
+                    withhold VARCHAR(255),
+                    reason_type VARCHAR(255)
+                )
+                """);
+    }
+}
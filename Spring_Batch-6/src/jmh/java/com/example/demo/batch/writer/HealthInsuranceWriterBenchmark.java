@@ -0,0 +1,135 @@
+package com.example.demo.batch.writer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.batch.dto.HealthInsuranceDTO;
+import com.example.demo.batch.entity.HealthInsurance;
+import com.example.demo.batch.processor.HealthInsuranceItemProcessor;
+import com.example.demo.batch.reader.HealthInsuranceItemReader;
+
+/**
+ * 健保檔案匯入的寫入器效能比較
+ * 每次呼叫以 chunk 交易的方式完整匯入一次檔案（讀取 -> 處理 -> 寫入 -> commit），與 healthInsuranceStep 相同
+ * repository：目前的 RepositoryItemWriter (逐筆 save)
+ * jdbc：JDBC 批次插入
+ *
+ * 執行：./gradlew jmh -PjmhIncludes=HealthInsuranceWriterBenchmark
+ * 每次迭代結束時印出 rows/sec；-PjmhRows=100000 可縮小檔案筆數
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HealthInsuranceWriterBenchmark {
+
+    @Param({"1000000"})
+    private int rows;
+
+    @Param({"repository", "jdbc"})
+    private String writer;
+
+    /**
+     * 3 為目前 healthInsuranceStep 的 chunk 大小
+     */
+    @Param({"3", "1000"})
+    private int chunkSize;
+
+    private HealthInsuranceBenchmarkDataset dataset;
+    private ItemWriter<HealthInsurance> itemWriter;
+    private HealthInsuranceItemProcessor processor;
+    private TransactionTemplate transactionTemplate;
+
+    private long importedRows;
+    private long elapsedNanos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataset = new HealthInsuranceBenchmarkDataset(rows);
+        itemWriter = dataset.writers().createWriter(writer);
+        processor = new HealthInsuranceItemProcessor();
+        transactionTemplate = new TransactionTemplate(dataset.transactionManager());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        dataset.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() {
+        dataset.truncate();
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        if (importedRows > 0) {
+            System.out.printf("%n[%s chunk=%d rows=%d] %.0f rows/sec (table rows=%d)%n",
+                    writer, chunkSize, importedRows, importedRows / (elapsedNanos / 1e9), dataset.count());
+        }
+        importedRows = 0;
+        elapsedNanos = 0;
+    }
+
+    @Benchmark
+    public long importFile() throws Exception {
+        long start = System.nanoTime();
+
+        FlatFileItemReader<HealthInsuranceDTO> reader = new HealthInsuranceItemReader().createReader(dataset.csv());
+        reader.open(new ExecutionContext());
+        long count = 0;
+        try {
+            int written;
+            do {
+                Integer result = transactionTemplate.execute(status -> writeChunk(reader));
+                written = result == null ? 0 : result;
+                count += written;
+            } while (written == chunkSize);
+        } finally {
+            reader.close();
+        }
+
+        elapsedNanos += System.nanoTime() - start;
+        importedRows += count;
+        return count;
+    }
+
+    /**
+     * 在一個交易內讀取、處理並寫入一個 chunk，回傳寫入筆數
+     */
+    private int writeChunk(FlatFileItemReader<HealthInsuranceDTO> reader) {
+        try {
+            Chunk<HealthInsurance> chunk = new Chunk<>();
+            HealthInsuranceDTO item;
+            while (chunk.size() < chunkSize && (item = reader.read()) != null) {
+                chunk.add(processor.process(item));
+            }
+            if (!chunk.isEmpty()) {
+                itemWriter.write(chunk);
+            }
+            return chunk.size();
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to import chunk", e);
+        }
+    }
+}
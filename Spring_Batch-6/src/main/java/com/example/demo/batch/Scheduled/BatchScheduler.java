@@ -9,14 +9,20 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 
+import com.example.demo.batch.config.BatchMetadataRetentionConfig;
+import com.example.demo.batch.reader.HealthInsuranceItemReader;
+import com.example.demo.batch.reader.PersonItemReader;
+
 @Configuration
 @EnableScheduling
 public class BatchScheduler {
 
     private final JobLauncher jobLauncher;
+    private final JobLaunchGate jobLaunchGate;
 
     @Autowired
     @Qualifier("importUserJob4")
@@ -30,11 +36,16 @@ public class BatchScheduler {
     @Qualifier("sampleJob")
     private Job sampleJob;
 
-    public BatchScheduler(JobLauncher jobLauncher) {
+    @Autowired
+    @Qualifier(BatchMetadataRetentionConfig.JOB_NAME)
+    private Job batchMetadataRetentionJob;
+
+    public BatchScheduler(JobLauncher jobLauncher, JobLaunchGate jobLaunchGate) {
         this.jobLauncher = jobLauncher;
+        this.jobLaunchGate = jobLaunchGate;
     }
 
-    // importUserJob4 每5分钟执行一次
+    // importUserJob4 每5分钟执行一次，输入文件未变更时只记录 NOOP，上一次仍在执行时延后 (jobExecution 为 null)
     @Scheduled(fixedRate = 300000) // 5分钟 = 300000毫秒
     public void runImportUserJob() throws JobExecutionException {
         JobParameters params = new JobParametersBuilder()
@@ -42,11 +53,14 @@ public class BatchScheduler {
                 .toJobParameters();
 
         System.out.println("Starting job: " + importUserJob4.getName());
-        JobExecution jobExecution = jobLauncher.run(importUserJob4, params);
-        System.out.println("Batch job " + importUserJob4.getName() + " status: " + jobExecution.getStatus());
+        JobExecution jobExecution = jobLaunchGate.run(importUserJob4, params,
+                () -> jobLaunchGate.fileFingerprint(new ClassPathResource(PersonItemReader.DEFAULT_RESOURCE)));
+        if (jobExecution != null) {
+            System.out.println("Batch job " + importUserJob4.getName() + " status: " + jobExecution.getStatus());
+        }
     }
 
-    // healthInsuranceJob 每2分钟执行一次
+    // healthInsuranceJob 每2分钟执行一次，输入文件未变更时只记录 NOOP，上一次仍在执行时延后 (jobExecution 为 null)
     @Scheduled(fixedRate = 120000) // 2分钟 = 120000毫秒
     public void runHealthInsuranceJob() throws JobExecutionException {
         JobParameters params = new JobParametersBuilder()
@@ -54,8 +68,11 @@ public class BatchScheduler {
                 .toJobParameters();
 
         System.out.println("Starting job: " + healthInsuranceJob.getName());
-        JobExecution jobExecution = jobLauncher.run(healthInsuranceJob, params);
-        System.out.println("Batch job " + healthInsuranceJob.getName() + " status: " + jobExecution.getStatus());
+        JobExecution jobExecution = jobLaunchGate.run(healthInsuranceJob, params,
+                () -> jobLaunchGate.fileFingerprint(new ClassPathResource(HealthInsuranceItemReader.DEFAULT_RESOURCE)));
+        if (jobExecution != null) {
+            System.out.println("Batch job " + healthInsuranceJob.getName() + " status: " + jobExecution.getStatus());
+        }
     }
 
     // 如果您也需要为sampleJob设置不同的执行周期，可以添加类似的方法
@@ -69,4 +86,17 @@ public class BatchScheduler {
         JobExecution jobExecution = jobLauncher.run(sampleJob, params);
         System.out.println("Batch job " + sampleJob.getName() + " status: " + jobExecution.getStatus());
     }
+
+    // 清理 BATCH_* 数据表中超过保留期限的执行，默认每天 03:30
+    @Scheduled(cron = "${batch.retention.cron:0 30 3 * * *}")
+    public void runBatchMetadataRetentionJob() throws JobExecutionException {
+        JobParameters params = new JobParametersBuilder()
+                .addLong("time", System.currentTimeMillis())
+                .toJobParameters();
+
+        System.out.println("Starting job: " + batchMetadataRetentionJob.getName());
+        JobExecution jobExecution = jobLauncher.run(batchMetadataRetentionJob, params);
+        System.out.println("Batch job " + batchMetadataRetentionJob.getName() + " status: " + jobExecution.getStatus()
+                + " " + jobExecution.getExitStatus().getExitDescription());
+    }
 }
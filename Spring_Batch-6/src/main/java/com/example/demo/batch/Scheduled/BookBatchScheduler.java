@@ -20,13 +20,18 @@ import lombok.extern.log4j.Log4j2;
 /**
  * 書籍批次作業排程器
  * 提供不同時間間隔的排程任務，演示三種不同的讀取器方式
+ * 固定間隔的作業經過 JobLaunchGate，book 資料表未變更時只記錄 NOOP；每日報告與每週維護固定執行
+ * 所有排程都經過 JobLaunchGate 的重疊保護：同一作業或共用步驟的作業仍在執行時（含其他節點）延後，合併為一次補跑
  */
 @Log4j2
 @Configuration
 @EnableScheduling
 public class BookBatchScheduler {
 
+    private static final String BOOK_TABLE = "book";
+
     private final JobLauncher jobLauncher;
+    private final JobLaunchGate jobLaunchGate;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Autowired
@@ -41,16 +46,33 @@ public class BookBatchScheduler {
     @Qualifier("bookJdbcJob")
     private Job bookJdbcJob;
 
+    @Autowired
+    @Qualifier("bookJdbcPartitionedJob")
+    private Job bookJdbcPartitionedJob;
+
     @Autowired
     @Qualifier("bookComprehensiveJob")
     private Job bookComprehensiveJob;
 
+    @Autowired
+    @Qualifier("bookComprehensiveParallelJob")
+    private Job bookComprehensiveParallelJob;
+
     @Autowired
     @Qualifier("bookConditionalJob")
     private Job bookConditionalJob;
 
-    public BookBatchScheduler(JobLauncher jobLauncher) {
+    @Autowired
+    @Qualifier("bookColumnarExportJob")
+    private Job bookColumnarExportJob;
+
+    @Autowired
+    @Qualifier("bookRemoteChunkingJob")
+    private Job bookRemoteChunkingJob;
+
+    public BookBatchScheduler(JobLauncher jobLauncher, JobLaunchGate jobLaunchGate) {
         this.jobLauncher = jobLauncher;
+        this.jobLaunchGate = jobLaunchGate;
     }
 
     /**
@@ -63,10 +85,12 @@ public class BookBatchScheduler {
             JobParameters params = createJobParameters("REPOSITORY_SCHEDULED");
 
             log.info("🚀 Starting Repository Job at {}", LocalDateTime.now().format(formatter));
-            JobExecution jobExecution = jobLauncher.run(bookRepositoryJob, params);
+            JobExecution jobExecution = runIfBooksChanged(bookRepositoryJob, params);
 
-            log.info("📊 Repository Job Result: {} (ID: {})",
-                    jobExecution.getStatus(), jobExecution.getJobId());
+            if (jobExecution != null) {
+                log.info("📊 Repository Job Result: {} (ID: {})",
+                        jobExecution.getStatus(), jobExecution.getJobId());
+            }
 
         } catch (JobExecutionException e) {
             log.error("❌ Repository Job execution failed: {}", e.getMessage(), e);
@@ -83,10 +107,12 @@ public class BookBatchScheduler {
             JobParameters params = createJobParameters("JPA_SCHEDULED");
 
             log.info("🚀 Starting JPA Job at {}", LocalDateTime.now().format(formatter));
-            JobExecution jobExecution = jobLauncher.run(bookJpaJob, params);
+            JobExecution jobExecution = runIfBooksChanged(bookJpaJob, params);
 
-            log.info("📊 JPA Job Result: {} (ID: {})",
-                    jobExecution.getStatus(), jobExecution.getJobId());
+            if (jobExecution != null) {
+                log.info("📊 JPA Job Result: {} (ID: {})",
+                        jobExecution.getStatus(), jobExecution.getJobId());
+            }
 
         } catch (JobExecutionException e) {
             log.error("❌ JPA Job execution failed: {}", e.getMessage(), e);
@@ -103,10 +129,12 @@ public class BookBatchScheduler {
             JobParameters params = createJobParameters("JDBC_SCHEDULED");
 
             log.info("🚀 Starting JDBC Job at {}", LocalDateTime.now().format(formatter));
-            JobExecution jobExecution = jobLauncher.run(bookJdbcJob, params);
+            JobExecution jobExecution = runIfBooksChanged(bookJdbcJob, params);
 
-            log.info("📊 JDBC Job Result: {} (ID: {})",
-                    jobExecution.getStatus(), jobExecution.getJobId());
+            if (jobExecution != null) {
+                log.info("📊 JDBC Job Result: {} (ID: {})",
+                        jobExecution.getStatus(), jobExecution.getJobId());
+            }
 
         } catch (JobExecutionException e) {
             log.error("❌ JDBC Job execution failed: {}", e.getMessage(), e);
@@ -123,10 +151,12 @@ public class BookBatchScheduler {
             JobParameters params = createJobParameters("COMPREHENSIVE_SCHEDULED");
 
             log.info("🚀 Starting Comprehensive Job at {}", LocalDateTime.now().format(formatter));
-            JobExecution jobExecution = jobLauncher.run(bookComprehensiveJob, params);
+            JobExecution jobExecution = runIfBooksChanged(bookComprehensiveJob, params);
 
-            log.info("📊 Comprehensive Job Result: {} (ID: {})",
-                    jobExecution.getStatus(), jobExecution.getJobId());
+            if (jobExecution != null) {
+                log.info("📊 Comprehensive Job Result: {} (ID: {})",
+                        jobExecution.getStatus(), jobExecution.getJobId());
+            }
 
         } catch (JobExecutionException e) {
             log.error("❌ Comprehensive Job execution failed: {}", e.getMessage(), e);
@@ -143,10 +173,12 @@ public class BookBatchScheduler {
             JobParameters params = createJobParameters("CONDITIONAL_SCHEDULED");
 
             log.info("🚀 Starting Conditional Job at {}", LocalDateTime.now().format(formatter));
-            JobExecution jobExecution = jobLauncher.run(bookConditionalJob, params);
+            JobExecution jobExecution = runIfBooksChanged(bookConditionalJob, params);
 
-            log.info("📊 Conditional Job Result: {} (ID: {})",
-                    jobExecution.getStatus(), jobExecution.getJobId());
+            if (jobExecution != null) {
+                log.info("📊 Conditional Job Result: {} (ID: {})",
+                        jobExecution.getStatus(), jobExecution.getJobId());
+            }
 
         } catch (JobExecutionException e) {
             log.error("❌ Conditional Job execution failed: {}", e.getMessage(), e);
@@ -166,19 +198,19 @@ public class BookBatchScheduler {
 
             // 順序執行所有作業以生成完整報告
             log.info("📋 Executing Repository Job...");
-            jobLauncher.run(bookRepositoryJob, params);
+            runGuarded(bookRepositoryJob, params);
 
             Thread.sleep(30000); // 等待 30 秒
 
             log.info("📋 Executing JPA Job...");
-            jobLauncher.run(bookJpaJob, createJobParameters("DAILY_REPORT_JPA"));
+            runGuarded(bookJpaJob, createJobParameters("DAILY_REPORT_JPA"));
 
             Thread.sleep(30000); // 等待 30 秒
 
             log.info("📋 Executing JDBC Job...");
-            JobExecution finalJob = jobLauncher.run(bookJdbcJob, createJobParameters("DAILY_REPORT_JDBC"));
+            JobExecution finalJob = runGuarded(bookJdbcJob, createJobParameters("DAILY_REPORT_JDBC"));
 
-            log.info("🌅 Daily Report Completed: {}", finalJob.getStatus());
+            log.info("🌅 Daily Report Completed: {}", finalJob != null ? finalJob.getStatus() : "DEFERRED");
 
         } catch (Exception e) {
             log.error("❌ Daily Report Job execution failed: {}", e.getMessage(), e);
@@ -195,16 +227,33 @@ public class BookBatchScheduler {
             JobParameters params = createJobParameters("WEEKLY_MAINTENANCE");
 
             log.info("🧹 Starting Weekly Maintenance Job at {}", LocalDateTime.now().format(formatter));
-            JobExecution jobExecution = jobLauncher.run(bookComprehensiveJob, params);
+            JobExecution jobExecution = runGuarded(bookComprehensiveJob, params);
 
-            log.info("🧹 Weekly Maintenance Result: {} (ID: {})",
-                    jobExecution.getStatus(), jobExecution.getJobId());
+            if (jobExecution != null) {
+                log.info("🧹 Weekly Maintenance Result: {} (ID: {})",
+                        jobExecution.getStatus(), jobExecution.getJobId());
+            }
 
         } catch (JobExecutionException e) {
             log.error("❌ Weekly Maintenance Job execution failed: {}", e.getMessage(), e);
         }
     }
 
+    /**
+     * 經過 JobLaunchGate 啟動，以 book 資料表的筆數與最大 id 作為輸入指紋
+     * 與執行中的作業重疊時延後並回傳 null
+     */
+    private JobExecution runIfBooksChanged(Job job, JobParameters params) throws JobExecutionException {
+        return jobLaunchGate.run(job, params, () -> jobLaunchGate.tableFingerprint(BOOK_TABLE));
+    }
+
+    /**
+     * 只經過重疊保護，不比對輸入指紋；與執行中的作業重疊時延後並回傳 null
+     */
+    private JobExecution runGuarded(Job job, JobParameters params) throws JobExecutionException {
+        return jobLaunchGate.run(job, params, null);
+    }
+
     /**
      * 創建作業參數
      */
@@ -217,23 +266,40 @@ public class BookBatchScheduler {
                 .toJobParameters();
     }
 
+    /**
+     * 依作業類型取得作業，未知的類型回傳 null
+     */
+    public Job resolveJob(String jobType) {
+        return switch (jobType.toUpperCase()) {
+            case "REPOSITORY" -> bookRepositoryJob;
+            case "JPA" -> bookJpaJob;
+            case "JDBC" -> bookJdbcJob;
+            case "JDBC_PARTITIONED" -> bookJdbcPartitionedJob;
+            case "COMPREHENSIVE" -> bookComprehensiveJob;
+            case "COMPREHENSIVE_PARALLEL" -> bookComprehensiveParallelJob;
+            case "CONDITIONAL" -> bookConditionalJob;
+            case "COLUMNAR_EXPORT" -> bookColumnarExportJob;
+            case "REMOTE_CHUNKING" -> bookRemoteChunkingJob;
+            default -> null;
+        };
+    }
+
+    /**
+     * 手動觸發作業的參數
+     */
+    public JobParameters createManualJobParameters() {
+        return createJobParameters("MANUAL_TRIGGER");
+    }
+
     /**
      * 手動觸發作業的方法 - 可通過 REST API 調用
      */
     public String triggerJobManually(String jobType) {
         try {
-            JobParameters params = createJobParameters("MANUAL_TRIGGER");
-            Job jobToRun;
-
-            switch (jobType.toUpperCase()) {
-                case "REPOSITORY" -> jobToRun = bookRepositoryJob;
-                case "JPA" -> jobToRun = bookJpaJob;
-                case "JDBC" -> jobToRun = bookJdbcJob;
-                case "COMPREHENSIVE" -> jobToRun = bookComprehensiveJob;
-                case "CONDITIONAL" -> jobToRun = bookConditionalJob;
-                default -> {
-                    return "❌ Unknown job type: " + jobType;
-                }
+            JobParameters params = createManualJobParameters();
+            Job jobToRun = resolveJob(jobType);
+            if (jobToRun == null) {
+                return "❌ Unknown job type: " + jobType;
             }
 
             log.info("🎯 Manually triggering {} job", jobType);
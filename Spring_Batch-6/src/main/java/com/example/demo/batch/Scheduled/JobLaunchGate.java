@@ -0,0 +1,371 @@
+package com.example.demo.batch.Scheduled;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32C;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.StepLocator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 排程作業的啟動閘門
+ * 啟動前計算作業輸入的指紋，與上一次成功執行時的指紋相同就不執行作業：
+ * 1. 檔案輸入：大小 + CRC32C 串流校驗碼；大小與修改時間都沒變時沿用上次的校驗碼，不重新讀檔
+ * 2. 資料表輸入：COUNT(*) + MAX(id)
+ * 3. 指紋以非識別參數 input.fingerprint 保存在 JobRepository，應用程式重啟後仍可比對
+ * 4. 輸入未變更時只在 JobRepository 記錄一筆 NOOP 執行（沒有任何步驟），不讀取資料
+ *
+ * 只比對最後一次執行，上次失敗時一律啟動作業
+ * 手動觸發不經過閘門；batch.scheduler.skip-unchanged=false 可關閉
+ *
+ * 重疊保護 (batch.scheduler.overlap-guard)：
+ * 1. 同一作業，或與其共用步驟的作業（例如 bookComprehensiveJob 與 bookRepositoryJob）仍在執行時不啟動
+ * 2. 執行中的判斷來自 JobRepository，其他節點啟動的作業同樣會擋下；本節點正在啟動的作業另外記錄，避免同時觸發時重複啟動
+ *    步驟名稱取自 StepLocator 與 JobRepository 中的執行紀錄
+ * 3. 被擋下的觸發合併為每個作業一筆待執行，之後的觸發只更新參數；衝突結束後由 launchPending 補跑一次
+ * 4. 待執行期間若已有其他觸發（任何節點）啟動同一作業，待執行直接取消
+ * 5. 最新的步驟 lastUpdated (每次 chunk 提交更新) 超過 stale-after-minutes 沒有更新的執行視為節點中斷遺留，不列入衝突
+ * 6. 可指定啟動用的 JobLauncher（例如 BookJobLaunchService 的非同步啟動器），補跑時使用同一個啟動器
+ */
+@Log4j2
+@Component
+public class JobLaunchGate {
+
+    public static final String FINGERPRINT_PARAMETER = "input.fingerprint";
+
+    private final JobLauncher jobLauncher;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<Job> jobs;
+    private final boolean skipUnchanged;
+    private final boolean overlapGuard;
+    private final Duration staleAfter;
+
+    private final Map<String, FileChecksum> checksums = new ConcurrentHashMap<>();
+
+    /**
+     * 本節點正在啟動或以同步方式執行中的作業
+     */
+    private final Set<String> launching = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 被擋下而等待補跑的作業，每個作業最多一筆
+     */
+    private final Map<String, PendingRun> pendingRuns = new ConcurrentHashMap<>();
+
+    private record FileChecksum(long size, long lastModified, long checksum) {
+    }
+
+    private record PendingRun(Job job, JobParameters params, Supplier<String> fingerprint, JobLauncher launcher,
+                              LocalDateTime requestedAt, int coalesced) {
+    }
+
+    public JobLaunchGate(JobLauncher jobLauncher,
+                         JobRepository jobRepository,
+                         JobExplorer jobExplorer,
+                         DataSource dataSource,
+                         List<Job> jobs,
+                         @Value("${batch.scheduler.skip-unchanged:true}") boolean skipUnchanged,
+                         @Value("${batch.scheduler.overlap-guard:true}") boolean overlapGuard,
+                         @Value("${batch.scheduler.stale-after-minutes:120}") long staleAfterMinutes) {
+        this.jobLauncher = jobLauncher;
+        this.jobRepository = jobRepository;
+        this.jobExplorer = jobExplorer;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jobs = jobs;
+        this.skipUnchanged = skipUnchanged;
+        this.overlapGuard = overlapGuard;
+        this.staleAfter = Duration.ofMinutes(staleAfterMinutes);
+    }
+
+    /**
+     * 沒有重疊的執行且輸入有變更時啟動作業，輸入未變更時記錄 NOOP 執行
+     *
+     * @param fingerprint 啟動時才計算的輸入指紋，多個輸入以 | 串接；null 或回傳 null 表示無法判斷，直接啟動
+     * @return 作業執行；與執行中的作業重疊而延後時回傳 null
+     */
+    public JobExecution run(Job job, JobParameters params, Supplier<String> fingerprint)
+            throws JobExecutionException {
+        return run(job, params, fingerprint, jobLauncher);
+    }
+
+    /**
+     * 同 {@link #run(Job, JobParameters, Supplier)}，以指定的啟動器啟動作業
+     * 非同步啟動器回傳時作業已寫入 JobRepository，之後的重疊判斷由執行紀錄擋下
+     */
+    public JobExecution run(Job job, JobParameters params, Supplier<String> fingerprint, JobLauncher launcher)
+            throws JobExecutionException {
+        if (!overlapGuard) {
+            return launch(job, params, fingerprint, launcher);
+        }
+
+        synchronized (this) {
+            List<String> conflicts = conflicts(job);
+            if (!conflicts.isEmpty()) {
+                defer(job, params, fingerprint, launcher, conflicts);
+                return null;
+            }
+            launching.add(job.getName());
+            pendingRuns.remove(job.getName());
+        }
+        try {
+            return launch(job, params, fingerprint, launcher);
+        } finally {
+            launching.remove(job.getName());
+        }
+    }
+
+    /**
+     * 補跑被擋下的作業：衝突已結束就啟動，仍有衝突則繼續等待
+     * 啟動器已滿 (TaskRejectedException) 時保留待執行，下次檢查再試
+     */
+    @Scheduled(fixedDelayString = "${batch.scheduler.pending-check-ms:30000}")
+    public void launchPending() {
+        for (PendingRun pending : List.copyOf(pendingRuns.values())) {
+            String jobName = pending.job().getName();
+            if (startedSince(jobName, pending.requestedAt())) {
+                pendingRuns.remove(jobName, pending);
+                log.info("Dropped pending {}: already started after {}", jobName, pending.requestedAt());
+                continue;
+            }
+            try {
+                log.info("Launching pending {} ({} trigger(s) coalesced)", jobName, pending.coalesced());
+                run(pending.job(), pending.params(), pending.fingerprint(), pending.launcher());
+            } catch (TaskRejectedException e) {
+                pendingRuns.putIfAbsent(jobName, pending);
+                log.warn("Pending {} postponed: {}", jobName, e.getMessage());
+            } catch (JobExecutionException e) {
+                pendingRuns.remove(jobName, pending);
+                log.error("Pending {} failed to launch: {}", jobName, e.getMessage(), e);
+            }
+        }
+    }
+
+    private JobExecution launch(Job job, JobParameters params, Supplier<String> fingerprintSupplier,
+                                JobLauncher launcher) throws JobExecutionException {
+        String fingerprint = fingerprintSupplier == null ? null : fingerprintSupplier.get();
+        if (!skipUnchanged || fingerprint == null) {
+            return launcher.run(job, params);
+        }
+
+        JobParameters gatedParams = new JobParametersBuilder(params)
+                .addString(FINGERPRINT_PARAMETER, fingerprint, false)
+                .toJobParameters();
+
+        if (fingerprint.equals(lastCompletedFingerprint(job.getName()))) {
+            return recordNoop(job.getName(), gatedParams, fingerprint);
+        }
+        return launcher.run(job, gatedParams);
+    }
+
+    /**
+     * 檔案指紋：檔名 + 大小 + CRC32C
+     * 校驗碼依資源描述快取，大小與修改時間不變時不重新讀檔
+     */
+    public String fileFingerprint(Resource resource) {
+        try {
+            long size = resource.contentLength();
+            long lastModified = resource.lastModified();
+            FileChecksum cached = checksums.get(resource.getDescription());
+            if (cached == null || cached.size() != size || cached.lastModified() != lastModified) {
+                cached = new FileChecksum(size, lastModified, checksum(resource));
+                checksums.put(resource.getDescription(), cached);
+            }
+            return "file:" + resource.getFilename() + ":" + size + ":" + Long.toHexString(cached.checksum());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to fingerprint " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * 資料表指紋：筆數 + 最大 id
+     * 只能偵測新增與刪除，不能偵測更新；table 必須是程式內的常數，不可來自外部輸入
+     */
+    public String tableFingerprint(String table) {
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "SELECT COUNT(*) AS row_count, MAX(id) AS max_id FROM " + table);
+        return "table:" + table + ":" + row.get("row_count") + ":" + row.get("max_id");
+    }
+
+    /**
+     * 與 job 重疊且仍在執行的作業（含其他節點），格式為 作業名稱#execution id
+     */
+    private List<String> conflicts(Job job) {
+        Map<String, Set<String>> stepsByJob = new HashMap<>();
+        Set<String> steps = steps(job.getName(), stepsByJob);
+        List<String> conflicts = new ArrayList<>();
+
+        for (String jobName : launching) {
+            if (overlaps(job.getName(), steps, jobName, steps(jobName, stepsByJob))) {
+                conflicts.add(jobName + "#launching");
+            }
+        }
+
+        LocalDateTime staleBefore = LocalDateTime.now().minus(staleAfter);
+        for (String jobName : jobExplorer.getJobNames()) {
+            for (JobExecution execution : jobExplorer.findRunningJobExecutions(jobName)) {
+                LocalDateTime lastUpdated = lastActivity(execution);
+                if (lastUpdated != null && lastUpdated.isBefore(staleBefore)) {
+                    log.warn("Ignoring stale execution {} of {} (last updated {})",
+                            execution.getId(), jobName, lastUpdated);
+                    continue;
+                }
+                Set<String> runningSteps = new HashSet<>(steps(jobName, stepsByJob));
+                execution.getStepExecutions().forEach(step -> runningSteps.add(baseStepName(step.getStepName())));
+                if (overlaps(job.getName(), steps, jobName, runningSteps)) {
+                    conflicts.add(jobName + "#" + execution.getId());
+                }
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * 執行最後的活動時間：步驟執行的 lastUpdated 每次 chunk 提交都會更新，取最新的一筆
+     * JobExecution 的 lastUpdated 只在開始與結束時寫入，只有尚未開始任何步驟時才使用
+     */
+    private static LocalDateTime lastActivity(JobExecution execution) {
+        LocalDateTime latest = null;
+        for (StepExecution step : execution.getStepExecutions()) {
+            LocalDateTime updated = step.getLastUpdated() != null ? step.getLastUpdated() : step.getStartTime();
+            if (updated != null && (latest == null || updated.isAfter(latest))) {
+                latest = updated;
+            }
+        }
+        if (latest != null) {
+            return latest;
+        }
+        return execution.getLastUpdated() != null ? execution.getLastUpdated() : execution.getCreateTime();
+    }
+
+    private static boolean overlaps(String jobName, Set<String> steps, String otherJob, Set<String> otherSteps) {
+        return jobName.equals(otherJob) || otherSteps.stream().anyMatch(steps::contains);
+    }
+
+    /**
+     * 作業的步驟名稱：StepLocator 提供的名稱，加上 JobRepository 中最近兩次執行實際執行過的步驟
+     * 巢狀 Flow 在第一次執行前 StepLocator 取不到步驟，因此以執行紀錄補足；從未執行過的作業只能比對作業名稱
+     */
+    private Set<String> steps(String jobName, Map<String, Set<String>> cache) {
+        return cache.computeIfAbsent(jobName, name -> {
+            Set<String> steps = new HashSet<>();
+            jobs.stream()
+                    .filter(job -> job.getName().equals(name) && job instanceof StepLocator)
+                    .forEach(job -> steps.addAll(((StepLocator) job).getStepNames()));
+            for (JobInstance instance : jobExplorer.getJobInstances(name, 0, 2)) {
+                JobExecution execution = jobExplorer.getLastJobExecution(instance);
+                if (execution != null) {
+                    execution.getStepExecutions().forEach(step -> steps.add(baseStepName(step.getStepName())));
+                }
+            }
+            return steps;
+        });
+    }
+
+    /**
+     * 分區步驟名稱為 worker:分區名稱（分區名稱本身可能含冒號，例如 檔名:起始位移），取第一個冒號前的步驟名稱
+     */
+    private static String baseStepName(String stepName) {
+        int index = stepName.indexOf(':');
+        return index < 0 ? stepName : stepName.substring(0, index);
+    }
+
+    /**
+     * 合併為一筆待執行，保留最早的要求時間與最新的參數
+     */
+    private void defer(Job job, JobParameters params, Supplier<String> fingerprint, JobLauncher launcher,
+                       List<String> conflicts) {
+        PendingRun pending = pendingRuns.merge(job.getName(),
+                new PendingRun(job, params, fingerprint, launcher, LocalDateTime.now(), 1),
+                (previous, latest) -> new PendingRun(job, params, fingerprint, launcher,
+                        previous.requestedAt(), previous.coalesced() + 1));
+        log.info("Deferred {}: overlaps running {} ({} trigger(s) pending)",
+                job.getName(), conflicts, pending.coalesced());
+    }
+
+    /**
+     * 任何節點在 since 之後是否建立過該作業的執行
+     */
+    private boolean startedSince(String jobName, LocalDateTime since) {
+        JobInstance instance = jobExplorer.getLastJobInstance(jobName);
+        if (instance == null) {
+            return false;
+        }
+        JobExecution execution = jobExplorer.getLastJobExecution(instance);
+        return execution != null && execution.getCreateTime() != null && execution.getCreateTime().isAfter(since);
+    }
+
+    private String lastCompletedFingerprint(String jobName) {
+        JobInstance instance = jobExplorer.getLastJobInstance(jobName);
+        if (instance == null) {
+            return null;
+        }
+        JobExecution execution = jobExplorer.getLastJobExecution(instance);
+        if (execution == null || execution.getStatus() != BatchStatus.COMPLETED) {
+            return null;
+        }
+        return execution.getJobParameters().getString(FINGERPRINT_PARAMETER);
+    }
+
+    /**
+     * 只寫入 JOB_INSTANCE / JOB_EXECUTION / 參數，不執行任何步驟
+     */
+    private JobExecution recordNoop(String jobName, JobParameters params, String fingerprint)
+            throws JobExecutionException {
+        JobExecution execution = jobRepository.createJobExecution(jobName, params);
+        LocalDateTime now = LocalDateTime.now();
+        execution.setStartTime(now);
+        execution.setEndTime(now);
+        execution.setStatus(BatchStatus.COMPLETED);
+        execution.setExitStatus(ExitStatus.NOOP.addExitDescription("Input unchanged: " + fingerprint));
+        jobRepository.update(execution);
+
+        log.info("Skipped {}: input unchanged ({})", jobName, fingerprint);
+        return execution;
+    }
+
+    private static long checksum(Resource resource) throws IOException {
+        CRC32C crc = new CRC32C();
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = resource.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                crc.update(buffer, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.demo.batch.chunk;
+
+import java.lang.management.ManagementFactory;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 自動調整 chunk 大小的完成策略
+ * 同一個實例同時註冊為步驟的 CompletionPolicy 與 ChunkListener：
+ * 1. 每個 chunk 開始時取用目前的 chunk 大小，chunk 內不會改變
+ * 2. chunk 提交後依目標耗時 targetNanos 與實際耗時 (讀取 + 處理 + 寫入 + 提交) 比例的平方根縮放下一個 chunk，
+ *    每次只修正一半 (對數尺度)，避免單一 chunk 的耗時波動造成大小來回震盪；
+ *    以每筆配置位元組的移動平均限制 chunk 不超過 maxChunkBytes；變動不到 10% 時維持原大小
+ * 3. 每次最多放大兩倍；提交耗時超過目標兩倍或交易回滾時立即減半
+ * 4. chunk 執行中配置的記憶體超過 maxChunkBytes 時提前結束該 chunk
+ *
+ * 記憶體以 chunk 執行緒配置的位元組數估算 (含暫時物件，偏保守)，JVM 不支援時只依耗時調整；
+ * 管線步驟在其他執行緒處理的配置不計入
+ * 多執行緒步驟與分區共用同一個實例，大小由各執行緒的 chunk 共同調整；
+ * 學到的大小保留在實例中，同一 JVM 內下次執行從上次的大小開始
+ */
+@Log4j2
+public class AdaptiveChunkPolicy extends CompletionPolicySupport implements ChunkListener {
+
+    private static final double SMOOTHING = 0.3;
+    private static final double MAX_GROWTH = 2.0;
+    private static final double SLOW_FACTOR = 2.0;
+    private static final double DAMPING = 0.5;
+    private static final double DEADBAND = 0.1;
+
+    private static final com.sun.management.ThreadMXBean THREADS = allocationMeter();
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetNanos;
+    private final long maxChunkBytes;
+
+    private final ThreadLocal<Sample> current = new ThreadLocal<>();
+
+    private int chunkSize;
+    private double bytesPerItem;
+
+    public AdaptiveChunkPolicy(int initialSize, int minSize, int maxSize, long targetNanos, long maxChunkBytes) {
+        if (minSize < 1 || maxSize < minSize) {
+            throw new IllegalArgumentException("Invalid adaptive chunk bounds: " + minSize + ".." + maxSize);
+        }
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetNanos = targetNanos;
+        this.maxChunkBytes = maxChunkBytes;
+        this.chunkSize = clamp(initialSize);
+    }
+
+    /**
+     * 目前的 chunk 大小
+     */
+    public synchronized int getChunkSize() {
+        return chunkSize;
+    }
+
+    // ================================
+    // ChunkListener
+    // ================================
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        current.set(new Sample(getChunkSize(), System.nanoTime(), allocatedBytes()));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        Sample sample = current.get();
+        current.remove();
+        if (sample == null || sample.items == 0) {
+            return;
+        }
+        long nanos = System.nanoTime() - sample.startNanos;
+        long bytes = sample.startBytes < 0 ? -1 : allocatedBytes() - sample.startBytes;
+        adapt(context.getStepContext().getStepName(), sample, nanos, bytes);
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        Sample sample = current.get();
+        current.remove();
+        int limit = sample != null ? sample.limit : getChunkSize();
+        resize(context.getStepContext().getStepName(), limit / 2, "rolled back");
+    }
+
+    // ================================
+    // CompletionPolicy
+    // ================================
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        Sample sample = current.get();
+        if (sample == null) {
+            return context.getStartedCount() >= getChunkSize();
+        }
+        if (sample.items >= sample.limit) {
+            return true;
+        }
+        if (maxChunkBytes > 0 && sample.items > 0 && sample.startBytes >= 0
+                && allocatedBytes() - sample.startBytes >= maxChunkBytes) {
+            sample.memoryLimited = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        super.update(context);
+        Sample sample = current.get();
+        if (sample != null) {
+            sample.items++;
+        }
+    }
+
+    // ================================
+    // 調整
+    // ================================
+
+    private synchronized void adapt(String stepName, Sample sample, long nanos, long bytes) {
+        boolean slow = nanos > targetNanos * SLOW_FACTOR;
+        if (sample.items < sample.limit && !sample.memoryLimited && !slow) {
+            // 資料已讀完的最後一個 chunk，筆數不足以代表目前的大小
+            return;
+        }
+        double ratio = (double) targetNanos / Math.max(nanos, 1);
+        double next = sample.items * Math.min(Math.pow(ratio, DAMPING), MAX_GROWTH);
+        if (bytes >= 0 && maxChunkBytes > 0) {
+            bytesPerItem = average(bytesPerItem, (double) bytes / sample.items);
+            next = Math.min(next, maxChunkBytes / Math.max(bytesPerItem, 1));
+        }
+        if (slow) {
+            next = Math.min(next, sample.limit / 2.0);
+        } else if (Math.abs(next - chunkSize) < chunkSize * DEADBAND) {
+            return;
+        }
+        resize(stepName, (int) next, (slow ? "slow commit, " : "") + "took " + nanos / 1_000_000 + " ms for "
+                + sample.items + " items" + (bytes >= 0 ? ", " + bytes / 1024 + " KB allocated" : ""));
+    }
+
+    private synchronized void resize(String stepName, int requested, String reason) {
+        int next = clamp(requested);
+        if (next != chunkSize) {
+            log.info("Step {} chunk size {} -> {} ({})", stepName, chunkSize, next, reason);
+            chunkSize = next;
+        }
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    private static double average(double previous, double value) {
+        return previous == 0 ? value : previous + SMOOTHING * (value - previous);
+    }
+
+    /**
+     * 目前執行緒累計配置的位元組數，不支援時回傳 -1
+     */
+    private static long allocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    private static com.sun.management.ThreadMXBean allocationMeter() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads;
+        }
+        return null;
+    }
+
+    /**
+     * 單一 chunk 的量測，屬於執行該 chunk 的執行緒
+     */
+    private static final class Sample {
+
+        private final int limit;
+        private final long startNanos;
+        private final long startBytes;
+        private int items;
+        private boolean memoryLimited;
+
+        Sample(int limit, long startNanos, long startBytes) {
+            this.limit = limit;
+            this.startNanos = startNanos;
+            this.startBytes = startBytes;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.demo.batch.chunk;
+
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 步驟的 chunk 大小設定
+ * batch.chunk.adaptive.enabled=true 時以 AdaptiveChunkPolicy 取代固定大小：
+ * 步驟原本的 chunk 大小作為起始值，之後在 min-size 與 max-size 之間調整，
+ * 使每個 chunk 交易接近 target-duration-ms，配置的記憶體不超過 max-chunk-bytes
+ * 未啟用時與 chunk(chunkSize, transactionManager) 相同
+ */
+@Log4j2
+@Component
+public class ChunkSizing {
+
+    private final boolean adaptive;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetNanos;
+    private final long maxChunkBytes;
+
+    public ChunkSizing(@Value("${batch.chunk.adaptive.enabled:false}") boolean adaptive,
+                       @Value("${batch.chunk.adaptive.min-size:1}") int minSize,
+                       @Value("${batch.chunk.adaptive.max-size:5000}") int maxSize,
+                       @Value("${batch.chunk.adaptive.target-duration-ms:500}") long targetDurationMillis,
+                       @Value("${batch.chunk.adaptive.max-chunk-bytes:67108864}") long maxChunkBytes) {
+        this.adaptive = adaptive;
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetNanos = targetDurationMillis * 1_000_000;
+        this.maxChunkBytes = maxChunkBytes;
+        if (adaptive) {
+            log.info("Adaptive chunk sizing enabled: {}..{} items, target {} ms, max {} bytes per chunk",
+                    minSize, maxSize, targetDurationMillis, maxChunkBytes);
+        }
+    }
+
+    /**
+     * 取代 stepBuilder.chunk(chunkSize, transactionManager)
+     * 每個步驟各自建立一個 AdaptiveChunkPolicy，並註冊為該步驟的 ChunkListener
+     */
+    public <I, O> SimpleStepBuilder<I, O> chunk(StepBuilder stepBuilder, int chunkSize,
+                                                PlatformTransactionManager transactionManager) {
+        if (!adaptive) {
+            return stepBuilder.<I, O>chunk(chunkSize, transactionManager);
+        }
+        AdaptiveChunkPolicy policy = new AdaptiveChunkPolicy(chunkSize, minSize, maxSize, targetNanos, maxChunkBytes);
+        return stepBuilder.<I, O>chunk(policy, transactionManager)
+                .listener(policy);
+    }
+}
@@ -8,11 +8,13 @@ import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.demo.batch.chunk.ChunkSizing;
 import com.example.demo.batch.dto.PersonDTO;
 import com.example.demo.batch.entity.Person;
 import com.example.demo.batch.listener.JobCompleteionNotificationListener;
@@ -35,6 +37,9 @@ public class BatchConfiguration {
     @Autowired
     private PersonItemWriter personItemWriter;
 
+    @Autowired
+    private ChunkSizing chunkSizing;
+
     /**
      * 定义读取器 (Reader)
      */
@@ -59,18 +64,21 @@ public class BatchConfiguration {
 
     /**
      * 定义步骤 (Step)
+     * batch.person.writer=jdbc 时改用 JDBC 批次插入，建议同时调大 batch.person.chunk-size
      */
     @Bean(name = "personStep")
     public Step step1(JobRepository jobRepository,
                       PlatformTransactionManager transactionManager,
                       @Qualifier("personReader") FlatFileItemReader<PersonDTO> reader,
                       PersonItemProcessor processor,
-                      PersonItemWriter writer) {
-        return new StepBuilder("personStep", jobRepository)
-                .<PersonDTO, Person> chunk(3, transactionManager)
+                      PersonItemWriter writer,
+                      @Value("${batch.person.writer:repository}") String writerMode,
+                      @Value("${batch.person.chunk-size:3}") int chunkSize) {
+        return chunkSizing.<PersonDTO, Person>chunk(
+                        new StepBuilder("personStep", jobRepository), chunkSize, transactionManager)
                 .reader(reader)
                 .processor(processor)
-                .writer(writer.createWriter())
+                .writer(writer.createWriter(writerMode))
                 .build();
     }
 }
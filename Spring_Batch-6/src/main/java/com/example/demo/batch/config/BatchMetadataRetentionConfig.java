@@ -0,0 +1,54 @@
+package com.example.demo.batch.config;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.batch.tasklet.BatchMetadataRetentionTasklet;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * BATCH_* 中繼資料表的保留作業
+ * 刪除 (batch.retention.mode=delete) 或封存後刪除 (archive) 結束超過 batch.retention.days 天的作業執行，
+ * 每個交易最多處理 batch.retention.batch-size 筆；由 BatchScheduler 依 batch.retention.cron 執行
+ */
+@Configuration
+public class BatchMetadataRetentionConfig {
+
+    public static final String JOB_NAME = "batchMetadataRetentionJob";
+
+    @Bean
+    public Step batchMetadataRetentionStep(JobRepository jobRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           DataSource dataSource,
+                                           ObjectMapper objectMapper,
+                                           @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix,
+                                           @Value("${batch.retention.days:30}") int retentionDays,
+                                           @Value("${batch.retention.batch-size:500}") int batchSize,
+                                           @Value("${batch.retention.mode:archive}") String mode) {
+        if (!"archive".equals(mode) && !"delete".equals(mode)) {
+            throw new IllegalArgumentException("Unknown batch.retention.mode: " + mode);
+        }
+        return new StepBuilder("batchMetadataRetentionStep", jobRepository)
+                .tasklet(new BatchMetadataRetentionTasklet(dataSource, objectMapper, tablePrefix,
+                        retentionDays, batchSize, "archive".equals(mode)), transactionManager)
+                .build();
+    }
+
+    @Bean(name = JOB_NAME)
+    public Job batchMetadataRetentionJob(JobRepository jobRepository,
+                                         @Qualifier("batchMetadataRetentionStep") Step batchMetadataRetentionStep) {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .start(batchMetadataRetentionStep)
+                .build();
+    }
+}
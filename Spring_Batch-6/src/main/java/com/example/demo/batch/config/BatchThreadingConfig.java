@@ -0,0 +1,98 @@
+package com.example.demo.batch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 批次作業的執行緒設定
+ * batch.threads.virtual=true（預設 false）且 JVM 為 JDK 21 以上時：
+ * 1. @Scheduled 排程改由虛擬執行緒的 SimpleAsyncTaskScheduler 觸發，各作業不再共用單一排程執行緒
+ * 2. AsyncJobLauncherService (@Async) 與 BookJobLaunchService 以虛擬執行緒執行作業
+ * 3. 分區、平行分支與管線的 chunk 處理改用虛擬執行緒（見 BatchThreads）
+ * 4. DataSource 包裝為 ConnectionPermitDataSource，同時借出的連線數不超過 Hikari 的 maximum-pool-size
+ */
+@Log4j2
+@Configuration
+@EnableAsync
+public class BatchThreadingConfig {
+
+    private static final String VIRTUAL_PROPERTY = "batch.threads.virtual";
+
+    @Bean
+    public BatchThreads batchThreads(@Value("${" + VIRTUAL_PROPERTY + ":false}") boolean virtual) {
+        return new BatchThreads(virtual);
+    }
+
+    /**
+     * AsyncJobLauncherService 使用的執行緒池
+     */
+    @Bean(name = "jobLaunchTaskExecutor")
+    public TaskExecutor jobLaunchTaskExecutor(BatchThreads batchThreads,
+                                              @Value("${batch.threads.launch.max-concurrent:4}") int maxConcurrent,
+                                              @Value("${batch.threads.launch.queue-capacity:100}") int queueCapacity) {
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("job-launch-", maxConcurrent);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("job-launch-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 虛擬執行緒模式的排程器，取代 Spring Boot 預設的單一執行緒 ThreadPoolTaskScheduler
+     * 每次觸發都在新的虛擬執行緒中執行，不同作業可同時執行
+     */
+    @Bean(name = "taskScheduler")
+    @ConditionalOnProperty(name = VIRTUAL_PROPERTY, havingValue = "true")
+    public TaskScheduler taskScheduler(BatchThreads batchThreads) {
+        if (batchThreads.isVirtual()) {
+            SimpleAsyncTaskScheduler scheduler = new SimpleAsyncTaskScheduler();
+            scheduler.setVirtualThreads(true);
+            scheduler.setThreadNamePrefix("scheduling-");
+            return scheduler;
+        }
+        // JDK 21 以下維持與 Spring Boot 預設相同的排程器
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("scheduling-");
+        return scheduler;
+    }
+
+    /**
+     * 虛擬執行緒模式下以 ConnectionPermitDataSource 包裝 Hikari 連線池
+     */
+    @Bean
+    public static BeanPostProcessor connectionPermitPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource hikari)
+                        || !environment.getProperty(VIRTUAL_PROPERTY, Boolean.class, false)
+                        || !BatchThreads.isVirtualThreadSupported()) {
+                    return bean;
+                }
+                log.info("DataSource '{}' limited to {} concurrent connections", beanName, hikari.getMaximumPoolSize());
+                return new ConnectionPermitDataSource(hikari, hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+            }
+        };
+    }
+}
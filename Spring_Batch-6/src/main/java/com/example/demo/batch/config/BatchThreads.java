@@ -0,0 +1,69 @@
+package com.example.demo.batch.config;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 批次作業的執行緒模式
+ * batch.threads.virtual=true 且 JVM 為 JDK 21 以上時，啟動器、排程器與分區 / 平行分支 / 管線執行緒池改用虛擬執行緒；
+ * 低於 JDK 21 時記錄警告並維持平台執行緒
+ *
+ * 虛擬執行緒不限數量，原本執行緒池的執行緒數改由 Semaphore 限制同時執行的任務數，
+ * 超過時任務在自己的虛擬執行緒中等待，不會阻塞提交任務的執行緒
+ */
+@Log4j2
+public class BatchThreads {
+
+    private final boolean virtual;
+
+    public BatchThreads(boolean virtualRequested) {
+        this.virtual = virtualRequested && isVirtualThreadSupported();
+        if (virtualRequested && !virtual) {
+            log.warn("batch.threads.virtual=true requires JDK 21+, running on JDK {} with platform threads",
+                    Runtime.version().feature());
+        } else if (virtual) {
+            log.info("Batch launchers, schedulers and step executors use virtual threads");
+        }
+    }
+
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * 每個任務一條虛擬執行緒，同時執行的任務數不超過 concurrencyLimit
+     * 等待名額時被中斷仍會執行任務（不佔名額，保留中斷狀態）：提交端多半以 Future 等待結果，
+     * 直接略過任務會讓 Future 永遠不會完成；任務可依中斷狀態自行結束並回報失敗
+     */
+    public TaskExecutor virtualExecutor(String threadNamePrefix, int concurrencyLimit) {
+        Semaphore permits = new Semaphore(concurrencyLimit, true);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        executor.setTaskDecorator(task -> () -> {
+            boolean acquired = false;
+            try {
+                permits.acquire();
+                acquired = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while waiting for a {} permit, running the task without one", threadNamePrefix);
+            }
+            try {
+                task.run();
+            } finally {
+                if (acquired) {
+                    permits.release();
+                }
+            }
+        });
+        return executor;
+    }
+}
@@ -1,25 +1,47 @@
 package com.example.demo.batch.config;
 
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.FlowBuilder;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
 import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.data.RepositoryItemReader;
 import org.springframework.batch.item.database.JdbcCursorItemReader;
 import org.springframework.batch.item.database.JpaPagingItemReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.demo.batch.chunk.ChunkSizing;
 import com.example.demo.batch.dto.BookDTO;
 import com.example.demo.batch.entity.Book;
+import com.example.demo.batch.flow.BookPipelineDecider;
+import com.example.demo.batch.listener.BookCategoryReportListener;
 import com.example.demo.batch.listener.BookJobCompletionListener;
+import com.example.demo.batch.listener.BookStepMetricsListener;
+import com.example.demo.batch.partition.BookIdRangePartitioner;
 import com.example.demo.batch.processor.BookItemProcessor;
 import com.example.demo.batch.reader.BookItemReaders;
+import com.example.demo.batch.reader.BookKeysetItemReader;
+import com.example.demo.batch.writer.BookCategoryReportWriter;
+import com.example.demo.batch.writer.BookColumnarExportWriter;
+import com.example.demo.batch.writer.BookCsvExportWriter;
 import com.example.demo.batch.writer.BookItemWriter;
 
 /**
@@ -38,6 +60,15 @@ public class BookBatchConfiguration {
     @Autowired
     private BookItemWriter bookItemWriter;
 
+    @Autowired
+    private BookPipelineDecider bookPipelineDecider;
+
+    @Autowired
+    private BookStepMetricsListener bookStepMetricsListener;
+
+    @Autowired
+    private ChunkSizing chunkSizing;
+
     // ================================
     // 讀取器 Bean 定義
     // ================================
@@ -58,26 +89,60 @@ public class BookBatchConfiguration {
         return bookItemReaders.createRepositoryItemReaderWithCustomQuery();
     }
 
+    /**
+     * Keyset 分頁讀取器 - 依 id 定位下一頁
+     * Step Scope：循序與管線步驟共用此讀取器，同時執行的作業各自建立實例，不共用讀取位置
+     */
+    @Bean(name = "bookKeysetReader")
+    @StepScope
+    public BookKeysetItemReader bookKeysetReader() {
+        return bookItemReaders.createKeysetItemReader();
+    }
+
+    /**
+     * Keyset 分頁讀取器 - 依 (year, id) 定位下一頁，查找2020年後出版的書籍
+     */
+    @Bean(name = "bookKeysetReaderAfterYear")
+    public BookKeysetItemReader bookKeysetReaderAfterYear() {
+        return bookItemReaders.createKeysetItemReaderAfterYear(2020);
+    }
+
+    /**
+     * Keyset 分頁讀取器 - 匯出全部書籍
+     * Step Scope：匯出作業可與其他書籍作業同時執行，不與 bookKeysetReader 共用讀取位置
+     */
+    @Bean(name = "bookExportReader")
+    @StepScope
+    public BookKeysetItemReader bookExportReader() {
+        return bookItemReaders.createKeysetItemReader();
+    }
+
     /**
      * JpaPagingItemReader - 使用 JPA 分頁
+     * Step Scope：每次步驟執行各自建立實例，同時執行的作業不共用目前頁數與 EntityManager
      */
     @Bean(name = "bookJpaReader")
+    @StepScope
     public JpaPagingItemReader<Book> bookJpaReader() {
         return bookItemReaders.createJpaPagingItemReader();
     }
 
     /**
      * JpaPagingItemReader - 複雜查詢
+     * Step Scope：複合步驟允許重複執行，每次執行各自建立實例
      */
     @Bean(name = "bookJpaReaderComplex")
+    @StepScope
     public JpaPagingItemReader<Book> bookJpaReaderComplex() {
         return bookItemReaders.createJpaPagingItemReaderComplex();
     }
 
     /**
      * JdbcCursorItemReader - 使用 JDBC 游標
+     * Step Scope：每次步驟執行各自開啟游標，同時執行的作業不會關閉或移動彼此的游標
      */
     @Bean(name = "bookJdbcReader")
+    @StepScope
     public JdbcCursorItemReader<Book> bookJdbcReader() {
         return bookItemReaders.createJdbcCursorItemReader();
     }
@@ -90,6 +155,18 @@ public class BookBatchConfiguration {
         return bookItemReaders.createJdbcCursorItemReaderComplex();
     }
 
+    /**
+     * JdbcCursorItemReader - 分區讀取器
+     * Step Scope：每個分區各自建立一個實例，並從分區的 ExecutionContext 取得 ID 範圍
+     */
+    @Bean(name = "bookJdbcPartitionReader")
+    @StepScope
+    public JdbcCursorItemReader<Book> bookJdbcPartitionReader(
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId) {
+        return bookItemReaders.createJdbcCursorItemReaderForRange(minId, maxId);
+    }
+
     // ================================
     // 寫入器 Bean 定義
     // ================================
@@ -99,13 +176,47 @@ public class BookBatchConfiguration {
         return bookItemWriter;
     }
 
+    /**
+     * CSV 匯出寫入器
+     * Step Scope：依筆數與大小切分為多個 part 檔並輸出 manifest；重啟時回到上次提交時的 part 檔與位移繼續寫入
+     */
     @Bean(name = "bookCsvWriter")
-    public ItemWriter<BookDTO> bookCsvWriter() {
-        return bookItemWriter.createCsvWriter();
+    @StepScope
+    public BookCsvExportWriter bookCsvWriter(
+            @Value("#{stepExecution}") StepExecution stepExecution,
+            @Value("${batch.book.export.directory:output}") String directory,
+            @Value("${batch.book.export.compression:gzip}") String compression,
+            @Value("${batch.book.export.max-rows-per-file:1000000}") long maxRowsPerFile,
+            @Value("${batch.book.export.max-bytes-per-file:268435456}") long maxBytesPerFile,
+            @Value("${batch.book.export.buffer-size:1048576}") int bufferSize) {
+        return bookItemWriter.createCsvWriter(Path.of(directory),
+                stepExecution.getJobExecution().getJobInstance().getInstanceId(),
+                stepExecution.getStepName(), BookCsvExportWriter.Compression.from(compression),
+                maxRowsPerFile, maxBytesPerFile, bufferSize);
     }
 
+    /**
+     * 欄式匯出寫入器
+     * Step Scope：輸出單一 .bcol 檔案；重啟時截斷到上次提交的 row group 結尾，並掃描已提交的 row group 重建字典
+     */
+    @Bean(name = "bookColumnarWriter")
+    @StepScope
+    public BookColumnarExportWriter bookColumnarWriter(
+            @Value("#{stepExecution}") StepExecution stepExecution,
+            @Value("${batch.book.export.directory:output}") String directory,
+            @Value("${batch.book.export.buffer-size:1048576}") int bufferSize) {
+        return bookItemWriter.createColumnarWriter(Path.of(directory),
+                stepExecution.getJobExecution().getJobInstance().getInstanceId(), stepExecution.getStepName(),
+                bufferSize);
+    }
+
+    /**
+     * 分類統計報告寫入器
+     * Step Scope：累加狀態屬於各自的 StepExecution（含每個分區），重啟時從 ExecutionContext 還原
+     */
     @Bean(name = "bookReportWriter")
-    public ItemWriter<BookDTO> bookReportWriter() {
+    @StepScope
+    public BookCategoryReportWriter bookReportWriter() {
         return bookItemWriter.createCategoryReportWriter();
     }
 
@@ -114,18 +225,20 @@ public class BookBatchConfiguration {
     // ================================
 
     /**
-     * 使用 RepositoryItemReader 的步驟
+     * 使用 Repository 的步驟
+     * 以 keyset 分頁讀取 (bookKeysetReader)，避免 findAll 的 OFFSET 分頁在大表上越讀越慢
      */
     @Bean(name = "bookRepositoryStep")
     public Step bookRepositoryStep(JobRepository jobRepository,
                                    PlatformTransactionManager transactionManager,
-                                   @Qualifier("bookRepositoryReader") RepositoryItemReader<Book> reader,
+                                   @Qualifier("bookKeysetReader") BookKeysetItemReader reader,
                                    @Qualifier("bookConsoleWriter") ItemWriter<BookDTO> writer) {
-        return new StepBuilder("bookRepositoryStep", jobRepository)
-                .<Book, BookDTO>chunk(5, transactionManager)
+        return chunkSizing.<Book, BookDTO>chunk(
+                        new StepBuilder("bookRepositoryStep", jobRepository), 5, transactionManager)
                 .reader(reader)
                 .processor(bookItemProcessor)
                 .writer(writer)
+                .listener(bookStepMetricsListener)
                 .build();
     }
 
@@ -137,11 +250,11 @@ public class BookBatchConfiguration {
                             PlatformTransactionManager transactionManager,
                             @Qualifier("bookJpaReader") JpaPagingItemReader<Book> reader,
                             @Qualifier("bookCsvWriter") ItemWriter<BookDTO> writer) {
-        return new StepBuilder("bookJpaStep", jobRepository)
-                .<Book, BookDTO>chunk(8, transactionManager)
+        return chunkSizing.<Book, BookDTO>chunk(new StepBuilder("bookJpaStep", jobRepository), 8, transactionManager)
                 .reader(reader)
                 .processor(bookItemProcessor)
                 .writer(writer)
+                .listener(bookStepMetricsListener)
                 .build();
     }
 
@@ -153,11 +266,188 @@ public class BookBatchConfiguration {
                              PlatformTransactionManager transactionManager,
                              @Qualifier("bookJdbcReader") JdbcCursorItemReader<Book> reader,
                              @Qualifier("bookReportWriter") ItemWriter<BookDTO> writer) {
-        return new StepBuilder("bookJdbcStep", jobRepository)
-                .<Book, BookDTO>chunk(10, transactionManager)
+        return chunkSizing.<Book, BookDTO>chunk(new StepBuilder("bookJdbcStep", jobRepository), 10, transactionManager)
+                .reader(reader)
+                .processor(bookItemProcessor)
+                .writer(writer)
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    // ================================
+    // 管線模式步驟 (作業參數 pipeline=true)
+    // ================================
+
+    /**
+     * 管線處理執行緒池
+     * 佇列滿時由步驟執行緒自行處理 (CallerRunsPolicy)，讀取速度自然受處理速度限制
+     * 虛擬執行緒模式下每筆一條虛擬執行緒，未完成的筆數受 chunk 大小限制
+     */
+    @Bean(name = "bookPipelineTaskExecutor")
+    public TaskExecutor bookPipelineTaskExecutor(
+            BatchThreads batchThreads,
+            @Value("${batch.book.pipeline.threads:4}") int threads,
+            @Value("${batch.book.pipeline.queue-capacity:200}") int queueCapacity) {
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("book-pipeline-", threads);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("book-pipeline-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 管線版 Repository 步驟
+     * 讀取下一筆的同時，前一筆已在執行緒池中處理；寫入時依讀取順序取回結果
+     */
+    @Bean(name = "bookRepositoryPipelineStep")
+    public Step bookRepositoryPipelineStep(JobRepository jobRepository,
+                                           PlatformTransactionManager transactionManager,
+                                           @Qualifier("bookKeysetReader") BookKeysetItemReader reader,
+                                           @Qualifier("bookConsoleWriter") ItemWriter<BookDTO> writer,
+                                           @Qualifier("bookPipelineTaskExecutor") TaskExecutor taskExecutor) {
+        return chunkSizing.<Book, Future<BookDTO>>chunk(
+                        new StepBuilder("bookRepositoryPipelineStep", jobRepository), 5, transactionManager)
+                .reader(reader)
+                .processor(asyncBookProcessor(taskExecutor))
+                .writer(asyncWriter(writer))
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    /**
+     * 管線版 JPA 分頁步驟
+     */
+    @Bean(name = "bookJpaPipelineStep")
+    public Step bookJpaPipelineStep(JobRepository jobRepository,
+                                    PlatformTransactionManager transactionManager,
+                                    @Qualifier("bookJpaReader") JpaPagingItemReader<Book> reader,
+                                    @Qualifier("bookCsvWriter") ItemWriter<BookDTO> writer,
+                                    @Qualifier("bookPipelineTaskExecutor") TaskExecutor taskExecutor) {
+        return chunkSizing.<Book, Future<BookDTO>>chunk(
+                        new StepBuilder("bookJpaPipelineStep", jobRepository), 8, transactionManager)
+                .reader(reader)
+                .processor(asyncBookProcessor(taskExecutor))
+                .writer(asyncWriter(writer))
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    /**
+     * 管線版 JDBC 游標步驟
+     * AsyncItemWriter 只轉發 ItemStream，報告寫入器的 StepExecutionListener 需另外註冊
+     */
+    @Bean(name = "bookJdbcPipelineStep")
+    public Step bookJdbcPipelineStep(JobRepository jobRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     @Qualifier("bookJdbcReader") JdbcCursorItemReader<Book> reader,
+                                     @Qualifier("bookReportWriter") BookCategoryReportWriter writer,
+                                     @Qualifier("bookPipelineTaskExecutor") TaskExecutor taskExecutor) {
+        return chunkSizing.<Book, Future<BookDTO>>chunk(
+                        new StepBuilder("bookJdbcPipelineStep", jobRepository), 10, transactionManager)
+                .reader(reader)
+                .processor(asyncBookProcessor(taskExecutor))
+                .writer(asyncWriter(writer))
+                .listener(writer)
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    /**
+     * 以執行緒池執行 BookItemProcessor，回傳 Future 保留讀取順序
+     */
+    private AsyncItemProcessor<Book, BookDTO> asyncBookProcessor(TaskExecutor taskExecutor) {
+        AsyncItemProcessor<Book, BookDTO> processor = new AsyncItemProcessor<>();
+        processor.setDelegate(bookItemProcessor);
+        processor.setTaskExecutor(taskExecutor);
+        return processor;
+    }
+
+    /**
+     * 在步驟執行緒（交易內）等待 Future 並交給原本的寫入器
+     */
+    private <T> AsyncItemWriter<T> asyncWriter(ItemWriter<T> delegate) {
+        AsyncItemWriter<T> writer = new AsyncItemWriter<>();
+        writer.setDelegate(delegate);
+        return writer;
+    }
+
+    /**
+     * 依作業參數 pipeline 選擇管線步驟或循序步驟
+     */
+    private Flow pipelineSwitchFlow(String name, Step sequentialStep, Step pipelineStep) {
+        return new FlowBuilder<Flow>(name)
+                .start(bookPipelineDecider)
+                .on(BookPipelineDecider.PIPELINE.getName()).to(pipelineStep)
+                .from(bookPipelineDecider)
+                .on("*").to(sequentialStep)
+                .end();
+    }
+
+    /**
+     * 分區執行緒池
+     * 有界的執行緒數與佇列，避免分區數過多時耗盡資料庫連線
+     */
+    @Bean(name = "bookPartitionTaskExecutor")
+    public TaskExecutor bookPartitionTaskExecutor(
+            BatchThreads batchThreads,
+            @Value("${batch.book.partition.max-threads:4}") int maxThreads,
+            @Value("${batch.book.partition.queue-capacity:100}") int queueCapacity) {
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("book-partition-", maxThreads);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("book-partition-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 分區工作步驟 - 處理單一 ID 範圍
+     * 每個分區擁有獨立的 StepExecution，重啟狀態各自保存在 JobRepository
+     */
+    @Bean(name = "bookJdbcPartitionWorkerStep")
+    public Step bookJdbcPartitionWorkerStep(JobRepository jobRepository,
+                                            PlatformTransactionManager transactionManager,
+                                            @Qualifier("bookJdbcPartitionReader") JdbcCursorItemReader<Book> reader,
+                                            @Qualifier("bookReportWriter") ItemWriter<BookDTO> writer) {
+        return chunkSizing.<Book, BookDTO>chunk(
+                        new StepBuilder("bookJdbcPartitionWorkerStep", jobRepository), 10, transactionManager)
                 .reader(reader)
                 .processor(bookItemProcessor)
                 .writer(writer)
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    /**
+     * 使用 ID 範圍分區的 JDBC 步驟 (管理步驟)
+     * 將 book 表切成 gridSize 個範圍，交由執行緒池並行處理
+     * 全部分區完成後由 BookCategoryReportListener 合併各分區的統計，輸出整個作業的分類報告
+     */
+    @Bean(name = "bookJdbcPartitionedStep")
+    public Step bookJdbcPartitionedStep(JobRepository jobRepository,
+                                        BookIdRangePartitioner partitioner,
+                                        @Qualifier("bookJdbcPartitionWorkerStep") Step workerStep,
+                                        @Qualifier("bookPartitionTaskExecutor") TaskExecutor taskExecutor,
+                                        BookCategoryReportListener reportListener,
+                                        @Value("${batch.book.partition.grid-size:4}") int gridSize) {
+        return new StepBuilder("bookJdbcPartitionedStep", jobRepository)
+                .partitioner("bookJdbcPartitionWorkerStep", partitioner)
+                .step(workerStep)
+                .gridSize(gridSize)
+                .taskExecutor(taskExecutor)
+                .listener(reportListener)
                 .build();
     }
 
@@ -169,12 +459,32 @@ public class BookBatchConfiguration {
                                 PlatformTransactionManager transactionManager,
                                 @Qualifier("bookJpaReaderComplex") JpaPagingItemReader<Book> reader,
                                 @Qualifier("bookConsoleWriter") ItemWriter<BookDTO> writer) {
-        return new StepBuilder("bookComplexStep", jobRepository)
-                .<Book, BookDTO>chunk(12, transactionManager)
+        return chunkSizing.<Book, BookDTO>chunk(
+                        new StepBuilder("bookComplexStep", jobRepository), 12, transactionManager)
                 .reader(reader)
                 .processor(bookItemProcessor)
                 .writer(writer)
                 .allowStartIfComplete(true) // 允許重複執行
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    /**
+     * 欄式匯出步驟
+     * 每個 chunk 即欄式檔案的一個 row group，chunk 大小決定 row group 大小
+     */
+    @Bean(name = "bookColumnarExportStep")
+    public Step bookColumnarExportStep(JobRepository jobRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier("bookExportReader") BookKeysetItemReader reader,
+                                       @Qualifier("bookColumnarWriter") BookColumnarExportWriter writer,
+                                       @Value("${batch.book.export.columnar.row-group-size:10000}") int rowGroupSize) {
+        return new StepBuilder("bookColumnarExportStep", jobRepository)
+                .<Book, BookDTO>chunk(rowGroupSize, transactionManager)
+                .reader(reader)
+                .processor(bookItemProcessor)
+                .writer(writer)
+                .listener(bookStepMetricsListener)
                 .build();
     }
 
@@ -184,14 +494,17 @@ public class BookBatchConfiguration {
 
     /**
      * 使用 RepositoryItemReader 的作業
+     * 作業參數 pipeline=true 時改用管線步驟，以下 JPA / JDBC 作業相同
      */
     @Bean(name = "bookRepositoryJob")
     public Job bookRepositoryJob(JobRepository jobRepository,
                                  @Qualifier("bookRepositoryStep") Step step,
+                                 @Qualifier("bookRepositoryPipelineStep") Step pipelineStep,
                                  BookJobCompletionListener listener) {
         return new JobBuilder("bookRepositoryJob", jobRepository)
                 .listener(listener)
-                .start(step)
+                .start(pipelineSwitchFlow("bookRepositoryFlow", step, pipelineStep))
+                .end()
                 .build();
     }
 
@@ -201,10 +514,12 @@ public class BookBatchConfiguration {
     @Bean(name = "bookJpaJob")
     public Job bookJpaJob(JobRepository jobRepository,
                           @Qualifier("bookJpaStep") Step step,
+                          @Qualifier("bookJpaPipelineStep") Step pipelineStep,
                           BookJobCompletionListener listener) {
         return new JobBuilder("bookJpaJob", jobRepository)
                 .listener(listener)
-                .start(step)
+                .start(pipelineSwitchFlow("bookJpaFlow", step, pipelineStep))
+                .end()
                 .build();
     }
 
@@ -214,8 +529,36 @@ public class BookBatchConfiguration {
     @Bean(name = "bookJdbcJob")
     public Job bookJdbcJob(JobRepository jobRepository,
                            @Qualifier("bookJdbcStep") Step step,
+                           @Qualifier("bookJdbcPipelineStep") Step pipelineStep,
                            BookJobCompletionListener listener) {
         return new JobBuilder("bookJdbcJob", jobRepository)
+                .listener(listener)
+                .start(pipelineSwitchFlow("bookJdbcFlow", step, pipelineStep))
+                .end()
+                .build();
+    }
+
+    /**
+     * 使用分區 JdbcCursorItemReader 的作業
+     */
+    @Bean(name = "bookJdbcPartitionedJob")
+    public Job bookJdbcPartitionedJob(JobRepository jobRepository,
+                                      @Qualifier("bookJdbcPartitionedStep") Step step,
+                                      BookJobCompletionListener listener) {
+        return new JobBuilder("bookJdbcPartitionedJob", jobRepository)
+                .listener(listener)
+                .start(step)
+                .build();
+    }
+
+    /**
+     * 欄式匯出作業
+     */
+    @Bean(name = "bookColumnarExportJob")
+    public Job bookColumnarExportJob(JobRepository jobRepository,
+                                     @Qualifier("bookColumnarExportStep") Step step,
+                                     BookJobCompletionListener listener) {
+        return new JobBuilder("bookColumnarExportJob", jobRepository)
                 .listener(listener)
                 .start(step)
                 .build();
@@ -223,18 +566,72 @@ public class BookBatchConfiguration {
 
     /**
      * 綜合作業 - 包含多個步驟的完整流程
+     * 每個步驟都依作業參數 pipeline 選擇循序或管線版本
      */
     @Bean(name = "bookComprehensiveJob")
     public Job bookComprehensiveJob(JobRepository jobRepository,
                                     @Qualifier("bookRepositoryStep") Step repositoryStep,
                                     @Qualifier("bookJpaStep") Step jpaStep,
                                     @Qualifier("bookJdbcStep") Step jdbcStep,
+                                    @Qualifier("bookRepositoryPipelineStep") Step repositoryPipelineStep,
+                                    @Qualifier("bookJpaPipelineStep") Step jpaPipelineStep,
+                                    @Qualifier("bookJdbcPipelineStep") Step jdbcPipelineStep,
                                     BookJobCompletionListener listener) {
         return new JobBuilder("bookComprehensiveJob", jobRepository)
                 .listener(listener)
-                .start(repositoryStep) // 第一步：Repository 讀取
-                .next(jpaStep)        // 第二步：JPA 分頁讀取
-                .next(jdbcStep)       // 第三步：JDBC 游標讀取
+                .start(pipelineSwitchFlow("bookRepositoryFlow", repositoryStep, repositoryPipelineStep)) // 第一步：Repository 讀取
+                .next(pipelineSwitchFlow("bookJpaFlow", jpaStep, jpaPipelineStep))                      // 第二步：JPA 分頁讀取
+                .next(pipelineSwitchFlow("bookJdbcFlow", jdbcStep, jdbcPipelineStep))                   // 第三步：JDBC 游標讀取
+                .end()
+                .build();
+    }
+
+    /**
+     * 平行分支執行緒池
+     * 每個分支佔用一條執行緒，執行緒數小於分支數時多出的分支會排隊
+     */
+    @Bean(name = "bookSplitTaskExecutor")
+    public TaskExecutor bookSplitTaskExecutor(
+            BatchThreads batchThreads,
+            @Value("${batch.book.split.max-threads:3}") int maxThreads) {
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("book-split-", maxThreads);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxThreads);
+        executor.setMaxPoolSize(maxThreads);
+        executor.setThreadNamePrefix("book-split-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 平行綜合作業 - 三個步驟以 split 同時執行
+     * 三個步驟各自讀取 book 表並寫到不同目的地（控制台、CSV、統計報告），彼此沒有依賴
+     * 全部分支完成後才匯合結束，監聽器的最終驗證在匯合後執行；總耗時接近最慢的步驟
+     */
+    @Bean(name = "bookComprehensiveParallelJob")
+    public Job bookComprehensiveParallelJob(JobRepository jobRepository,
+                                            @Qualifier("bookRepositoryStep") Step repositoryStep,
+                                            @Qualifier("bookJpaStep") Step jpaStep,
+                                            @Qualifier("bookJdbcStep") Step jdbcStep,
+                                            @Qualifier("bookRepositoryPipelineStep") Step repositoryPipelineStep,
+                                            @Qualifier("bookJpaPipelineStep") Step jpaPipelineStep,
+                                            @Qualifier("bookJdbcPipelineStep") Step jdbcPipelineStep,
+                                            @Qualifier("bookSplitTaskExecutor") TaskExecutor taskExecutor,
+                                            BookJobCompletionListener listener) {
+        Flow parallelFlow = new FlowBuilder<Flow>("bookComprehensiveSplitFlow")
+                .split(taskExecutor)
+                .add(pipelineSwitchFlow("bookRepositoryFlow", repositoryStep, repositoryPipelineStep),
+                        pipelineSwitchFlow("bookJpaFlow", jpaStep, jpaPipelineStep),
+                        pipelineSwitchFlow("bookJdbcFlow", jdbcStep, jdbcPipelineStep))
+                .build();
+
+        return new JobBuilder("bookComprehensiveParallelJob", jobRepository)
+                .listener(listener)
+                .start(parallelFlow)
+                .end()
                 .build();
     }
 
@@ -254,4 +651,32 @@ public class BookBatchConfiguration {
                 .end()
                 .build();
     }
+
+    // ================================
+    // 非同步啟動 (BookJobLaunchService)
+    // ================================
+
+    /**
+     * 非同步啟動作業的執行緒池
+     * 執行緒數即同時執行的作業上限，佇列容納等待中的作業；名額由 BookJobLaunchService 控管，
+     * 超過 max-concurrent + queue-capacity 的請求在建立 JobExecution 前即被拒絕
+     * 虛擬執行緒模式下等待中的作業各自停放在自己的虛擬執行緒
+     */
+    @Bean(name = "bookLauncherTaskExecutor")
+    public TaskExecutor bookLauncherTaskExecutor(
+            BatchThreads batchThreads,
+            @Value("${batch.book.launcher.max-concurrent:2}") int maxConcurrent,
+            @Value("${batch.book.launcher.queue-capacity:8}") int queueCapacity) {
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("book-launcher-", maxConcurrent);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("book-launcher-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
 }
@@ -0,0 +1,182 @@
+package com.example.demo.batch.config;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.entity.Book;
+import com.example.demo.batch.listener.BookJobCompletionListener;
+import com.example.demo.batch.listener.BookStepMetricsListener;
+import com.example.demo.batch.processor.BookItemProcessor;
+import com.example.demo.batch.reader.BookKeysetItemReader;
+import com.example.demo.batch.remote.BookChunkManagerWriter;
+import com.example.demo.batch.remote.BookChunkReplies;
+import com.example.demo.batch.remote.BookChunkTcpChannel;
+import com.example.demo.batch.remote.BookChunkWorker;
+import com.example.demo.batch.remote.BookChunkWorkerServer;
+import com.example.demo.batch.repository.BookRepository;
+
+/**
+ * 書籍遠端 chunk 配置 (manager / worker)
+ * 管理端讀取 Book 並以 chunk 為單位送出，工作端執行 BookItemProcessor 與寫入器後回覆，處理階段可分散到多個節點
+ *
+ * 傳輸方式 batch.book.remote.transport：
+ * 1. local：同一 JVM 內的佇列，由 bookChunkWorkerTaskExecutor 的執行緒處理
+ * 2. tcp：送到 batch.book.remote.tcp.workers 列出的工作端；工作端節點設定 batch.book.remote.worker.enabled=true 啟動服務
+ *    同一台機器上同時啟用兩者即可在本機測試
+ */
+@Configuration
+public class BookRemoteChunkingConfiguration {
+
+    @Autowired
+    private BookItemProcessor bookItemProcessor;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookStepMetricsListener bookStepMetricsListener;
+
+    // ================================
+    // 工作端
+    // ================================
+
+    @Bean(name = "bookChunkWorker")
+    public BookChunkWorker bookChunkWorker(@Qualifier("bookConsoleWriter") ItemWriter<BookDTO> writer) {
+        return new BookChunkWorker(bookItemProcessor, writer);
+    }
+
+    /**
+     * 工作端處理執行緒池，threads 為同時處理的 chunk 數
+     * 未確認的 chunk 數已由管理端的 throttle-limit 限制，佇列不設上限
+     */
+    @Bean(name = "bookChunkWorkerTaskExecutor")
+    public TaskExecutor bookChunkWorkerTaskExecutor(
+            BatchThreads batchThreads,
+            @Value("${batch.book.remote.worker.threads:4}") int threads) {
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("book-chunk-worker-", threads);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("book-chunk-worker-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 工作端 TCP 服務，batch.book.remote.worker.enabled=true 時啟動
+     */
+    @Bean(name = "bookChunkWorkerServer")
+    @ConditionalOnProperty(name = "batch.book.remote.worker.enabled", havingValue = "true")
+    public BookChunkWorkerServer bookChunkWorkerServer(
+            @Qualifier("bookChunkWorker") BookChunkWorker worker,
+            @Qualifier("bookChunkWorkerTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${batch.book.remote.worker.bind-address:127.0.0.1}") String bindAddress,
+            @Value("${batch.book.remote.worker.port:9510}") int port) {
+        return new BookChunkWorkerServer(bindAddress, port, worker, taskExecutor);
+    }
+
+    // ================================
+    // 傳輸通道
+    // ================================
+
+    @Bean(name = "bookChunkReplies")
+    public BookChunkReplies bookChunkReplies() {
+        return new BookChunkReplies();
+    }
+
+    /**
+     * 管理端送出 ChunkRequest 的通道，依 batch.book.remote.transport 選擇實作
+     */
+    @Bean(name = "bookChunkRequests")
+    @SuppressWarnings("unchecked")
+    public MessageChannel bookChunkRequests(
+            @Qualifier("bookChunkReplies") BookChunkReplies replies,
+            @Qualifier("bookChunkWorker") BookChunkWorker worker,
+            @Qualifier("bookChunkWorkerTaskExecutor") TaskExecutor taskExecutor,
+            @Value("${batch.book.remote.transport:local}") String transport,
+            @Value("${batch.book.remote.tcp.workers:127.0.0.1:9510}") String workers,
+            @Value("${batch.book.remote.tcp.connect-timeout-ms:5000}") int connectTimeoutMillis) {
+        return switch (transport.toLowerCase()) {
+            case "local" -> (message, timeout) -> {
+                taskExecutor.execute(() -> replies.deliver(worker.handle((ChunkRequest<Book>) message.getPayload())));
+                return true;
+            };
+            case "tcp" -> new BookChunkTcpChannel(BookChunkTcpChannel.parseAddresses(workers), replies,
+                    connectTimeoutMillis);
+            default -> throw new IllegalArgumentException("Unknown remote chunk transport: " + transport
+                    + " (expected local or tcp)");
+        };
+    }
+
+    // ================================
+    // 管理端
+    // ================================
+
+    /**
+     * 管理端寫入器
+     * Step Scope：未確認的 chunk 與回覆佇列屬於各自的 StepExecution，重啟時從 ExecutionContext 重送
+     */
+    @Bean(name = "bookRemoteChunkWriter")
+    @StepScope
+    public BookChunkManagerWriter bookRemoteChunkWriter(
+            @Value("#{stepExecution}") StepExecution stepExecution,
+            @Qualifier("bookChunkRequests") MessageChannel requests,
+            @Qualifier("bookChunkReplies") BookChunkReplies replies,
+            @Value("${batch.book.remote.throttle-limit:8}") int throttleLimit,
+            @Value("${batch.book.remote.reply-timeout-ms:60000}") long replyTimeoutMillis) {
+        return new BookChunkManagerWriter(stepExecution, requests, replies, bookRepository::findByIdRange,
+                throttleLimit, replyTimeoutMillis);
+    }
+
+    /**
+     * 遠端 chunk 管理步驟
+     * 讀取器與匯出作業相同 (依 id 排序的 keyset 分頁)，處理與寫入在工作端執行
+     */
+    @Bean(name = "bookRemoteChunkingStep")
+    public Step bookRemoteChunkingStep(JobRepository jobRepository,
+                                       PlatformTransactionManager transactionManager,
+                                       @Qualifier("bookExportReader") BookKeysetItemReader reader,
+                                       @Qualifier("bookRemoteChunkWriter") BookChunkManagerWriter writer,
+                                       @Value("${batch.book.remote.chunk-size:100}") int chunkSize) {
+        return new StepBuilder("bookRemoteChunkingStep", jobRepository)
+                .<Book, Book>chunk(chunkSize, transactionManager)
+                .reader(reader)
+                .writer(writer)
+                .listener(bookStepMetricsListener)
+                .build();
+    }
+
+    /**
+     * 遠端 chunk 作業
+     */
+    @Bean(name = "bookRemoteChunkingJob")
+    public Job bookRemoteChunkingJob(JobRepository jobRepository,
+                                     @Qualifier("bookRemoteChunkingStep") Step step,
+                                     BookJobCompletionListener listener) {
+        return new JobBuilder("bookRemoteChunkingJob", jobRepository)
+                .listener(listener)
+                .start(step)
+                .build();
+    }
+}
@@ -2,22 +2,31 @@ package com.example.demo.batch.config;
 
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
-import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.batch.BatchProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import com.example.demo.batch.chunk.ChunkSizing;
 import com.example.demo.batch.dto.HealthInsuranceDTO;
 import com.example.demo.batch.entity.HealthInsurance;
+import com.example.demo.batch.listener.HealthInsurancePartitionSummaryListener;
 import com.example.demo.batch.listener.JobCompleteionNotificationListener;
+import com.example.demo.batch.partition.HealthInsuranceFilePartitioner;
 import com.example.demo.batch.processor.HealthInsuranceItemProcessor;
 import com.example.demo.batch.reader.HealthInsuranceItemReader;
+import com.example.demo.batch.reader.MappedHealthInsuranceItemReader;
 import com.example.demo.batch.writer.HealthInsuranceItemWriter;
 
 @Configuration
@@ -32,12 +41,17 @@ public class HealthInsuranceBatchConfig {
     @Autowired
     private HealthInsuranceItemWriter healthInsuranceItemWriter;
 
+    @Autowired
+    private ChunkSizing chunkSizing;
+
     /**
      * 定义读取器 (Reader)
+     * batch.health-insurance.reader=mapped 时改用记忆体映射读取
      */
     @Bean(name = "healthInsuranceReader")
-    public FlatFileItemReader<HealthInsuranceDTO> healthInsuranceItemReader() {
-        return healthInsuranceItemReader.createReader();
+    public ItemStreamReader<HealthInsuranceDTO> healthInsuranceItemReader(
+            @Value("${batch.health-insurance.reader:flat}") String readerMode) {
+        return healthInsuranceItemReader.createReader(readerMode);
     }
 
     /**
@@ -56,18 +70,113 @@ public class HealthInsuranceBatchConfig {
 
     /**
      * 定义步骤 (Step)
+     * batch.health-insurance.writer=jdbc 时改用 JDBC 批次插入，建议同时调大 batch.health-insurance.chunk-size
      */
     @Bean(name = "healthInsuranceStep")
     public Step step1(JobRepository jobRepository,
                       PlatformTransactionManager transactionManager,
-                      @Qualifier("healthInsuranceReader") FlatFileItemReader<HealthInsuranceDTO> reader,
+                      @Qualifier("healthInsuranceReader") ItemStreamReader<HealthInsuranceDTO> reader,
                       HealthInsuranceItemProcessor processor,
-                      HealthInsuranceItemWriter writer) {
-        return new StepBuilder("healthInsuranceStep", jobRepository)
-                .<HealthInsuranceDTO, HealthInsurance> chunk(3, transactionManager)
+                      HealthInsuranceItemWriter writer,
+                      @Value("${batch.health-insurance.writer:repository}") String writerMode,
+                      @Value("${batch.health-insurance.chunk-size:3}") int chunkSize) {
+        return chunkSizing.<HealthInsuranceDTO, HealthInsurance>chunk(
+                        new StepBuilder("healthInsuranceStep", jobRepository), chunkSize, transactionManager)
                 .reader(reader)
                 .processor(processor)
-                .writer(writer.createWriter())
+                .writer(writer.createWriter(writerMode))
+                .build();
+    }
+
+    // ================================
+    // 多文件分区导入 (healthInsurancePartitionedJob)
+    // ================================
+
+    /**
+     * 分区读取器
+     * Step Scope：每个分区各自建立一个实例，从分区的 ExecutionContext 取得文件与字节范围
+     */
+    @Bean(name = "healthInsurancePartitionReader")
+    @StepScope
+    public MappedHealthInsuranceItemReader healthInsurancePartitionReader(
+            @Value("#{stepExecutionContext['fileName']}") String fileName,
+            @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+            @Value("#{stepExecutionContext['endOffset']}") Long endOffset) {
+        return healthInsuranceItemReader.createMappedReader(new FileSystemResource(fileName), startOffset, endOffset);
+    }
+
+    /**
+     * 分区线程池，max-threads 为 0 时使用 CPU 核心数
+     * 线程数建议不超过 Hikari 连接池大小
+     */
+    @Bean(name = "healthInsurancePartitionTaskExecutor")
+    public TaskExecutor healthInsurancePartitionTaskExecutor(
+            BatchThreads batchThreads,
+            @Value("${batch.health-insurance.partition.max-threads:0}") int maxThreads) {
+        int threads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+        if (batchThreads.isVirtual()) {
+            return batchThreads.virtualExecutor("health-insurance-partition-", threads);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("health-insurance-partition-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * 分区工作步骤 - 处理单一文件或文件的一段字节范围
+     * 每个分区拥有独立的 StepExecution，计数与重启位置各自保存在 JobRepository
+     */
+    @Bean(name = "healthInsurancePartitionWorkerStep")
+    public Step healthInsurancePartitionWorkerStep(JobRepository jobRepository,
+                                                   PlatformTransactionManager transactionManager,
+                                                   @Qualifier("healthInsurancePartitionReader") MappedHealthInsuranceItemReader reader,
+                                                   HealthInsuranceItemProcessor processor,
+                                                   HealthInsuranceItemWriter writer,
+                                                   @Value("${batch.health-insurance.writer:repository}") String writerMode,
+                                                   @Value("${batch.health-insurance.partition.chunk-size:1000}") int chunkSize) {
+        return chunkSizing.<HealthInsuranceDTO, HealthInsurance>chunk(
+                        new StepBuilder("healthInsurancePartitionWorkerStep", jobRepository), chunkSize, transactionManager)
+                .reader(reader)
+                .processor(processor)
+                .writer(writer.createWriter(writerMode))
+                .build();
+    }
+
+    /**
+     * 分区管理步骤
+     * 依投递目录中的文件建立分区（大文件再依字节范围切分），grid-size 为 0 时使用 CPU 核心数
+     * 全部分区完成后由 HealthInsurancePartitionSummaryListener 输出汇总报告
+     */
+    @Bean(name = "healthInsurancePartitionedStep")
+    public Step healthInsurancePartitionedStep(JobRepository jobRepository,
+                                               HealthInsuranceFilePartitioner partitioner,
+                                               @Qualifier("healthInsurancePartitionWorkerStep") Step workerStep,
+                                               @Qualifier("healthInsurancePartitionTaskExecutor") TaskExecutor taskExecutor,
+                                               HealthInsurancePartitionSummaryListener summaryListener,
+                                               @Value("${batch.health-insurance.partition.grid-size:0}") int gridSize) {
+        return new StepBuilder("healthInsurancePartitionedStep", jobRepository)
+                .partitioner("healthInsurancePartitionWorkerStep", partitioner)
+                .step(workerStep)
+                .gridSize(gridSize > 0 ? gridSize : Runtime.getRuntime().availableProcessors())
+                .taskExecutor(taskExecutor)
+                .listener(summaryListener)
+                .build();
+    }
+
+    /**
+     * 定义多文件分区导入作业 (Job)
+     */
+    @Bean(name = "healthInsurancePartitionedJob")
+    public Job healthInsurancePartitionedJob(JobRepository jobRepository,
+                                             @Qualifier("healthInsurancePartitionedStep") Step step,
+                                             JobCompleteionNotificationListener listener) {
+        return new JobBuilder("healthInsurancePartitionedJob", jobRepository)
+                .listener(listener)
+                .start(step)
                 .build();
     }
 }
@@ -14,16 +14,25 @@ import org.springframework.batch.core.JobParametersBuilder;
 import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.example.demo.batch.Scheduled.BookBatchScheduler;
+import com.example.demo.batch.dto.BookJobProgress;
+import com.example.demo.batch.flow.BookPipelineDecider;
 import com.example.demo.batch.repository.BookRepository;
+import com.example.demo.batch.service.BookJobLaunchService;
+import com.example.demo.batch.service.BookJobProgressService;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -39,6 +48,8 @@ public class BookBatchController {
     private final JobLauncher jobLauncher;
     private final BookRepository bookRepository;
     private final BookBatchScheduler bookBatchScheduler;
+    private final BookJobProgressService progressService;
+    private final BookJobLaunchService launchService;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Autowired
@@ -53,56 +64,99 @@ public class BookBatchController {
     @Qualifier("bookJdbcJob")
     private Job bookJdbcJob;
 
+    @Autowired
+    @Qualifier("bookJdbcPartitionedJob")
+    private Job bookJdbcPartitionedJob;
+
     @Autowired
     @Qualifier("bookComprehensiveJob")
     private Job bookComprehensiveJob;
 
+    @Autowired
+    @Qualifier("bookComprehensiveParallelJob")
+    private Job bookComprehensiveParallelJob;
+
     @Autowired
     @Qualifier("bookConditionalJob")
     private Job bookConditionalJob;
 
+    @Autowired
+    @Qualifier("bookColumnarExportJob")
+    private Job bookColumnarExportJob;
+
+    @Autowired
+    @Qualifier("bookRemoteChunkingJob")
+    private Job bookRemoteChunkingJob;
+
     public BookBatchController(JobLauncher jobLauncher,
                                BookRepository bookRepository,
-                               BookBatchScheduler bookBatchScheduler) {
+                               BookBatchScheduler bookBatchScheduler,
+                               BookJobProgressService progressService,
+                               BookJobLaunchService launchService) {
         this.jobLauncher = jobLauncher;
         this.bookRepository = bookRepository;
         this.bookBatchScheduler = bookBatchScheduler;
+        this.progressService = progressService;
+        this.launchService = launchService;
     }
 
     /**
      * 觸發 Repository 讀取器作業
-     * GET /api/batch/books/repository
+     * GET /api/batch/books/repository?pipeline=true
      */
     @GetMapping("/repository")
-    public ResponseEntity<Map<String, Object>> triggerRepositoryJob() {
-        return executeJob(bookRepositoryJob, "REPOSITORY", "Repository Item Reader");
+    public ResponseEntity<Map<String, Object>> triggerRepositoryJob(
+            @RequestParam(defaultValue = "false") boolean pipeline) {
+        return executeJob(bookRepositoryJob, "REPOSITORY", "Repository Item Reader", pipeline);
     }
 
     /**
      * 觸發 JPA 分頁讀取器作業
-     * GET /api/batch/books/jpa
+     * GET /api/batch/books/jpa?pipeline=true
      */
     @GetMapping("/jpa")
-    public ResponseEntity<Map<String, Object>> triggerJpaJob() {
-        return executeJob(bookJpaJob, "JPA", "JPA Paging Item Reader");
+    public ResponseEntity<Map<String, Object>> triggerJpaJob(
+            @RequestParam(defaultValue = "false") boolean pipeline) {
+        return executeJob(bookJpaJob, "JPA", "JPA Paging Item Reader", pipeline);
     }
 
     /**
      * 觸發 JDBC 游標讀取器作業
-     * GET /api/batch/books/jdbc
+     * GET /api/batch/books/jdbc?pipeline=true
      */
     @GetMapping("/jdbc")
-    public ResponseEntity<Map<String, Object>> triggerJdbcJob() {
-        return executeJob(bookJdbcJob, "JDBC", "JDBC Cursor Item Reader");
+    public ResponseEntity<Map<String, Object>> triggerJdbcJob(
+            @RequestParam(defaultValue = "false") boolean pipeline) {
+        return executeJob(bookJdbcJob, "JDBC", "JDBC Cursor Item Reader", pipeline);
+    }
+
+    /**
+     * 觸發 ID 範圍分區的 JDBC 游標讀取器作業
+     * GET /api/batch/books/jdbc-partitioned
+     */
+    @GetMapping("/jdbc-partitioned")
+    public ResponseEntity<Map<String, Object>> triggerJdbcPartitionedJob() {
+        return executeJob(bookJdbcPartitionedJob, "JDBC_PARTITIONED", "Partitioned JDBC Cursor Item Reader");
     }
 
     /**
      * 觸發綜合作業（包含多個步驟）
-     * GET /api/batch/books/comprehensive
+     * GET /api/batch/books/comprehensive?pipeline=true
      */
     @GetMapping("/comprehensive")
-    public ResponseEntity<Map<String, Object>> triggerComprehensiveJob() {
-        return executeJob(bookComprehensiveJob, "COMPREHENSIVE", "Comprehensive Multi-Step Job");
+    public ResponseEntity<Map<String, Object>> triggerComprehensiveJob(
+            @RequestParam(defaultValue = "false") boolean pipeline) {
+        return executeJob(bookComprehensiveJob, "COMPREHENSIVE", "Comprehensive Multi-Step Job", pipeline);
+    }
+
+    /**
+     * 觸發平行綜合作業（三個步驟同時執行）
+     * GET /api/batch/books/comprehensive-parallel?pipeline=true
+     */
+    @GetMapping("/comprehensive-parallel")
+    public ResponseEntity<Map<String, Object>> triggerComprehensiveParallelJob(
+            @RequestParam(defaultValue = "false") boolean pipeline) {
+        return executeJob(bookComprehensiveParallelJob, "COMPREHENSIVE_PARALLEL", "Parallel Split Multi-Step Job", pipeline);
     }
 
     /**
@@ -114,6 +168,24 @@ public class BookBatchController {
         return executeJob(bookConditionalJob, "CONDITIONAL", "Conditional Flow Job");
     }
 
+    /**
+     * 觸發欄式匯出作業
+     * GET /api/batch/books/columnar-export
+     */
+    @GetMapping("/columnar-export")
+    public ResponseEntity<Map<String, Object>> triggerColumnarExportJob() {
+        return executeJob(bookColumnarExportJob, "COLUMNAR_EXPORT", "Columnar Export Job");
+    }
+
+    /**
+     * 觸發遠端 chunk 作業
+     * GET /api/batch/books/remote-chunking
+     */
+    @GetMapping("/remote-chunking")
+    public ResponseEntity<Map<String, Object>> triggerRemoteChunkingJob() {
+        return executeJob(bookRemoteChunkingJob, "REMOTE_CHUNKING", "Remote Chunking Job");
+    }
+
     /**
      * 使用排程器手動觸發作業
      * POST /api/batch/books/trigger/{jobType}
@@ -158,8 +230,12 @@ public class BookBatchController {
         jobs.put("REPOSITORY", "Repository Item Reader Job");
         jobs.put("JPA", "JPA Paging Item Reader Job");
         jobs.put("JDBC", "JDBC Cursor Item Reader Job");
+        jobs.put("JDBC_PARTITIONED", "Partitioned JDBC Cursor Item Reader Job");
         jobs.put("COMPREHENSIVE", "Comprehensive Multi-Step Job");
+        jobs.put("COMPREHENSIVE_PARALLEL", "Parallel Split Multi-Step Job");
         jobs.put("CONDITIONAL", "Conditional Flow Job");
+        jobs.put("COLUMNAR_EXPORT", "Columnar Export Job");
+        jobs.put("REMOTE_CHUNKING", "Remote Chunking Job");
 
         response.put("availableJobs", jobs);
         response.put("totalJobs", jobs.size());
@@ -198,6 +274,38 @@ public class BookBatchController {
         }
     }
 
+    /**
+     * 本節點執行中的書籍作業進度
+     * GET /api/batch/books/executions/running
+     */
+    @GetMapping("/executions/running")
+    public ResponseEntity<List<BookJobProgress>> getRunningExecutions() {
+        return ResponseEntity.ok(progressService.getRunningProgress());
+    }
+
+    /**
+     * 查詢作業進度與預估剩餘時間
+     * GET /api/batch/books/executions/{id}/progress
+     */
+    @GetMapping("/executions/{id}/progress")
+    public ResponseEntity<BookJobProgress> getExecutionProgress(@PathVariable Long id) {
+        return progressService.getProgress(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 以 Server-Sent Events 持續推送作業進度，作業結束後關閉連線
+     * GET /api/batch/books/executions/{id}/progress/stream
+     */
+    @GetMapping(path = "/executions/{id}/progress/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamExecutionProgress(@PathVariable Long id) {
+        if (progressService.getProgress(id).isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(progressService.stream(id));
+    }
+
     /**
      * 批量觸發多個作業
      * POST /api/batch/books/batch-trigger
@@ -229,6 +337,59 @@ public class BookBatchController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * 非同步觸發作業，JobExecution 建立後立即回傳 202 與 execution id
+     * POST /api/batch/books/async/{jobType}
+     * 同時執行與等待中的作業已達上限時回傳 429
+     * 與執行中的作業重疊時同樣回傳 202，status 為 DEFERRED，衝突結束後才建立 JobExecution
+     */
+    @PostMapping("/async/{jobType}")
+    public ResponseEntity<Map<String, Object>> triggerJobAsync(@PathVariable String jobType) {
+        Map<String, Object> result = launchAsync(jobType);
+        return ResponseEntity.status((HttpStatus) result.remove("httpStatus")).body(result);
+    }
+
+    /**
+     * 非同步批量觸發多個作業，在上限內同時執行
+     * POST /api/batch/books/batch-trigger/async
+     * 至少一個作業被接受時回傳 202，各作業的結果（含被拒絕者）列於 results
+     */
+    @PostMapping("/batch-trigger/async")
+    public ResponseEntity<Map<String, Object>> triggerMultipleJobsAsync(@RequestBody List<String> jobTypes) {
+        Map<String, Object> response = new HashMap<>();
+        Map<String, Object> results = new HashMap<>();
+        int accepted = 0;
+        int deferred = 0;
+        int rejected = 0;
+
+        for (String jobType : jobTypes) {
+            Map<String, Object> result = launchAsync(jobType);
+            HttpStatus status = (HttpStatus) result.remove("httpStatus");
+            if (status == HttpStatus.ACCEPTED) {
+                accepted++;
+                if ("DEFERRED".equals(result.get("status"))) {
+                    deferred++;
+                }
+            } else if (status == HttpStatus.TOO_MANY_REQUESTS) {
+                rejected++;
+            }
+            results.put(jobType, result);
+        }
+
+        response.put("results", results);
+        response.put("totalJobs", jobTypes.size());
+        response.put("accepted", accepted);
+        response.put("deferred", deferred);
+        response.put("rejected", rejected);
+        response.put("availableSlots", launchService.availableSlots());
+        response.put("triggerTime", LocalDateTime.now().format(formatter));
+
+        HttpStatus status = accepted > 0 ? HttpStatus.ACCEPTED
+                : rejected > 0 ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.BAD_REQUEST;
+        return ResponseEntity.status(status).body(response);
+    }
+
     /**
      * 健康檢查端點
      * GET /api/batch/books/health
@@ -258,16 +419,77 @@ public class BookBatchController {
         }
     }
 
+    /**
+     * 以 BookJobLaunchService 非同步啟動單一作業，httpStatus 欄位由呼叫端取出作為回應狀態
+     */
+    private Map<String, Object> launchAsync(String jobType) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("jobType", jobType.toUpperCase());
+        result.put("triggerTime", LocalDateTime.now().format(formatter));
+
+        Job job = bookBatchScheduler.resolveJob(jobType);
+        if (job == null) {
+            result.put("success", false);
+            result.put("message", "Unknown job type: " + jobType);
+            result.put("httpStatus", HttpStatus.BAD_REQUEST);
+            return result;
+        }
+
+        try {
+            JobExecution jobExecution = launchService.launch(job, bookBatchScheduler.createManualJobParameters());
+            if (jobExecution == null) {
+                result.put("success", true);
+                result.put("jobName", job.getName());
+                result.put("status", "DEFERRED");
+                result.put("message", "Overlaps a running job, will start when it finishes");
+                result.put("httpStatus", HttpStatus.ACCEPTED);
+                return result;
+            }
+
+            result.put("success", true);
+            result.put("jobName", job.getName());
+            result.put("executionId", jobExecution.getId());
+            result.put("status", jobExecution.getStatus().toString());
+            result.put("progressUrl", "/api/batch/books/executions/" + jobExecution.getId() + "/progress");
+            result.put("httpStatus", HttpStatus.ACCEPTED);
+
+        } catch (TaskRejectedException e) {
+            log.warn("⏳ {} job rejected: {}", jobType, e.getMessage());
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            result.put("httpStatus", HttpStatus.TOO_MANY_REQUESTS);
+
+        } catch (JobExecutionException e) {
+            log.error("❌ Failed to launch {} job: {}", jobType, e.getMessage(), e);
+            result.put("success", false);
+            result.put("message", "Failed to launch job: " + e.getMessage());
+            result.put("error", e.getClass().getSimpleName());
+            result.put("httpStatus", HttpStatus.CONFLICT);
+        }
+
+        return result;
+    }
+
     /**
      * 通用作業執行方法
      */
     private ResponseEntity<Map<String, Object>> executeJob(Job job, String jobType, String description) {
+        return executeJob(job, jobType, description, false);
+    }
+
+    /**
+     * 通用作業執行方法
+     * pipeline 為 true 時加入作業參數 pipeline=true，由 BookPipelineDecider 改走管線步驟
+     */
+    private ResponseEntity<Map<String, Object>> executeJob(Job job, String jobType, String description,
+                                                           boolean pipeline) {
         try {
             JobParameters params = new JobParametersBuilder()
                     .addLong("timestamp", System.currentTimeMillis())
                     .addString("executionType", "MANUAL_API")
                     .addString("jobType", jobType)
                     .addString("triggerTime", LocalDateTime.now().format(formatter))
+                    .addString(BookPipelineDecider.PIPELINE_PARAMETER, String.valueOf(pipeline))
                     .toJobParameters();
 
             log.info("🚀 Starting {} job via API", jobType);
@@ -279,6 +501,7 @@ public class BookBatchController {
             response.put("jobType", jobType);
             response.put("description", description);
             response.put("executionId", jobExecution.getId());
+            response.put("pipeline", pipeline);
             response.put("status", jobExecution.getStatus().toString());
             response.put("startTime", jobExecution.getStartTime());
             response.put("triggerTime", LocalDateTime.now().format(formatter));
@@ -0,0 +1,40 @@
+package com.example.demo.batch.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 書籍批次作業的執行進度
+ *
+ * @param estimatedTotal 作業開始時 book 表的筆數，未記錄時為 null
+ * @param currentRate    最近數秒內的讀取速度 (items/sec)
+ * @param averageRate    執行中步驟自開始以來的平均讀取速度 (items/sec)
+ * @param etaSeconds     執行中步驟預估的剩餘秒數（上限估計），無法估計時為 null
+ */
+public record BookJobProgress(Long executionId,
+                              String jobName,
+                              String status,
+                              boolean running,
+                              LocalDateTime startTime,
+                              long elapsedMillis,
+                              Long estimatedTotal,
+                              long readCount,
+                              long writeCount,
+                              long skipCount,
+                              double currentRate,
+                              double averageRate,
+                              Long etaSeconds,
+                              List<StepProgress> steps) {
+
+    /**
+     * 單一步驟（或分區）的進度
+     */
+    public record StepProgress(String stepName,
+                               String status,
+                               long readCount,
+                               long writeCount,
+                               long skipCount,
+                               long commitCount,
+                               long rollbackCount) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.demo.batch.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// BatchMetadataRetentionTasklet 封存的作業執行，刪除前自 BATCH_* 資料表複製
+// payload 為 gzip 壓縮的 JSON：執行、參數、步驟與各自的 context
+// 資料表由 Hibernate 依實體建立，以 JOB_EXECUTION_ID 為主鍵；封存與刪除在同一個交易
+@Entity
+@Table(name = "batch_execution_archive", indexes = @Index(name = "idx_batch_execution_archive_job", columnList = "jobName, endTime"))
+@Data
+@NoArgsConstructor
+public class BatchExecutionArchive {
+
+    @Id
+    private Long jobExecutionId;
+
+    private Long jobInstanceId;
+    private String jobName;
+    private String status;
+    private String exitCode;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime archivedAt;
+
+    // 壓縮前的位元組數
+    private Integer payloadBytes;
+
+    @Column(columnDefinition = "bytea")
+    private byte[] payload;
+}
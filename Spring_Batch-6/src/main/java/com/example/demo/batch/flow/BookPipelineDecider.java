@@ -0,0 +1,30 @@
+package com.example.demo.batch.flow;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.stereotype.Component;
+
+/**
+ * 管線模式判斷器
+ * 依作業參數 pipeline=true 決定執行管線步驟（非同步處理）或原本的循序步驟
+ * 重啟時使用相同的作業參數，因此會選擇相同的步驟
+ */
+@Component
+public class BookPipelineDecider implements JobExecutionDecider {
+
+    public static final String PIPELINE_PARAMETER = "pipeline";
+
+    public static final FlowExecutionStatus PIPELINE = new FlowExecutionStatus("PIPELINE");
+    public static final FlowExecutionStatus SEQUENTIAL = new FlowExecutionStatus("SEQUENTIAL");
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        return isPipelineEnabled(jobExecution) ? PIPELINE : SEQUENTIAL;
+    }
+
+    public static boolean isPipelineEnabled(JobExecution jobExecution) {
+        return Boolean.parseBoolean(jobExecution.getJobParameters().getString(PIPELINE_PARAMETER));
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.demo.batch.listener;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.batch.partition.BookIdRangePartitioner;
+import com.example.demo.batch.writer.BookCategoryReportWriter;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 書籍分區步驟的整體分類統計報告
+ * 註冊在分區管理步驟上，所有分區完成後合併各分區 ExecutionContext 中 BookCategoryReportWriter 的累加狀態，
+ * 輸出一份涵蓋全部 ID 範圍的報告
+ *
+ * 分區狀態由 JobExplorer 讀取同一個 JobInstance 的全部執行，每個分區取最新的 StepExecution：
+ * 重啟時上次已完成、這次沒有重新執行的分區同樣列入報告
+ */
+@Log4j2
+@Component
+public class BookCategoryReportListener implements StepExecutionListener {
+
+    private final JobExplorer jobExplorer;
+
+    public BookCategoryReportListener(JobExplorer jobExplorer) {
+        this.jobExplorer = jobExplorer;
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution managerExecution) {
+        Map<String, StepExecution> partitions = new TreeMap<>();
+        for (JobExecution execution : jobExplorer.getJobExecutions(managerExecution.getJobExecution().getJobInstance())) {
+            for (StepExecution step : execution.getStepExecutions()) {
+                ExecutionContext context = step.getExecutionContext();
+                if (!context.containsKey(BookIdRangePartitioner.MIN_ID_KEY)
+                        || !BookCategoryReportWriter.hasStatistics(context)) {
+                    continue;
+                }
+                partitions.merge(step.getStepName(), step,
+                        (current, other) -> other.getId() > current.getId() ? other : current);
+            }
+        }
+
+        long incomplete = partitions.values().stream()
+                .filter(step -> step.getStatus() != BatchStatus.COMPLETED)
+                .count();
+        if (incomplete > 0) {
+            log.warn("{} of {} partitions did not complete, the report covers committed chunks only",
+                    incomplete, partitions.size());
+        }
+        BookCategoryReportWriter.logMergedReport(
+                managerExecution.getStepName() + ", " + partitions.size() + " partitions",
+                partitions.values().stream().map(StepExecution::getExecutionContext).toList());
+        return managerExecution.getExitStatus();
+    }
+}
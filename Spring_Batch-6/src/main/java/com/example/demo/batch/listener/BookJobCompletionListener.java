@@ -2,6 +2,8 @@ package com.example.demo.batch.listener;
 
 import java.time.Duration;
 import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
@@ -9,7 +11,9 @@ import org.springframework.batch.core.JobExecutionListener;
 import org.springframework.batch.core.StepExecution;
 import org.springframework.stereotype.Component;
 
+import com.example.demo.batch.flow.BookPipelineDecider;
 import com.example.demo.batch.repository.BookRepository;
+import com.example.demo.batch.service.BookJobProgressService;
 
 import lombok.extern.log4j.Log4j2;
 
@@ -20,16 +24,31 @@ import lombok.extern.log4j.Log4j2;
  * 2. 記錄執行統計信息
  * 3. 生成執行報告
  * 4. 處理異常情況
+ * 5. 回報各步驟吞吐量，並與另一種模式（循序 / 管線）最近一次的吞吐量比較
+ *
+ * 執行中的即時指標由 BookStepMetricsListener 提供，進度與 ETA 由 BookJobProgressService 提供
  */
 @Log4j2
 @Component
 public class BookJobCompletionListener implements JobExecutionListener {
 
     private final BookRepository bookRepository;
+    private final BookJobProgressService progressService;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    public BookJobCompletionListener(BookRepository bookRepository) {
+    /**
+     * 管線步驟名稱的識別字，例如 bookJdbcPipelineStep 對應 bookJdbcStep
+     */
+    private static final String PIPELINE_MARKER = "Pipeline";
+
+    /**
+     * 各步驟最近一次的吞吐量 (items/sec)，key 為循序步驟名稱 + 模式
+     */
+    private final Map<String, Double> lastThroughput = new ConcurrentHashMap<>();
+
+    public BookJobCompletionListener(BookRepository bookRepository, BookJobProgressService progressService) {
         this.bookRepository = bookRepository;
+        this.progressService = progressService;
     }
 
     /**
@@ -43,11 +62,15 @@ public class BookJobCompletionListener implements JobExecutionListener {
         log.info("Job ID: {}", jobExecution.getJobId());
         log.info("Start Time: {}", jobExecution.getStartTime().format(formatter));
         log.info("Parameters: {}", jobExecution.getJobParameters());
+        log.info("Pipeline Mode: {}", BookPipelineDecider.isPipelineEnabled(jobExecution) ? "ON" : "OFF");
 
         // 記錄資料庫狀態
         long totalBooks = bookRepository.count();
         log.info("📊 Database Status: {} books available for processing", totalBooks);
         log.info("=".repeat(60));
+
+        // 以作業開始時的筆數估計進度
+        progressService.track(jobExecution, totalBooks);
     }
 
     /**
@@ -55,6 +78,7 @@ public class BookJobCompletionListener implements JobExecutionListener {
      */
     @Override
     public void afterJob(JobExecution jobExecution) {
+        progressService.untrack(jobExecution);
         BatchStatus status = jobExecution.getStatus();
 
         log.info("=".repeat(60));
@@ -115,6 +139,7 @@ public class BookJobCompletionListener implements JobExecutionListener {
             if (stepExecution.getStartTime() != null && stepExecution.getEndTime() != null) {
                 Duration stepDuration = Duration.between(stepExecution.getStartTime(), stepExecution.getEndTime());
                 log.info("      ⏱️ Step Duration: {}ms", stepDuration.toMillis());
+                reportThroughput(stepName, writeCount, stepDuration);
             }
         }
 
@@ -128,13 +153,38 @@ public class BookJobCompletionListener implements JobExecutionListener {
         // 計算處理效率
         if (totalItemsRead > 0) {
             double successRate = ((double) totalItemsProcessed / totalItemsRead) * 100;
-            log.info("  📈 Processing Success Rate: {:.2f}%", successRate);
+            log.info("  📈 Processing Success Rate: {}%", String.format("%.2f", successRate));
         }
 
         // 驗證資料庫最終狀態
         verifyDatabaseState();
     }
 
+    /**
+     * 記錄步驟吞吐量，若另一種模式已有紀錄則輸出管線模式的加速比
+     */
+    private void reportThroughput(String stepName, long writeCount, Duration stepDuration) {
+        long millis = stepDuration.toMillis();
+        if (millis <= 0 || writeCount == 0) {
+            return;
+        }
+
+        double throughput = writeCount * 1000.0 / millis;
+        log.info("      🚀 Throughput: {} items/sec", String.format("%.1f", throughput));
+
+        boolean pipelined = stepName.contains(PIPELINE_MARKER);
+        String baseName = stepName.replace(PIPELINE_MARKER, "");
+        lastThroughput.put(baseName + (pipelined ? "#pipeline" : "#sequential"), throughput);
+
+        Double sequential = lastThroughput.get(baseName + "#sequential");
+        Double pipeline = lastThroughput.get(baseName + "#pipeline");
+        if (sequential != null && pipeline != null) {
+            log.info("      📊 Pipeline vs Sequential: {} vs {} items/sec ({}x)",
+                    String.format("%.1f", pipeline), String.format("%.1f", sequential),
+                    String.format("%.2f", pipeline / sequential));
+        }
+    }
+
     /**
      * 處理失敗的作業
      */
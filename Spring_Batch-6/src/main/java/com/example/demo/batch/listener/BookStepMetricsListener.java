@@ -0,0 +1,127 @@
+package com.example.demo.batch.listener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * 書籍步驟的即時指標 (Micrometer)
+ * 每個 chunk 交易結束時更新，作業執行中即可由 /actuator/metrics 與 /actuator/prometheus 觀察：
+ * 1. batch.book.chunk：每個 chunk (讀取 + 處理 + 寫入 + 提交) 的耗時，status=SUCCESS / FAILURE
+ * 2. batch.book.step.items：讀取 / 寫入 / 過濾 / 略過筆數，以 type 標籤區分
+ * 3. batch.book.step.commits / batch.book.step.rollbacks：提交與回滾次數
+ * 4. batch.book.step.throughput：目前（或最近一次）執行的每秒寫入筆數
+ *
+ * 單筆讀取、處理與寫入的延遲由 Spring Batch 內建的 spring.batch.item.read、
+ * spring.batch.item.process、spring.batch.chunk.write 計時器提供，不重複記錄
+ * 量表以 job + step 為標籤，指向該步驟最近一次的 StepExecution，步驟結束後保留最後的數值
+ */
+@Component
+public class BookStepMetricsListener implements ChunkListener {
+
+    private static final String SAMPLE_KEY = BookStepMetricsListener.class.getName() + ".sample";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * key 為 job + step，值為該步驟最近一次的 StepExecution
+     */
+    private final Map<String, AtomicReference<StepExecution>> currentExecutions = new ConcurrentHashMap<>();
+
+    public BookStepMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        bind(stepExecution);
+        context.setAttribute(SAMPLE_KEY, Timer.start(meterRegistry));
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        stopSample(context, "SUCCESS");
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        stopSample(context, "FAILURE");
+    }
+
+    private void stopSample(ChunkContext context, String status) {
+        Object sample = context.getAttribute(SAMPLE_KEY);
+        if (sample instanceof Timer.Sample timerSample) {
+            context.removeAttribute(SAMPLE_KEY);
+            timerSample.stop(Timer.builder("batch.book.chunk")
+                    .description("Book chunk transaction duration")
+                    .tags(tags(context.getStepContext().getStepExecution()).and("status", status))
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 第一次看到某個 job + step 時註冊量表，之後只更新指向的 StepExecution
+     */
+    private void bind(StepExecution stepExecution) {
+        String key = stepExecution.getJobExecution().getJobInstance().getJobName()
+                + "/" + stepExecution.getStepName();
+        AtomicReference<StepExecution> current = currentExecutions.computeIfAbsent(key, k -> {
+            AtomicReference<StepExecution> reference = new AtomicReference<>(stepExecution);
+            Tags tags = tags(stepExecution);
+            gauge("batch.book.step.items", "Items per step execution", tags.and("type", "read"),
+                    reference, StepExecution::getReadCount);
+            gauge("batch.book.step.items", "Items per step execution", tags.and("type", "write"),
+                    reference, StepExecution::getWriteCount);
+            gauge("batch.book.step.items", "Items per step execution", tags.and("type", "filter"),
+                    reference, StepExecution::getFilterCount);
+            gauge("batch.book.step.items", "Items per step execution", tags.and("type", "skip"),
+                    reference, StepExecution::getSkipCount);
+            gauge("batch.book.step.commits", "Commits of the step execution", tags,
+                    reference, StepExecution::getCommitCount);
+            gauge("batch.book.step.rollbacks", "Rollbacks of the step execution", tags,
+                    reference, StepExecution::getRollbackCount);
+            gauge("batch.book.step.throughput", "Written items per second", tags,
+                    reference, BookStepMetricsListener::throughput);
+            return reference;
+        });
+        current.set(stepExecution);
+    }
+
+    private void gauge(String name, String description, Tags tags,
+                       AtomicReference<StepExecution> reference, ToDoubleFunction<StepExecution> value) {
+        Gauge.builder(name, reference, ref -> value.applyAsDouble(ref.get()))
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(meterRegistry);
+    }
+
+    private static Tags tags(StepExecution stepExecution) {
+        return Tags.of(
+                "job", stepExecution.getJobExecution().getJobInstance().getJobName(),
+                "step", stepExecution.getStepName());
+    }
+
+    private static double throughput(StepExecution stepExecution) {
+        if (stepExecution.getStartTime() == null) {
+            return 0;
+        }
+        LocalDateTime end = stepExecution.getEndTime() != null ? stepExecution.getEndTime() : LocalDateTime.now();
+        long millis = Duration.between(stepExecution.getStartTime(), end).toMillis();
+        return millis > 0 ? stepExecution.getWriteCount() * 1000.0 / millis : 0;
+    }
+}
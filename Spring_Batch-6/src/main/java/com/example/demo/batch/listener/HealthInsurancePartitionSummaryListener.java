@@ -0,0 +1,85 @@
+package com.example.demo.batch.listener;
+
+import java.io.File;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.batch.partition.HealthInsuranceFilePartitioner;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 健保分區匯入的彙總報告
+ * 註冊在分區管理步驟上，所有分區完成後輸出：
+ * 1. 每個分區的檔案、位元組範圍、讀取/寫入/略過筆數、狀態與耗時
+ * 2. 總檔案數、總筆數與每秒寫入筆數
+ *
+ * 只統計本次執行的分區；重啟時上次已完成的分區不會重新執行，也不列入報告
+ */
+@Log4j2
+@Component
+public class HealthInsurancePartitionSummaryListener implements StepExecutionListener {
+
+    @Override
+    public ExitStatus afterStep(StepExecution managerExecution) {
+        List<StepExecution> partitions = managerExecution.getJobExecution().getStepExecutions().stream()
+                .filter(execution -> execution.getExecutionContext()
+                        .containsKey(HealthInsuranceFilePartitioner.FILE_NAME_KEY))
+                .sorted(Comparator.comparing((StepExecution execution) -> execution.getExecutionContext()
+                                .getString(HealthInsuranceFilePartitioner.FILE_NAME_KEY))
+                        .thenComparingLong(execution -> execution.getExecutionContext()
+                                .getLong(HealthInsuranceFilePartitioner.START_OFFSET_KEY)))
+                .toList();
+
+        long read = 0;
+        long written = 0;
+        long skipped = 0;
+        long files = partitions.stream()
+                .map(execution -> execution.getExecutionContext().getString(HealthInsuranceFilePartitioner.FILE_NAME_KEY))
+                .distinct()
+                .count();
+
+        log.info("=== HEALTH INSURANCE IMPORT SUMMARY ({}) ===", managerExecution.getStepName());
+        for (StepExecution partition : partitions) {
+            ExecutionContext context = partition.getExecutionContext();
+            log.info("{} | {} [{} ~ {}] | Read: {} | Written: {} | Skipped: {} | {} | {}ms",
+                    partition.getStepName(),
+                    new File(context.getString(HealthInsuranceFilePartitioner.FILE_NAME_KEY)).getName(),
+                    context.getLong(HealthInsuranceFilePartitioner.START_OFFSET_KEY),
+                    context.getLong(HealthInsuranceFilePartitioner.END_OFFSET_KEY),
+                    partition.getReadCount(),
+                    partition.getWriteCount(),
+                    partition.getSkipCount(),
+                    partition.getStatus(),
+                    durationMillis(partition));
+            read += partition.getReadCount();
+            written += partition.getWriteCount();
+            skipped += partition.getSkipCount();
+        }
+
+        long millis = durationMillis(managerExecution);
+        log.info("Files: {} | Partitions: {} | Read: {} | Written: {} | Skipped: {} | {}ms | {} rows/sec",
+                files, partitions.size(), read, written, skipped, millis,
+                millis > 0 ? String.format("%.1f", written * 1000.0 / millis) : "-");
+        return managerExecution.getExitStatus();
+    }
+
+    /**
+     * afterStep 執行時管理步驟尚未設定結束時間，以目前時間計算
+     */
+    private static long durationMillis(StepExecution execution) {
+        if (execution.getStartTime() == null) {
+            return 0;
+        }
+        LocalDateTime end = execution.getEndTime() != null ? execution.getEndTime() : LocalDateTime.now();
+        return Duration.between(execution.getStartTime(), end).toMillis();
+    }
+}
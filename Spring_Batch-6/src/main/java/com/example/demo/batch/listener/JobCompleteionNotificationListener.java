@@ -1,35 +1,49 @@
 package com.example.demo.batch.listener;
 
+import java.util.Set;
+
 import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import com.example.demo.batch.repository.PersonRepository;
-
 import lombok.extern.log4j.Log4j2;
 
 /**
  * 关键功能:
  *
  * 使用@Component注解，表明这是一个Spring管理的组件
- * 依赖注入JdbcTemplate用于数据库操作
+ * 实现beforeJob方法，在作业开始前记录person表目前的最大id (watermark)，保存在作业的ExecutionContext
  * 实现afterJob方法，在作业完成后被调用
- * 当作业状态为COMPLETED时，查询数据库中的person表
- * 使用DataClassRowMapper将查询结果映射到Person对象
- * 遍历并记录所有查询到的人员信息
+ * 当作业状态为COMPLETED时，以PersonWriteVerifier验证本次执行写入的数据 (id大于watermark)：
+ * 笔数与写入person的步骤 (batch.person.verify.steps) 的writeCount核对，并随机抽样检查几笔
+ * 验证失败时记录错误，并写入作业的ExitStatus说明
  *
  * 这个监听器的主要目的是验证批处理作业是否成功完成，通过查询数据库确认数据已被正确写入。
+ * 不会载入或逐笔记录整张表，person表数据量增加后验证成本不变。
  */
 @Log4j2
 @Component
 public class JobCompleteionNotificationListener implements JobExecutionListener {
 
-    private final PersonRepository personRepository;;
+    private static final String WATERMARK_KEY = "personVerify.watermark";
+
+    private final PersonWriteVerifier verifier;
+    private final Set<String> personSteps;
 
     // 构造函数
-    public JobCompleteionNotificationListener(PersonRepository personRepository) {
-        this.personRepository = personRepository;
+    public JobCompleteionNotificationListener(PersonWriteVerifier verifier,
+                                              @Value("${batch.person.verify.steps:personStep}") Set<String> personSteps) {
+        this.verifier = verifier;
+        this.personSteps = personSteps;
+    }
+
+    // 作业开始前的回调方法
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        jobExecution.getExecutionContext().putLong(WATERMARK_KEY, verifier.watermark());
     }
 
     // 作业完成后的回调方法
@@ -38,14 +52,28 @@ public class JobCompleteionNotificationListener implements JobExecutionListener
         if(jobExecution.getStatus() == BatchStatus.COMPLETED){
             log.info("JOB FINISH! Time to verify the results");
 
-            long count = personRepository.count();
-            log.info("Total records in database: {}", count);
+            long expectedRows = 0;
+            boolean writesPersons = false;
+            for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+                if (personSteps.contains(stepExecution.getStepName())) {
+                    expectedRows += stepExecution.getWriteCount();
+                    writesPersons = true;
+                }
+            }
+            if (!writesPersons) {
+                log.info("Job {} has no person steps, nothing to verify", jobExecution.getJobInstance().getJobName());
+                return;
+            }
 
-            if (count > 0) {
-                personRepository.findAll()
-                        .forEach(person -> log.info("FOUND <{}> in the database", person));
+            long watermark = jobExecution.getExecutionContext().getLong(WATERMARK_KEY, 0L);
+            PersonWriteVerifier.Result result = verifier.verify(watermark, expectedRows);
+            if (result.passed()) {
+                log.info("Verified {} records (id {}..{}), {} sampled",
+                        result.writtenRows(), result.firstId(), result.lastId(), result.sampled());
             } else {
-                log.warn("No records found in the database!");
+                result.problems().forEach(problem -> log.error("Verification failed: {}", problem));
+                jobExecution.setExitStatus(jobExecution.getExitStatus()
+                        .addExitDescription("Verification failed: " + String.join("; ", result.problems())));
             }
         }
     }
@@ -0,0 +1,74 @@
+package com.example.demo.batch.partition;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 書籍 ID 範圍分區器
+ * 功能：
+ * 1. 查詢 book 表的 MIN(id) / MAX(id)
+ * 2. 依 gridSize 將 ID 切成連續且不重疊的範圍
+ * 3. 每個分區的 minId / maxId 寫入各自的 ExecutionContext，供 Step Scope 讀取器使用
+ */
+@Log4j2
+@Component
+public class BookIdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public BookIdRangePartitioner(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM book");
+        Number min = (Number) bounds.get("min_id");
+        Number max = (Number) bounds.get("max_id");
+
+        // 空表時仍回傳一個空範圍分區，讓 Step 正常完成
+        if (min == null || max == null) {
+            partitions.put("partition0", createContext(0, -1));
+            log.info("Book table is empty, created 1 empty partition");
+            return partitions;
+        }
+
+        long minId = min.longValue();
+        long maxId = max.longValue();
+        int grid = Math.max(1, gridSize);
+        long rangeSize = (maxId - minId) / grid + 1;
+
+        long start = minId;
+        int number = 0;
+        while (start <= maxId) {
+            long end = Math.min(start + rangeSize - 1, maxId);
+            partitions.put("partition" + number, createContext(start, end));
+            log.info("Partition {}: id {} ~ {}", number, start, end);
+            start = end + 1;
+            number++;
+        }
+
+        return partitions;
+    }
+
+    private ExecutionContext createContext(long minId, long maxId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_ID_KEY, minId);
+        context.putLong(MAX_ID_KEY, maxId);
+        return context;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.demo.batch.partition;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 健保檔案分區器
+ * 功能：
+ * 1. 依 batch.health-insurance.input-pattern 找出投遞目錄中的所有檔案，每個檔案至少一個分區
+ * 2. 檔案數少於 gridSize 時，將大檔案依位元組範圍切分，讓分區數接近 gridSize
+ * 3. 切分點對齊到下一筆資料列開頭（資料列內不可含換行，與 FlatFileItemReader 相同）
+ * 4. 每個分區的 fileName / startOffset / endOffset 寫入各自的 ExecutionContext，供 Step Scope 讀取器使用
+ *
+ * 分區名稱為 檔名:起始位移，只取決於分區本身的內容，與檔案排序及數量無關：
+ * 重啟時投遞目錄即使多了或少了檔案，未變動的檔案仍對應到同名的分區，從上次記錄的位元組位置繼續，
+ * 不會把上次某個分區的進度套用到另一個檔案上
+ * BATCH_STEP_EXECUTION.STEP_NAME 長度上限為 100，檔名過長時截短並附加完整檔名的 CRC32 以保持唯一
+ */
+@Log4j2
+@Component
+public class HealthInsuranceFilePartitioner implements Partitioner {
+
+    public static final String FILE_NAME_KEY = "fileName";
+    public static final String START_OFFSET_KEY = "startOffset";
+    public static final String END_OFFSET_KEY = "endOffset";
+
+    /**
+     * 分區名稱中檔名的最大長度，加上工作步驟名稱與位移後不超過 STEP_NAME 的 100 字元
+     */
+    private static final int MAX_FILE_NAME_LENGTH = 40;
+
+    private final String inputPattern;
+    private final long minSplitSize;
+
+    public HealthInsuranceFilePartitioner(
+            @Value("${batch.health-insurance.input-pattern:file:input/health-insurance/*.csv}") String inputPattern,
+            @Value("${batch.health-insurance.partition.min-split-size:67108864}") long minSplitSize) {
+        this.inputPattern = inputPattern;
+        this.minSplitSize = minSplitSize;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        List<File> files = resolveFiles();
+        if (files.isEmpty()) {
+            log.warn("No health insurance files found for pattern {}", inputPattern);
+            return partitions;
+        }
+
+        int grid = Math.max(1, gridSize);
+        long totalBytes = files.stream().mapToLong(File::length).sum();
+        long splitSize = Math.max(minSplitSize, (totalBytes + grid - 1) / grid);
+
+        for (File file : files) {
+            for (long[] range : split(file, splitSize)) {
+                String name = partitionName(file, range[0]);
+                partitions.put(name, createContext(file, range[0], range[1]));
+                log.info("Partition {}: bytes {} ~ {}", name, range[0], range[1]);
+            }
+        }
+
+        log.info("Created {} partitions for {} files ({} bytes, grid size {})",
+                partitions.size(), files.size(), totalBytes, grid);
+        return partitions;
+    }
+
+    private static String partitionName(File file, long startOffset) {
+        String fileName = file.getName();
+        if (fileName.length() > MAX_FILE_NAME_LENGTH) {
+            CRC32 crc = new CRC32();
+            crc.update(fileName.getBytes(StandardCharsets.UTF_8));
+            fileName = fileName.substring(0, MAX_FILE_NAME_LENGTH - 9) + "~" + String.format("%08x", crc.getValue());
+        }
+        return fileName + ":" + startOffset;
+    }
+
+    private List<File> resolveFiles() {
+        try {
+            Resource[] resources = new PathMatchingResourcePatternResolver().getResources(inputPattern);
+            List<File> files = new ArrayList<>();
+            for (Resource resource : resources) {
+                if (resource.isFile() && resource.getFile().isFile()) {
+                    files.add(resource.getFile());
+                }
+            }
+            files.sort(Comparator.comparing(File::getName));
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to resolve " + inputPattern, e);
+        }
+    }
+
+    /**
+     * 將檔案切成數個位元組範圍，每個範圍的起點都是資料列開頭
+     */
+    private List<long[]> split(File file, long splitSize) {
+        long size = file.length();
+        int pieces = (int) Math.max(1, (size + splitSize - 1) / splitSize);
+        if (pieces == 1) {
+            return List.of(new long[] {0, size});
+        }
+
+        List<long[]> ranges = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long start = 0;
+            for (int i = 1; i <= pieces && start < size; i++) {
+                long end = i == pieces ? size : alignToLineStart(channel, size * i / pieces, size);
+                if (end > start) {
+                    ranges.add(new long[] {start, end});
+                    start = end;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to split " + file, e);
+        }
+        return ranges;
+    }
+
+    /**
+     * 回傳 offset 之後（含）第一個資料列開頭的位置
+     */
+    private static long alignToLineStart(FileChannel channel, long offset, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long position = offset - 1;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private ExecutionContext createContext(File file, long startOffset, long endOffset) {
+        ExecutionContext context = new ExecutionContext();
+        context.putString(FILE_NAME_KEY, file.getAbsolutePath());
+        context.putLong(START_OFFSET_KEY, startOffset);
+        context.putLong(END_OFFSET_KEY, endOffset);
+        return context;
+    }
+}
@@ -20,12 +20,18 @@ import lombok.extern.log4j.Log4j2;
 @Component
 public class BookItemProcessor implements ItemProcessor<Book, BookDTO> {
 
+    private final BookTextNormalizer textNormalizer;
+
+    public BookItemProcessor(BookTextNormalizer textNormalizer) {
+        this.textNormalizer = textNormalizer;
+    }
+
     @Override
     public BookDTO process(final Book book) throws Exception {
         // 數據清理
-        String cleanTitle = cleanTitle(book.getTitle());
-        String cleanAuthor = cleanAuthor(book.getAuthor());
-        String normalizedPublisher = normalizePublisher(book.getPublisher());
+        String cleanTitle = textNormalizer.cleanTitle(book.getTitle());
+        String cleanAuthor = textNormalizer.cleanAuthor(book.getAuthor());
+        String normalizedPublisher = textNormalizer.normalizePublisher(book.getPublisher());
 
         // 分類書籍
         String category = categorizeBook(book);
@@ -52,48 +58,6 @@ public class BookItemProcessor implements ItemProcessor<Book, BookDTO> {
         return processedBook;
     }
 
-    /**
-     * 清理書籍標題
-     */
-    private String cleanTitle(String title) {
-        if (title == null) return "Unknown Title";
-
-        return title.trim()
-                .replaceAll("\\s+", " ") // 移除多餘空格
-                .replaceAll("[^\\w\\s\\-:;,.()?!]", "") // 移除特殊字符
-                .toUpperCase(); // 轉換為大寫
-    }
-
-    /**
-     * 清理作者姓名
-     */
-    private String cleanAuthor(String author) {
-        if (author == null) return "Unknown Author";
-
-        author = author.trim().replaceAll("\\s+", " ").toLowerCase();
-
-        StringBuilder sb = new StringBuilder();
-        for (String word : author.split(" ")) {
-            if (!word.isEmpty()) {
-                sb.append(Character.toUpperCase(word.charAt(0)))
-                        .append(word.substring(1))
-                        .append(" ");
-            }
-        }
-        return sb.toString().trim();
-    }
-
-    /**
-     * 標準化出版社名稱
-     */
-    private String normalizePublisher(String publisher) {
-        if (publisher == null) return "Unknown Publisher";
-
-        return publisher.trim()
-                .replaceAll("\\s+", " ")
-                .toUpperCase();
-    }
-
     /**
      * 根據年份、價格和其他因素分類書籍
      */
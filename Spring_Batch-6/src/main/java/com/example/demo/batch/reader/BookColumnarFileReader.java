@@ -0,0 +1,272 @@
+package com.example.demo.batch.reader;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.writer.BookColumnarFormat;
+import com.example.demo.batch.writer.BookColumnarFormat.Column;
+import com.example.demo.batch.writer.BookColumnarFormat.Source;
+
+/**
+ * 書籍欄式檔案 (.bcol) 讀取器
+ * 功能：
+ * 1. 依序讀取 row group，只解壓與解碼 columns 指定的欄位，其餘欄位依長度直接跳過
+ * 2. 字典欄位回傳字典編號，統計時可直接以編號分組，不必建立字串
+ *
+ * 使用方式：
+ *   try (BookColumnarFileReader reader = new BookColumnarFileReader(file, EnumSet.of(Column.CATEGORY, Column.COST))) {
+ *       for (RowGroup group = reader.next(); group != null; group = reader.next()) { ... }
+ *   }
+ */
+public class BookColumnarFileReader implements AutoCloseable {
+
+    private final InputStream in;
+    private final Set<Column> columns;
+    private final Map<Column, List<String>> dictionaries = new EnumMap<>(Column.class);
+    private final Inflater inflater = new Inflater(true);
+    private long position;
+
+    public BookColumnarFileReader(Path file, Set<Column> columns) throws IOException {
+        this.in = new BufferedInputStream(Files.newInputStream(file), 1024 * 1024);
+        this.columns = columns;
+        for (Column column : columns) {
+            if (column.isDictionary()) {
+                dictionaries.put(column, new ArrayList<>());
+            }
+        }
+
+        byte[] magic = readFully(BookColumnarFormat.MAGIC.length);
+        int version = in.read();
+        position++;
+        if (!Arrays.equals(magic, BookColumnarFormat.MAGIC) || version != BookColumnarFormat.VERSION) {
+            in.close();
+            throw new IOException(file + " is not a columnar book export (version " + BookColumnarFormat.VERSION + ")");
+        }
+    }
+
+    /**
+     * 讀取下一個 row group，檔案結束時回傳 null
+     */
+    public RowGroup next() throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return null;
+        }
+        position++;
+        int rows = (int) readVarint(first);
+
+        RowGroup group = new RowGroup(rows);
+        for (Column column : Column.values()) {
+            int rawLength = (int) readVarint();
+            int compressedLength = (int) readVarint();
+            if (!columns.contains(column)) {
+                in.skipNBytes(compressedLength);
+                position += compressedLength;
+                continue;
+            }
+            group.decode(column, new Source(inflate(readFully(compressedLength), rawLength)));
+        }
+        return group;
+    }
+
+    /**
+     * 字典欄位目前為止讀到的字典，索引即字典編號
+     */
+    public List<String> dictionary(Column column) {
+        return dictionaries.get(column);
+    }
+
+    /**
+     * 已讀取的位元組數
+     */
+    public long position() {
+        return position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+
+    private byte[] inflate(byte[] compressed, int rawLength) throws IOException {
+        byte[] raw = new byte[rawLength];
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            int length = 0;
+            while (length < rawLength) {
+                int inflated = inflater.inflate(raw, length, rawLength - length);
+                if (inflated == 0 && (inflater.needsInput() || inflater.finished())) {
+                    throw new EOFException("Truncated column block");
+                }
+                length += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt column block", e);
+        }
+        return raw;
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        byte[] bytes = in.readNBytes(length);
+        if (bytes.length < length) {
+            throw new EOFException("Truncated columnar export");
+        }
+        position += length;
+        return bytes;
+    }
+
+    private long readVarint() throws IOException {
+        int first = in.read();
+        position++;
+        return readVarint(first);
+    }
+
+    private long readVarint(int first) throws IOException {
+        long value = 0;
+        int b = first;
+        for (int shift = 0; ; shift += 7) {
+            if (b < 0) {
+                throw new EOFException("Truncated columnar export");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+            b = in.read();
+            position++;
+        }
+    }
+
+    /**
+     * 一個 row group 中已解碼的欄位
+     * 整數欄位 (ID / ISBN / YEAR) 與字典欄位的編號以 intValue 取得，字典欄位的字串以 stringValue 取得
+     */
+    public final class RowGroup {
+
+        private final int rows;
+        private final Map<Column, boolean[]> nulls = new EnumMap<>(Column.class);
+        private final Map<Column, int[]> ints = new EnumMap<>(Column.class);
+        private final Map<Column, double[]> doubles = new EnumMap<>(Column.class);
+        private final Map<Column, String[]> strings = new EnumMap<>(Column.class);
+        private final Map<Column, boolean[]> booleans = new EnumMap<>(Column.class);
+
+        private RowGroup(int rows) {
+            this.rows = rows;
+        }
+
+        public int rows() {
+            return rows;
+        }
+
+        public boolean isNull(Column column, int row) {
+            boolean[] columnNulls = nulls.get(column);
+            return columnNulls != null && columnNulls[row];
+        }
+
+        public int intValue(Column column, int row) {
+            return ints.get(column)[row];
+        }
+
+        public double doubleValue(Column column, int row) {
+            return doubles.get(column)[row];
+        }
+
+        public boolean booleanValue(Column column, int row) {
+            return booleans.get(column)[row];
+        }
+
+        public String stringValue(Column column, int row) {
+            if (isNull(column, row)) {
+                return null;
+            }
+            return column.isDictionary()
+                    ? dictionaries.get(column).get(ints.get(column)[row])
+                    : strings.get(column)[row];
+        }
+
+        /**
+         * 還原為 BookDTO，需要讀取全部欄位
+         */
+        public BookDTO book(int row) {
+            return new BookDTO(
+                    isNull(Column.ID, row) ? null : intValue(Column.ID, row),
+                    isNull(Column.ISBN, row) ? null : intValue(Column.ISBN, row),
+                    stringValue(Column.TITLE, row),
+                    stringValue(Column.AUTHOR, row),
+                    isNull(Column.YEAR, row) ? null : intValue(Column.YEAR, row),
+                    stringValue(Column.PUBLISHER, row),
+                    isNull(Column.COST, row) ? null : doubleValue(Column.COST, row),
+                    stringValue(Column.CATEGORY, row),
+                    isNull(Column.PROCESSED, row) ? null : booleanValue(Column.PROCESSED, row));
+        }
+
+        private void decode(Column column, Source source) {
+            boolean[] columnNulls = source.read() == 1 ? source.readBitmap(rows) : null;
+            if (columnNulls != null) {
+                nulls.put(column, columnNulls);
+            }
+
+            switch (column) {
+                case ID, ISBN, YEAR -> {
+                    int[] values = new int[rows];
+                    long previous = 0;
+                    for (int i = 0; i < rows; i++) {
+                        if (columnNulls == null || !columnNulls[i]) {
+                            previous += source.readZigzag();
+                            values[i] = (int) previous;
+                        }
+                    }
+                    ints.put(column, values);
+                }
+                case TITLE -> {
+                    String[] values = new String[rows];
+                    for (int i = 0; i < rows; i++) {
+                        if (columnNulls == null || !columnNulls[i]) {
+                            values[i] = source.readString();
+                        }
+                    }
+                    strings.put(column, values);
+                }
+                case AUTHOR, PUBLISHER, CATEGORY -> {
+                    List<String> dictionary = dictionaries.get(column);
+                    long added = source.readVarint();
+                    for (long i = 0; i < added; i++) {
+                        dictionary.add(source.readString());
+                    }
+                    int[] codes = new int[rows];
+                    for (int i = 0; i < rows; i++) {
+                        if (columnNulls == null || !columnNulls[i]) {
+                            codes[i] = (int) source.readVarint();
+                        }
+                    }
+                    ints.put(column, codes);
+                }
+                case COST -> {
+                    double[] values = new double[rows];
+                    for (int i = 0; i < rows; i++) {
+                        if (columnNulls == null || !columnNulls[i]) {
+                            values[i] = Double.longBitsToDouble(source.readLong());
+                        }
+                    }
+                    doubles.put(column, values);
+                }
+                case PROCESSED -> booleans.put(column, source.readBitmap(rows));
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.demo.batch.reader;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.sql.DataSource;
@@ -58,7 +59,7 @@ public class BookItemReaders {
 
     /**
      * 方法2: 使用 RepositoryItemReader 配合自定義查詢方法
-     * 查找2020年後出版的書籍
+     * 查找2020年後出版的書籍（Repository 方法以 Slice 分頁回傳）
      */
     public RepositoryItemReader<Book> createRepositoryItemReaderWithCustomQuery() {
         return new RepositoryItemReaderBuilder<Book>()
@@ -67,10 +68,20 @@ public class BookItemReaders {
                 .methodName("findBooksAfterYear") // 自定義查詢方法
                 .arguments(2020) // 方法參數
                 .pageSize(5)
-                .sorts(Map.of("year", Sort.Direction.ASC, "id", Sort.Direction.ASC))
+                .sorts(yearThenIdSort())
                 .build();
     }
 
+    /**
+     * Map.of 不保證順序，排序欄位需以 LinkedHashMap 固定為 year, id
+     */
+    private static Map<String, Sort.Direction> yearThenIdSort() {
+        Map<String, Sort.Direction> sorts = new LinkedHashMap<>();
+        sorts.put("year", Sort.Direction.ASC);
+        sorts.put("id", Sort.Direction.ASC);
+        return sorts;
+    }
+
     /**
      * 方法3: 使用 JpaPagingItemReader
      * 適用於: 複雜的 JPQL 查詢，需要更多控制
@@ -160,4 +171,55 @@ public class BookItemReaders {
                 .fetchSize(50)
                 .build();
     }
+
+    /**
+     * 方法7: 使用 JdbcCursorItemReader 讀取指定 ID 範圍
+     * 適用於: 分區步驟，每個分區只讀取自己的 ID 區間
+     * 以 id 排序，確保重啟時游標跳過的筆數與上次一致
+     */
+    public JdbcCursorItemReader<Book> createJdbcCursorItemReaderForRange(long minId, long maxId) {
+        return new JdbcCursorItemReaderBuilder<Book>()
+                .name("bookJdbcCursorItemReaderPartition")
+                .dataSource(dataSource)
+                .sql("""
+                    SELECT id, isbn, title, author, year, publisher, cost
+                    FROM book
+                    WHERE cost > ?
+                    AND id BETWEEN ? AND ?
+                    ORDER BY id
+                    """)
+                .preparedStatementSetter(ps -> {
+                    ps.setDouble(1, 30.0);
+                    ps.setLong(2, minId);
+                    ps.setLong(3, maxId);
+                })
+                .rowMapper(new BeanPropertyRowMapper<>(Book.class))
+                .fetchSize(1000)
+                .build();
+    }
+
+    /**
+     * 方法8: 使用 Keyset 分頁讀取全部書籍
+     * 適用於: 大表的 Repository 讀取，取代 findAll 的 OFFSET 分頁
+     * 優點: 每頁成本固定，重啟時從最後的 id 繼續
+     */
+    public BookKeysetItemReader createKeysetItemReader() {
+        return new BookKeysetItemReader(
+                "bookKeysetItemReader",
+                (lastYear, lastId, limit) -> bookRepository.findNextPageById(lastId, limit),
+                100,
+                null);
+    }
+
+    /**
+     * 方法9: 使用 (year, id) Keyset 分頁讀取指定年份之後出版的書籍
+     * 取代 findBooksAfterYear 的 OFFSET 分頁
+     */
+    public BookKeysetItemReader createKeysetItemReaderAfterYear(int minYear) {
+        return new BookKeysetItemReader(
+                "bookKeysetItemReaderAfterYear",
+                (lastYear, lastId, limit) -> bookRepository.findNextPageByYearAndId(minYear, lastYear, lastId, limit),
+                100,
+                minYear);
+    }
 }
@@ -0,0 +1,125 @@
+package com.example.demo.batch.reader;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import com.example.demo.batch.entity.Book;
+
+/**
+ * Keyset (seek) 分頁讀取器
+ * 功能：
+ * 1. 記住最後一筆已讀取書籍的 (year, id)，以 WHERE (year, id) > (?, ?) 取得下一頁
+ * 2. 每頁成本與頁數無關，不會像 OFFSET 分頁在大表上越讀越慢
+ * 3. 最後位置保存在 ExecutionContext，重啟時直接從該位置繼續，不需重新讀取前面的資料
+ *
+ * 非執行緒安全，與其他 Spring Batch 讀取器相同，每個步驟使用一個實例
+ */
+public class BookKeysetItemReader extends AbstractItemCountingItemStreamItemReader<Book> {
+
+    private static final String LAST_YEAR_KEY = "last.year";
+    private static final String LAST_ID_KEY = "last.id";
+
+    /**
+     * 依上一頁最後位置查詢下一頁，lastYear / lastId 為起點（不含）
+     */
+    @FunctionalInterface
+    public interface PageQuery {
+        List<Book> nextPage(Integer lastYear, Integer lastId, int limit);
+    }
+
+    private final PageQuery pageQuery;
+    private final int pageSize;
+    private final Integer initialYear;
+    private final boolean trackYear;
+
+    private Iterator<Book> page;
+    private Integer lastYear;
+    private Integer lastId;
+    private boolean exhausted;
+
+    /**
+     * @param pageQuery   下一頁查詢
+     * @param pageSize    每頁筆數
+     * @param initialYear 起始年份；為 null 時只以 id 作為 keyset
+     */
+    public BookKeysetItemReader(String name, PageQuery pageQuery, int pageSize, Integer initialYear) {
+        setName(name);
+        this.pageQuery = pageQuery;
+        this.pageSize = pageSize;
+        this.initialYear = initialYear;
+        this.trackYear = initialYear != null;
+    }
+
+    @Override
+    protected void doOpen() {
+        page = null;
+        exhausted = false;
+    }
+
+    /**
+     * 先還原 keyset 位置，再交給父類別還原讀取筆數
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        lastYear = initialYear;
+        lastId = Integer.MIN_VALUE;
+
+        if (executionContext.containsKey(getExecutionContextKey(LAST_ID_KEY))) {
+            lastId = executionContext.getInt(getExecutionContextKey(LAST_ID_KEY));
+            if (trackYear) {
+                lastYear = executionContext.getInt(getExecutionContextKey(LAST_YEAR_KEY));
+            }
+        }
+        super.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState() && lastId != Integer.MIN_VALUE) {
+            executionContext.putInt(getExecutionContextKey(LAST_ID_KEY), lastId);
+            if (trackYear) {
+                executionContext.putInt(getExecutionContextKey(LAST_YEAR_KEY), lastYear);
+            }
+        }
+    }
+
+    @Override
+    protected Book doRead() {
+        if (exhausted) {
+            return null;
+        }
+
+        if (page == null || !page.hasNext()) {
+            List<Book> books = pageQuery.nextPage(lastYear, lastId, pageSize);
+            if (books.isEmpty()) {
+                exhausted = true;
+                return null;
+            }
+            page = books.iterator();
+        }
+
+        Book book = page.next();
+        lastId = book.getId();
+        if (trackYear) {
+            lastYear = book.getYear();
+        }
+        return book;
+    }
+
+    /**
+     * 重啟時已由 keyset 位置定位，不需要逐筆跳過
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) {
+    }
+
+    @Override
+    protected void doClose() {
+        page = null;
+    }
+}
@@ -3,9 +3,11 @@ package com.example.demo.batch.reader;
 import java.lang.reflect.RecordComponent;
 import java.util.Arrays;
 
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.batch.dto.HealthInsuranceDTO;
@@ -13,10 +15,38 @@ import com.example.demo.batch.dto.HealthInsuranceDTO;
 @Component
 public class HealthInsuranceItemReader {
 
+    /**
+     * 讀取器模式：記憶體映射讀取
+     */
+    public static final String MAPPED_MODE = "mapped";
+
+    /**
+     * 記憶體映射的視窗大小 (64MB)
+     */
+    private static final int MAPPING_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    public static final String DEFAULT_RESOURCE = "UpdateHealthInsurancePremiumFromNH.csv";
+
+    /**
+     * 依模式建立讀取器，mapped 為記憶體映射讀取，其餘為 FlatFileItemReader
+     */
+    public ItemStreamReader<HealthInsuranceDTO> createReader(String mode) {
+        return MAPPED_MODE.equalsIgnoreCase(mode)
+                ? createMappedReader(new ClassPathResource(DEFAULT_RESOURCE))
+                : createReader();
+    }
+
     public FlatFileItemReader<HealthInsuranceDTO> createReader() {
+        return createReader(new ClassPathResource(DEFAULT_RESOURCE));
+    }
+
+    /**
+     * 讀取指定的健保檔案，格式與 UpdateHealthInsurancePremiumFromNH.csv 相同
+     */
+    public FlatFileItemReader<HealthInsuranceDTO> createReader(Resource resource) {
         return new FlatFileItemReaderBuilder<HealthInsuranceDTO>()
                 .name("healthInsuranceItemReader")
-                .resource(new ClassPathResource("UpdateHealthInsurancePremiumFromNH.csv"))
+                .resource(resource)
                 .delimited()
                 .delimiter(",")
                 .quoteCharacter('"') // 指定引號字符，因為您的數據用引號包圍
@@ -27,4 +57,23 @@ public class HealthInsuranceItemReader {
                 .targetType(HealthInsuranceDTO.class)
                 .build();
     }
+
+    /**
+     * 以記憶體映射讀取指定的健保檔案
+     * 適用於: 數 GB 的健保檔案，逐欄位直接從位元組建立 DTO，重啟時依位元組位置繼續
+     * 限制: 檔案必須位於檔案系統，無法讀取打包在 jar 內的 classpath 資源
+     */
+    public MappedHealthInsuranceItemReader createMappedReader(Resource resource) {
+        return new MappedHealthInsuranceItemReader(
+                "healthInsuranceMappedItemReader", resource, MAPPING_WINDOW_SIZE, 1);
+    }
+
+    /**
+     * 以記憶體映射讀取健保檔案的一段位元組範圍（分區步驟使用）
+     * startOffset 必須是資料列開頭，為 0 時跳過標題行
+     */
+    public MappedHealthInsuranceItemReader createMappedReader(Resource resource, long startOffset, long endOffset) {
+        return new MappedHealthInsuranceItemReader(
+                "healthInsuranceMappedItemReader", resource, MAPPING_WINDOW_SIZE, 1, startOffset, endOffset);
+    }
 }
@@ -0,0 +1,313 @@
+package com.example.demo.batch.reader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.Resource;
+
+import com.example.demo.batch.dto.HealthInsuranceDTO;
+
+/**
+ * 以記憶體映射讀取健保 CSV 檔案
+ * 功能：
+ * 1. 以固定大小的視窗映射檔案，可讀取超過 2GB 的檔案，跨視窗的資料列會重新映射
+ * 2. 直接在映射的位元組上切分欄位（支援雙引號與 "" 跳脫），每個欄位只建立一次 String
+ * 3. 不使用反射，直接建立 HealthInsuranceDTO
+ * 4. 下一筆資料列的位元組位置保存在 ExecutionContext，重啟時直接從該位置繼續
+ * 5. 可只讀取 [startOffset, endOffset) 範圍內開始的資料列，供大檔案依位元組範圍分區
+ *
+ * 欄位順序與 FlatFileItemReader 版本相同，欄位內容不做 trim
+ * 非執行緒安全，與其他 Spring Batch 讀取器相同，每個步驟使用一個實例
+ */
+public class MappedHealthInsuranceItemReader extends AbstractItemCountingItemStreamItemReader<HealthInsuranceDTO> {
+
+    private static final String BYTE_OFFSET_KEY = "byte.offset";
+    private static final int FIELD_COUNT = 7;
+
+    private static final byte DELIMITER = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    /**
+     * 目前視窗不足以容納整筆資料列，需要重新映射
+     */
+    private static final int NEED_MORE = -1;
+
+    private final Resource resource;
+    private final int windowSize;
+    private final int linesToSkip;
+    private final long startOffset;
+    private final long endOffset;
+
+    private FileChannel channel;
+    private long fileSize;
+    private long readLimit;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long position;
+
+    private final int[] fieldStart = new int[FIELD_COUNT];
+    private final int[] fieldEnd = new int[FIELD_COUNT];
+    private final boolean[] fieldEscaped = new boolean[FIELD_COUNT];
+    private byte[] scratch = new byte[256];
+
+    /**
+     * @param resource    CSV 檔案，必須位於檔案系統（可取得 File）
+     * @param windowSize  每次映射的位元組數，需大於最長的資料列
+     * @param linesToSkip 從檔案開頭跳過的行數（標題行）
+     */
+    public MappedHealthInsuranceItemReader(String name, Resource resource, int windowSize, int linesToSkip) {
+        this(name, resource, windowSize, linesToSkip, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * 只讀取開始位置落在 [startOffset, endOffset) 的資料列
+     * startOffset 必須是資料列開頭；為 0 時才會跳過標題行
+     */
+    public MappedHealthInsuranceItemReader(String name, Resource resource, int windowSize, int linesToSkip,
+                                           long startOffset, long endOffset) {
+        setName(name);
+        this.resource = resource;
+        this.windowSize = windowSize;
+        this.linesToSkip = linesToSkip;
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+    }
+
+    /**
+     * 先還原位元組位置，再交給父類別還原讀取筆數
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        position = startOffset;
+        if (executionContext.containsKey(getExecutionContextKey(BYTE_OFFSET_KEY))) {
+            position = executionContext.getLong(getExecutionContextKey(BYTE_OFFSET_KEY));
+        }
+        super.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState()) {
+            executionContext.putLong(getExecutionContextKey(BYTE_OFFSET_KEY), position);
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        channel = FileChannel.open(resource.getFile().toPath(), StandardOpenOption.READ);
+        fileSize = channel.size();
+        readLimit = Math.min(endOffset, fileSize);
+        window = null;
+
+        if (position == 0) {
+            for (int i = 0; i < linesToSkip && position < fileSize; i++) {
+                parseRecord();
+            }
+        }
+    }
+
+    @Override
+    protected HealthInsuranceDTO doRead() throws Exception {
+        while (position < readLimit) {
+            long recordStart = position;
+            int fields = parseRecord();
+            if (fields == 0) {
+                continue; // 空白行
+            }
+            if (fields != FIELD_COUNT) {
+                throw new FlatFileParseException("Incorrect number of fields: expected " + FIELD_COUNT
+                        + ", actual " + fields + " at byte offset " + recordStart,
+                        rawRecord(recordStart), getCurrentItemCount());
+            }
+            return new HealthInsuranceDTO(
+                    field(0), field(1), field(2), field(3), field(4), field(5), field(6));
+        }
+        return null;
+    }
+
+    /**
+     * 重啟時已由位元組位置定位，不需要逐筆跳過
+     */
+    @Override
+    protected void jumpToItem(int itemIndex) {
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        window = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * 切分 position 開始的資料列，並將 position 移到下一筆資料列開頭
+     * 資料列超出目前視窗時，從資料列開頭重新映射後再切分一次
+     *
+     * @return 欄位數，空白行回傳 0
+     */
+    private int parseRecord() throws IOException {
+        ensureMapped(position);
+        int fields = tokenize((int) (position - windowStart));
+        if (fields == NEED_MORE) {
+            map(position);
+            fields = tokenize(0);
+            if (fields == NEED_MORE) {
+                throw new ItemStreamException("Record at byte offset " + position
+                        + " is larger than the mapping window (" + windowSize + " bytes)");
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * 從視窗內的 index 開始切分一筆資料列
+     * 欄位位置記錄於 fieldStart / fieldEnd（相對於視窗），成功時更新 position
+     */
+    private int tokenize(int index) {
+        int limit = window.limit();
+        boolean endOfFile = windowStart + limit >= fileSize;
+        int i = index;
+        int field = 0;
+
+        while (true) {
+            int start;
+            int end;
+            boolean escaped = false;
+
+            if (i < limit && window.get(i) == QUOTE) {
+                start = ++i;
+                while (true) {
+                    if (i >= limit) {
+                        if (!endOfFile) {
+                            return NEED_MORE;
+                        }
+                        end = i; // 未關閉的引號，讀到檔案結尾
+                        break;
+                    }
+                    if (window.get(i) == QUOTE) {
+                        if (i + 1 < limit && window.get(i + 1) == QUOTE) {
+                            escaped = true;
+                            i += 2;
+                            continue;
+                        }
+                        if (i + 1 >= limit && !endOfFile) {
+                            return NEED_MORE;
+                        }
+                        end = i++;
+                        break;
+                    }
+                    i++;
+                }
+                // 忽略結尾引號與分隔符號之間的字元
+                while (i < limit && !isFieldTerminator(window.get(i))) {
+                    i++;
+                }
+            } else {
+                start = i;
+                while (i < limit && !isFieldTerminator(window.get(i))) {
+                    i++;
+                }
+                end = i;
+            }
+
+            if (i >= limit && !endOfFile) {
+                return NEED_MORE;
+            }
+
+            if (field < FIELD_COUNT) {
+                fieldStart[field] = start;
+                fieldEnd[field] = end;
+                fieldEscaped[field] = escaped;
+            }
+            field++;
+
+            if (i < limit && window.get(i) == DELIMITER) {
+                i++;
+                continue;
+            }
+
+            // 資料列結尾：CR、LF、CRLF 或檔案結尾
+            if (i < limit && window.get(i) == CR) {
+                i++;
+                if (i >= limit && !endOfFile) {
+                    return NEED_MORE;
+                }
+            }
+            if (i < limit && window.get(i) == LF) {
+                i++;
+            }
+            position = windowStart + i;
+
+            boolean blank = field == 1 && fieldStart[0] == fieldEnd[0] && fieldStart[0] == index;
+            return blank ? 0 : field;
+        }
+    }
+
+    private static boolean isFieldTerminator(byte b) {
+        return b == DELIMITER || b == LF || b == CR;
+    }
+
+    /**
+     * 以 UTF-8 建立欄位字串，含 "" 跳脫時合併為單一引號
+     */
+    private String field(int index) {
+        int start = fieldStart[index];
+        int length = fieldEnd[index] - start;
+        if (length == 0) {
+            return "";
+        }
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+
+        if (!fieldEscaped[index]) {
+            window.get(start, scratch, 0, length);
+            return new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int size = 0;
+        for (int i = start; i < start + length; i++) {
+            byte b = window.get(i);
+            scratch[size++] = b;
+            if (b == QUOTE) {
+                i++; // 跳過跳脫用的第二個引號
+            }
+        }
+        return new String(scratch, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 錯誤訊息用：取出資料列原始內容
+     */
+    private String rawRecord(long recordStart) {
+        int start = (int) (recordStart - windowStart);
+        int end = (int) (position - windowStart);
+        byte[] bytes = new byte[end - start];
+        window.get(start, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8).stripTrailing();
+    }
+
+    private void ensureMapped(long offset) throws IOException {
+        if (window == null || offset < windowStart || offset >= windowStart + window.limit()) {
+            map(offset);
+        }
+    }
+
+    private void map(long offset) throws IOException {
+        long size = Math.min(windowSize, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+}
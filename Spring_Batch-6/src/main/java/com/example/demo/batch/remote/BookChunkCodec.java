@@ -0,0 +1,44 @@
+package com.example.demo.batch.remote;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.Socket;
+
+/**
+ * TCP 傳輸的 ChunkRequest / ChunkResponse 編碼 (Java 序列化)
+ * 讀取端以 ObjectInputFilter 限制只能還原 Spring Batch 與 JDK 類別及 Book，
+ * 連線上收到其他類別時直接拒絕，不會執行任意類別的反序列化
+ */
+final class BookChunkCodec {
+
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter(
+            "maxdepth=32;java.**;org.springframework.batch.**;com.example.demo.batch.entity.Book;!*");
+
+    private BookChunkCodec() {
+    }
+
+    static ObjectOutputStream output(Socket socket) throws IOException {
+        ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream(), 64 * 1024));
+        out.flush();
+        return out;
+    }
+
+    static ObjectInputStream input(Socket socket) throws IOException {
+        ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream(), 64 * 1024));
+        in.setObjectInputFilter(FILTER);
+        return in;
+    }
+
+    /**
+     * 寫入一個物件並送出；reset 避免串流持續保留已送出物件的參照
+     */
+    static void write(ObjectOutputStream out, Object value) throws IOException {
+        out.writeObject(value);
+        out.reset();
+        out.flush();
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.demo.batch.remote;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.integration.chunk.AsynchronousFailureException;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import com.example.demo.batch.entity.Book;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 遠端 chunk 管理端寫入器
+ * 功能：
+ * 1. 將讀取到的 Book chunk 包成 ChunkRequest 送到 requests 通道，由工作端執行 BookItemProcessor 與寫入器
+ * 2. 未確認的 chunk 超過 throttleLimit 時等待回覆，讀取速度受工作端處理速度限制
+ * 3. 工作端回覆失敗或在 replyTimeout 內沒有任何回覆時，步驟失敗
+ *
+ * 重啟：未確認 chunk 的 id 範圍 (讀取器依 id 排序) 在 update 時記錄於 ExecutionContext，
+ * 與讀取位置在同一交易中提交；重啟時依範圍重新查詢並重送，不會遺失已送出但工作端未完成的 chunk
+ * 提交後才收到的確認在重啟時會再送一次，工作端寫入需可重複執行 (at-least-once)
+ *
+ * 步驟的 writeCount 為送到工作端的筆數，工作端實際寫入與過濾的筆數記錄在 ExecutionContext
+ *
+ * 注意：狀態屬於單一 StepExecution，請以 Step Scope 註冊
+ */
+@Log4j2
+public class BookChunkManagerWriter implements ItemStreamWriter<Book>, StepExecutionListener {
+
+    private static final String KEY_PREFIX = "bookRemoteChunk.";
+    private static final String PENDING_KEY = KEY_PREFIX + "pending";
+    private static final String ACKNOWLEDGED_KEY = KEY_PREFIX + "acknowledged";
+    private static final String WRITTEN_KEY = KEY_PREFIX + "written";
+    private static final String FILTERED_KEY = KEY_PREFIX + "filtered";
+
+    /**
+     * 依 id 範圍（含兩端）重新查詢書籍，重啟時重送未確認的 chunk 使用
+     */
+    @FunctionalInterface
+    public interface RangeQuery {
+        List<Book> findRange(int firstId, int lastId);
+    }
+
+    private record IdRange(int firstId, int lastId) {
+    }
+
+    private final StepExecution stepExecution;
+    private final MessageChannel requests;
+    private final BookChunkReplies replies;
+    private final RangeQuery rangeQuery;
+    private final int throttleLimit;
+    private final long replyTimeoutMillis;
+
+    private final Map<Integer, IdRange> pending = new LinkedHashMap<>();
+    private BlockingQueue<ChunkResponse> responses;
+    private StepExecution remoteStepExecution;
+    private int sequence;
+    private long acknowledged;
+    private long written;
+    private long filtered;
+
+    public BookChunkManagerWriter(StepExecution stepExecution, MessageChannel requests, BookChunkReplies replies,
+                                  RangeQuery rangeQuery, int throttleLimit, long replyTimeoutMillis) {
+        this.stepExecution = stepExecution;
+        this.requests = requests;
+        this.replies = replies;
+        this.rangeQuery = rangeQuery;
+        this.throttleLimit = throttleLimit;
+        this.replyTimeoutMillis = replyTimeoutMillis;
+    }
+
+    @Override
+    public void write(Chunk<? extends Book> chunk) throws Exception {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        drainResponses();
+        while (pending.size() >= throttleLimit) {
+            awaitResponse();
+        }
+        send(chunk.getItems());
+    }
+
+    /**
+     * 註冊回覆佇列；重啟時重送上次提交時仍未確認的 chunk
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        pending.clear();
+        sequence = 0;
+        responses = replies.register(stepExecution.getId());
+
+        // 只帶作業識別資訊的 StepExecution，避免每個請求序列化整個作業執行狀態
+        JobExecution jobExecution = new JobExecution(stepExecution.getJobExecution().getJobInstance(),
+                stepExecution.getJobExecutionId(), new JobParameters());
+        remoteStepExecution = new StepExecution(stepExecution.getStepName(), jobExecution, stepExecution.getId());
+
+        acknowledged = executionContext.getLong(ACKNOWLEDGED_KEY, 0L);
+        written = executionContext.getLong(WRITTEN_KEY, 0L);
+        filtered = executionContext.getLong(FILTERED_KEY, 0L);
+
+        List<IdRange> unacknowledged = decode(executionContext.getString(PENDING_KEY, ""));
+        if (unacknowledged.isEmpty()) {
+            return;
+        }
+        log.info("Resending {} unacknowledged chunks of step {}", unacknowledged.size(), stepExecution.getStepName());
+        for (IdRange range : unacknowledged) {
+            List<Book> books = rangeQuery.findRange(range.firstId(), range.lastId());
+            if (!books.isEmpty()) {
+                send(books);
+            }
+        }
+    }
+
+    /**
+     * 在 chunk 提交前記錄仍未確認的範圍，與讀取位置在同一交易中
+     */
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        drainResponses();
+        saveState(executionContext);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        replies.unregister(stepExecution.getId());
+    }
+
+    /**
+     * 讀取完成後等待全部 chunk 確認；失敗時保留未確認的範圍供重啟重送
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+            return null;
+        }
+        try {
+            while (!pending.isEmpty()) {
+                awaitResponse();
+            }
+            log.info("All {} remote chunks of step {} acknowledged: {} written, {} filtered",
+                    acknowledged, stepExecution.getStepName(), written, filtered);
+            return null;
+        } catch (AsynchronousFailureException e) {
+            stepExecution.setStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(e);
+            return ExitStatus.FAILED.addExitDescription(e.getMessage());
+        } finally {
+            saveState(stepExecution.getExecutionContext());
+        }
+    }
+
+    private void send(List<? extends Book> books) {
+        int chunkSequence = ++sequence;
+        pending.put(chunkSequence, new IdRange(books.get(0).getId(), books.get(books.size() - 1).getId()));
+        ChunkRequest<Book> request = new ChunkRequest<>(chunkSequence, new Chunk<>(new ArrayList<>(books)),
+                stepExecution.getId(), new StepContribution(remoteStepExecution));
+        requests.send(MessageBuilder.withPayload(request).build());
+    }
+
+    private void drainResponses() {
+        for (ChunkResponse response = responses.poll(); response != null; response = responses.poll()) {
+            acknowledge(response);
+        }
+    }
+
+    private void awaitResponse() {
+        ChunkResponse response;
+        try {
+            response = responses.poll(replyTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AsynchronousFailureException("Interrupted while waiting for remote chunk replies", e);
+        }
+        if (response == null) {
+            throw new AsynchronousFailureException("No reply from remote chunk workers within " + replyTimeoutMillis
+                    + " ms, " + pending.size() + " chunks unacknowledged");
+        }
+        acknowledge(response);
+    }
+
+    private void acknowledge(ChunkResponse response) {
+        if (!pending.containsKey(response.getSequence())) {
+            log.debug("Ignoring duplicate reply {}", response);
+            return;
+        }
+        if (!response.isSuccessful()) {
+            throw new AsynchronousFailureException("Remote chunk " + response.getSequence() + " failed: "
+                    + response.getMessage());
+        }
+        pending.remove(response.getSequence());
+        acknowledged++;
+        written += response.getStepContribution().getWriteCount();
+        filtered += response.getStepContribution().getFilterCount();
+    }
+
+    private void saveState(ExecutionContext executionContext) {
+        executionContext.putString(PENDING_KEY, encode(pending.values()));
+        executionContext.putLong(ACKNOWLEDGED_KEY, acknowledged);
+        executionContext.putLong(WRITTEN_KEY, written);
+        executionContext.putLong(FILTERED_KEY, filtered);
+    }
+
+    private static String encode(Iterable<IdRange> ranges) {
+        StringBuilder encoded = new StringBuilder();
+        for (IdRange range : ranges) {
+            if (!encoded.isEmpty()) {
+                encoded.append(',');
+            }
+            encoded.append(range.firstId()).append(':').append(range.lastId());
+        }
+        return encoded.toString();
+    }
+
+    private static List<IdRange> decode(String encoded) {
+        List<IdRange> ranges = new ArrayList<>();
+        if (encoded.isEmpty()) {
+            return ranges;
+        }
+        for (String range : encoded.split(",")) {
+            int separator = range.indexOf(':');
+            ranges.add(new IdRange(Integer.parseInt(range.substring(0, separator)),
+                    Integer.parseInt(range.substring(separator + 1))));
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.demo.batch.remote;
+
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.springframework.batch.integration.chunk.ChunkResponse;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 遠端 chunk 回覆的分派
+ * 回覆依 ChunkResponse 的 jobId 欄位（管理端放入的 StepExecution id）送到對應步驟的佇列，
+ * 同時執行的多個管理步驟不會收到彼此的回覆
+ *
+ * 找不到對應佇列的回覆（前一次中斷的執行遺留）直接丟棄，由重啟時重送的 chunk 取代
+ */
+@Log4j2
+public class BookChunkReplies {
+
+    private final Map<Long, BlockingQueue<ChunkResponse>> queues = new ConcurrentHashMap<>();
+
+    public BlockingQueue<ChunkResponse> register(long stepExecutionId) {
+        return queues.computeIfAbsent(stepExecutionId, id -> new LinkedBlockingQueue<>());
+    }
+
+    public void unregister(long stepExecutionId) {
+        queues.remove(stepExecutionId);
+    }
+
+    public void deliver(ChunkResponse response) {
+        BlockingQueue<ChunkResponse> queue = queues.get(response.getJobId());
+        if (queue == null) {
+            log.debug("Dropping reply for inactive step execution {}: {}", response.getJobId(), response);
+            return;
+        }
+        queue.add(response);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.batch.remote;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 管理端的 TCP 請求通道
+ * 功能：
+ * 1. ChunkRequest 依序輪流送到各工作端 (BookChunkWorkerServer)，每個工作端一條長連線，第一次送出時建立
+ * 2. 每條連線一條讀取執行緒，收到的 ChunkResponse 交給 BookChunkReplies 分派
+ * 3. 連線失敗時改送下一個工作端；全部失敗時拋出 MessageDeliveryException
+ *
+ * 連線中斷時已送出的 chunk 不會有回覆，由管理端的回覆逾時使步驟失敗，重啟時重送
+ */
+@Log4j2
+public class BookChunkTcpChannel implements MessageChannel, DisposableBean {
+
+    private final List<InetSocketAddress> workers;
+    private final BookChunkReplies replies;
+    private final int connectTimeoutMillis;
+    private final Connection[] connections;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public BookChunkTcpChannel(List<InetSocketAddress> workers, BookChunkReplies replies, int connectTimeoutMillis) {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("At least one remote chunk worker address is required");
+        }
+        this.workers = List.copyOf(workers);
+        this.replies = replies;
+        this.connectTimeoutMillis = connectTimeoutMillis;
+        this.connections = new Connection[workers.size()];
+    }
+
+    /**
+     * 解析 host:port,host:port 格式的工作端清單
+     */
+    public static List<InetSocketAddress> parseAddresses(String addresses) {
+        List<InetSocketAddress> parsed = new ArrayList<>();
+        for (String address : addresses.split(",")) {
+            String trimmed = address.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.lastIndexOf(':');
+            parsed.add(InetSocketAddress.createUnresolved(trimmed.substring(0, separator),
+                    Integer.parseInt(trimmed.substring(separator + 1))));
+        }
+        return parsed;
+    }
+
+    @Override
+    public boolean send(Message<?> message, long timeout) {
+        for (int attempt = 0; attempt < connections.length; attempt++) {
+            int index = Math.floorMod(next.getAndIncrement(), connections.length);
+            try {
+                connection(index).send(message.getPayload());
+                return true;
+            } catch (IOException e) {
+                log.warn("Remote chunk worker {} unavailable: {}", describe(workers.get(index)), e.getMessage());
+                disconnect(index);
+            }
+        }
+        throw new MessageDeliveryException(message, "No remote chunk worker reachable: "
+                + workers.stream().map(BookChunkTcpChannel::describe).toList());
+    }
+
+    @Override
+    public void destroy() {
+        for (int index = 0; index < connections.length; index++) {
+            disconnect(index);
+        }
+    }
+
+    private synchronized Connection connection(int index) throws IOException {
+        Connection connection = connections[index];
+        if (connection == null || connection.closed) {
+            InetSocketAddress address = workers.get(index);
+            Socket socket = new Socket();
+            try {
+                socket.setTcpNoDelay(true);
+                socket.connect(new InetSocketAddress(address.getHostString(), address.getPort()), connectTimeoutMillis);
+                connection = new Connection(socket);
+            } catch (IOException e) {
+                socket.close();
+                throw e;
+            }
+            connections[index] = connection;
+            log.info("Connected to remote chunk worker {}", describe(address));
+        }
+        return connection;
+    }
+
+    private static String describe(InetSocketAddress address) {
+        return address.getHostString() + ":" + address.getPort();
+    }
+
+    private synchronized void disconnect(int index) {
+        if (connections[index] != null) {
+            connections[index].close();
+            connections[index] = null;
+        }
+    }
+
+    private final class Connection {
+
+        private final Socket socket;
+        private final ObjectOutputStream out;
+        private volatile boolean closed;
+
+        Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.out = BookChunkCodec.output(socket);
+            Thread reader = new Thread(this::readReplies, "book-chunk-reply-" + socket.getPort());
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        synchronized void send(Object payload) throws IOException {
+            BookChunkCodec.write(out, payload);
+        }
+
+        private void readReplies() {
+            try (ObjectInputStream in = BookChunkCodec.input(socket)) {
+                while (!closed) {
+                    replies.deliver((ChunkResponse) in.readObject());
+                }
+            } catch (IOException | ClassNotFoundException | ClassCastException e) {
+                if (!closed) {
+                    log.warn("Lost connection to remote chunk worker {}: {}", socket.getRemoteSocketAddress(), e.toString());
+                }
+            } finally {
+                close();
+            }
+        }
+
+        void close() {
+            closed = true;
+            try {
+                socket.close();
+            } catch (IOException e) {
+                log.debug("Failed to close worker connection", e);
+            }
+        }
+    }
+}
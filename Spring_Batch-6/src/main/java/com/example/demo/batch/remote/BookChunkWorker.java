@@ -0,0 +1,40 @@
+package com.example.demo.batch.remote;
+
+import org.springframework.batch.core.step.item.SimpleChunkProcessor;
+import org.springframework.batch.integration.chunk.ChunkProcessorChunkHandler;
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.entity.Book;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 遠端 chunk 工作端的處理邏輯
+ * 以 ChunkProcessorChunkHandler 對收到的 chunk 執行處理器與寫入器，回傳含寫入 / 過濾筆數的 ChunkResponse
+ * 處理失敗時回傳失敗的 ChunkResponse，由管理端決定步驟失敗
+ *
+ * 本地佇列與 TCP 兩種傳輸共用；處理器與寫入器需為無狀態，可由多條執行緒同時呼叫
+ */
+@Log4j2
+public class BookChunkWorker {
+
+    private final ChunkProcessorChunkHandler<Book> handler = new ChunkProcessorChunkHandler<>();
+
+    public BookChunkWorker(ItemProcessor<Book, BookDTO> processor, ItemWriter<BookDTO> writer) {
+        handler.setChunkProcessor(new SimpleChunkProcessor<>(processor, writer));
+    }
+
+    public ChunkResponse handle(ChunkRequest<Book> request) {
+        try {
+            return handler.handleChunk(request);
+        } catch (Exception e) {
+            log.error("Remote chunk {} failed: {}", request.getSequence(), e.getMessage(), e);
+            return new ChunkResponse(false, request.getSequence(), request.getJobId(), request.getStepContribution(),
+                    e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.batch.remote;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.batch.integration.chunk.ChunkRequest;
+import org.springframework.batch.integration.chunk.ChunkResponse;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskExecutor;
+
+import com.example.demo.batch.entity.Book;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 遠端 chunk 工作端的 TCP 服務
+ * 功能：
+ * 1. 接受管理端 (BookChunkTcpChannel) 的連線，每條連線一條讀取執行緒
+ * 2. 收到的 ChunkRequest 交給 taskExecutor 以 BookChunkWorker 處理，同一連線上的 chunk 可同時處理
+ * 3. 處理結果 (ChunkResponse) 由原連線送回；連線中斷時未送出的結果丟棄，由管理端重送
+ *
+ * 預設只監聽 127.0.0.1；跨節點部署時設定 bind-address，並以防火牆限制只允許管理端連線
+ */
+@Log4j2
+public class BookChunkWorkerServer implements SmartLifecycle {
+
+    private final String bindAddress;
+    private final int port;
+    private final BookChunkWorker worker;
+    private final TaskExecutor taskExecutor;
+    private final Set<Socket> clients = ConcurrentHashMap.newKeySet();
+
+    private volatile ServerSocket serverSocket;
+
+    public BookChunkWorkerServer(String bindAddress, int port, BookChunkWorker worker, TaskExecutor taskExecutor) {
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.worker = worker;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @Override
+    public void start() {
+        try {
+            serverSocket = new ServerSocket();
+            serverSocket.bind(new InetSocketAddress(InetAddress.getByName(bindAddress), port));
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start remote chunk worker on " + bindAddress + ":" + port, e);
+        }
+        Thread acceptor = new Thread(this::accept, "book-chunk-worker-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+        log.info("Remote chunk worker listening on {}", serverSocket.getLocalSocketAddress());
+    }
+
+    @Override
+    public void stop() {
+        ServerSocket socket = serverSocket;
+        serverSocket = null;
+        if (socket == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Failed to close worker server socket", e);
+        }
+        clients.forEach(BookChunkWorkerServer::closeQuietly);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return serverSocket != null;
+    }
+
+    /**
+     * 實際監聽的埠號，port 設為 0 時由系統指定
+     */
+    public int getLocalPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        ServerSocket server = serverSocket;
+        while (server != null && !server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                client.setTcpNoDelay(true);
+                clients.add(client);
+                Thread reader = new Thread(() -> serve(client), "book-chunk-worker-" + client.getPort());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    log.warn("Failed to accept remote chunk connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void serve(Socket client) {
+        log.info("Remote chunk manager connected from {}", client.getRemoteSocketAddress());
+        try (ObjectOutputStream out = BookChunkCodec.output(client);
+             ObjectInputStream in = BookChunkCodec.input(client)) {
+            while (true) {
+                ChunkRequest<Book> request = (ChunkRequest<Book>) in.readObject();
+                taskExecutor.execute(() -> reply(client, out, worker.handle(request)));
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            if (!client.isClosed()) {
+                log.info("Remote chunk manager {} disconnected: {}", client.getRemoteSocketAddress(), e.toString());
+            }
+        } finally {
+            clients.remove(client);
+            closeQuietly(client);
+        }
+    }
+
+    private static void reply(Socket client, ObjectOutputStream out, ChunkResponse response) {
+        try {
+            synchronized (out) {
+                BookChunkCodec.write(out, response);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to send reply for chunk {} to {}: {}", response.getSequence(),
+                    client.getRemoteSocketAddress(), e.getMessage());
+            closeQuietly(client);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug("Failed to close remote chunk connection", e);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.example.demo.batch.repository;
 
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -14,9 +16,50 @@ public interface BookRepository extends JpaRepository<Book, Integer> {
 
     /**
      * 查找指定年份之後出版的書籍
+     * 以 Slice 分頁回傳，不會一次載入全部結果，也不需要額外的 count 查詢
+     * 排序由 Pageable 提供
      */
-    @Query("SELECT b FROM Book b WHERE b.year >= :year ORDER BY b.year, b.id")
-    List<Book> findBooksAfterYear(@Param("year") Integer year);
+    @Query("SELECT b FROM Book b WHERE b.year >= :year")
+    Slice<Book> findBooksAfterYear(@Param("year") Integer year, Pageable pageable);
+
+    /**
+     * Keyset 分頁：依 id 讀取下一頁
+     * 以上一頁最後一筆的 id 為起點，每頁成本與頁數無關
+     */
+    @Query(value = """
+            SELECT * FROM book
+            WHERE id > :lastId
+            ORDER BY id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Book> findNextPageById(@Param("lastId") Integer lastId, @Param("limit") int limit);
+
+    /**
+     * Keyset 分頁：依 (year, id) 讀取指定年份之後出版的下一頁
+     * 使用列值比較 (year, id) > (?, ?)，可直接利用 (year, id) 索引定位
+     */
+    @Query(value = """
+            SELECT * FROM book
+            WHERE year >= :minYear
+            AND (year, id) > (:lastYear, :lastId)
+            ORDER BY year, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Book> findNextPageByYearAndId(@Param("minYear") Integer minYear,
+                                       @Param("lastYear") Integer lastYear,
+                                       @Param("lastId") Integer lastId,
+                                       @Param("limit") int limit);
+
+    /**
+     * 依 id 範圍（含兩端）讀取書籍
+     * 遠端 chunk 重啟時重新讀取未確認的 chunk
+     */
+    @Query(value = """
+            SELECT * FROM book
+            WHERE id BETWEEN :firstId AND :lastId
+            ORDER BY id
+            """, nativeQuery = true)
+    List<Book> findByIdRange(@Param("firstId") Integer firstId, @Param("lastId") Integer lastId);
 
     /**
      * 查找價格範圍內的書籍
@@ -7,18 +7,25 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 以 jobLaunchTaskExecutor 非同步啟動作業（batch.threads.virtual=true 時為虛擬執行緒）
+ * 不回傳 JobExecution；需要 execution id 或容量限制時使用 BookJobLaunchService
+ */
+@Log4j2
 @Service
 public class AsyncJobLauncherService {
 
     @Autowired
     private JobLauncher jobLauncher;
 
-    @Async
+    @Async("jobLaunchTaskExecutor")
     public void launchJob(Job job, JobParameters params) {
         try {
             jobLauncher.run(job, params);
         } catch (Exception e) {
-            e.printStackTrace();
+            log.error("Failed to launch job {}: {}", job.getName(), e.getMessage(), e);
         }
     }
 }
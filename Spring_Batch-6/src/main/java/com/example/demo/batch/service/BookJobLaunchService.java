@@ -0,0 +1,116 @@
+package com.example.demo.batch.service;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.batch.Scheduled.JobLaunchGate;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 書籍批次作業的非同步啟動
+ * 功能：
+ * 1. 以 TaskExecutorJobLauncher 啟動，JobExecution 建立後立即回傳，作業在 bookLauncherTaskExecutor 中執行
+ * 2. 同時執行的作業數與等待中的作業數皆有上限 (max-concurrent / queue-capacity)
+ * 3. 超過上限時在建立 JobExecution 之前拋出 TaskRejectedException，JobRepository 不會留下失敗紀錄
+ * 4. 經過 JobLaunchGate 的重疊保護，與執行中的作業共用步驟時延後到衝突結束才啟動，不佔用名額
+ *
+ * 與 AsyncJobLauncherService (@Async) 不同，呼叫端可取得 execution id，並以
+ * /api/batch/books/executions/{id}/progress 追蹤進度
+ */
+@Log4j2
+@Service
+public class BookJobLaunchService {
+
+    private final TaskExecutorJobLauncher jobLauncher;
+    private final JobLaunchGate jobLaunchGate;
+    private final Semaphore permits;
+    private final int capacity;
+
+    public BookJobLaunchService(JobRepository jobRepository,
+                                JobLaunchGate jobLaunchGate,
+                                @Qualifier("bookLauncherTaskExecutor") TaskExecutor taskExecutor,
+                                @Value("${batch.book.launcher.max-concurrent:2}") int maxConcurrent,
+                                @Value("${batch.book.launcher.queue-capacity:8}") int queueCapacity) throws Exception {
+        this.jobLaunchGate = jobLaunchGate;
+        this.capacity = maxConcurrent + queueCapacity;
+        this.permits = new Semaphore(capacity);
+
+        // 作業結束時歸還名額；執行緒池拒絕時任務不會執行，在此歸還
+        TaskExecutor releasingExecutor = task -> {
+            try {
+                taskExecutor.execute(() -> {
+                    try {
+                        task.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                permits.release();
+                throw e;
+            }
+        };
+
+        this.jobLauncher = new TaskExecutorJobLauncher();
+        this.jobLauncher.setJobRepository(jobRepository);
+        this.jobLauncher.setTaskExecutor(releasingExecutor);
+        this.jobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * 非同步啟動作業，回傳狀態為 STARTING 的 JobExecution
+     *
+     * @return 作業執行；與執行中的作業重疊而延後時回傳 null，由 JobLaunchGate 之後補跑
+     * @throws TaskRejectedException 執行中與等待中的作業已達上限
+     */
+    public JobExecution launch(Job job, JobParameters params) throws JobExecutionException {
+        return jobLaunchGate.run(job, params, null, this::launchWithPermit);
+    }
+
+    /**
+     * 取得名額後交給 TaskExecutorJobLauncher，供 JobLaunchGate 啟動與補跑時呼叫
+     */
+    private JobExecution launchWithPermit(Job job, JobParameters params)
+            throws JobExecutionAlreadyRunningException, JobRestartException,
+            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
+        if (!permits.tryAcquire()) {
+            throw new TaskRejectedException("Book launcher is full (" + capacity + " jobs running or queued), "
+                    + job.getName() + " rejected");
+        }
+
+        try {
+            JobExecution jobExecution = jobLauncher.run(job, params);
+            log.info("🚀 {} queued asynchronously (execution {}, {} slots left)",
+                    job.getName(), jobExecution.getId(), permits.availablePermits());
+            return jobExecution;
+        } catch (JobExecutionAlreadyRunningException | JobRestartException
+                 | JobInstanceAlreadyCompleteException | JobParametersInvalidException | RuntimeException e) {
+            // 作業未送入執行緒池，直接歸還名額
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 目前可接受的作業數
+     */
+    public int availableSlots() {
+        return permits.availablePermits();
+    }
+}
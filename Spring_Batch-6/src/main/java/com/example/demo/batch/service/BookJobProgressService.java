@@ -0,0 +1,280 @@
+package com.example.demo.batch.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.demo.batch.dto.BookJobProgress;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 書籍批次作業的即時進度
+ * 功能：
+ * 1. BookJobCompletionListener 在作業開始時登記 JobExecution 與 book 表筆數，結束時移除
+ * 2. 執行中的作業直接讀取記憶體中的 StepExecution（每個 chunk 提交後更新），不查詢 JobRepository 資料表
+ * 3. 已結束或其他節點執行的作業才由 JobExplorer 讀取
+ * 4. 提供 Server-Sent Events 串流，依固定間隔推送進度，作業結束後關閉
+ *
+ * ETA 以執行中的步驟計算：每個讀取步驟最多讀取一次全表，剩餘筆數 = 步驟數 × estimatedTotal − 已讀筆數；
+ * 步驟帶有查詢條件時實際筆數較少，因此 ETA 為上限估計
+ */
+@Log4j2
+@Service
+public class BookJobProgressService {
+
+    public static final String ESTIMATED_TOTAL_KEY = "book.estimatedTotal";
+
+    /**
+     * 分區管理步驟的 ExecutionContext 含有此 key，其筆數在結束時才彙總自各分區，統計時排除以免重複計算
+     */
+    private static final String PARTITION_MANAGER_KEY = "SimpleStepExecutionSplitter.GRID_SIZE";
+
+    /**
+     * 計算目前速度的時間視窗
+     */
+    private static final long RATE_WINDOW_MILLIS = 10_000;
+
+    private final JobExplorer jobExplorer;
+    private final long streamIntervalMillis;
+    private final long streamTimeoutMillis;
+
+    private final Map<Long, JobExecution> runningExecutions = new ConcurrentHashMap<>();
+    private final Map<Long, Deque<long[]>> rateSamples = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService streamScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "book-progress-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public BookJobProgressService(JobExplorer jobExplorer,
+                                  @Value("${batch.book.progress.stream-interval-ms:1000}") long streamIntervalMillis,
+                                  @Value("${batch.book.progress.stream-timeout-ms:3600000}") long streamTimeoutMillis) {
+        this.jobExplorer = jobExplorer;
+        this.streamIntervalMillis = streamIntervalMillis;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+    }
+
+    /**
+     * 作業開始時登記，estimatedTotal 同時寫入作業的 ExecutionContext，結束後仍可查詢
+     */
+    public void track(JobExecution jobExecution, long estimatedTotal) {
+        jobExecution.getExecutionContext().putLong(ESTIMATED_TOTAL_KEY, estimatedTotal);
+        runningExecutions.put(jobExecution.getId(), jobExecution);
+    }
+
+    public void untrack(JobExecution jobExecution) {
+        runningExecutions.remove(jobExecution.getId());
+        rateSamples.remove(jobExecution.getId());
+    }
+
+    public Optional<BookJobProgress> getProgress(long executionId) {
+        JobExecution execution = runningExecutions.get(executionId);
+        if (execution == null) {
+            execution = jobExplorer.getJobExecution(executionId);
+        }
+        return Optional.ofNullable(execution).map(this::toProgress);
+    }
+
+    /**
+     * 本節點執行中的書籍作業
+     */
+    public List<BookJobProgress> getRunningProgress() {
+        return runningExecutions.values().stream()
+                .sorted(Comparator.comparing(JobExecution::getId))
+                .map(this::toProgress)
+                .toList();
+    }
+
+    /**
+     * 建立進度串流，呼叫前應先確認作業存在
+     */
+    public SseEmitter stream(long executionId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        ProgressStream stream = new ProgressStream(executionId, emitter);
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(error -> stream.close());
+        stream.future = streamScheduler.scheduleAtFixedRate(stream, 0, streamIntervalMillis, TimeUnit.MILLISECONDS);
+        return emitter;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streamScheduler.shutdownNow();
+    }
+
+    private BookJobProgress toProgress(JobExecution execution) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StepExecution> steps = execution.getStepExecutions().stream()
+                .filter(step -> !step.getExecutionContext().containsKey(PARTITION_MANAGER_KEY))
+                .sorted(Comparator.comparing(StepExecution::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        long read = steps.stream().mapToLong(StepExecution::getReadCount).sum();
+        long written = steps.stream().mapToLong(StepExecution::getWriteCount).sum();
+        long skipped = steps.stream().mapToLong(StepExecution::getSkipCount).sum();
+        boolean running = execution.isRunning();
+
+        // 執行中的步驟，以及與其同名的已完成分區
+        Set<String> runningSteps = steps.stream()
+                .filter(step -> step.getStatus().isRunning())
+                .map(step -> baseStepName(step.getStepName()))
+                .collect(Collectors.toSet());
+        List<StepExecution> current = steps.stream()
+                .filter(step -> runningSteps.contains(baseStepName(step.getStepName())))
+                .toList();
+        long currentRead = current.stream().mapToLong(StepExecution::getReadCount).sum();
+        LocalDateTime currentStart = current.stream()
+                .map(StepExecution::getStartTime)
+                .filter(start -> start != null)
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+
+        LocalDateTime start = execution.getStartTime();
+        LocalDateTime end = execution.getEndTime() != null ? execution.getEndTime() : now;
+        long elapsedMillis = start == null ? 0 : Duration.between(start, end).toMillis();
+
+        // 沒有執行中的步驟時（作業已結束）以整個作業計算平均速度
+        double averageRate = currentStart != null
+                ? rate(currentRead, Duration.between(currentStart, now).toMillis())
+                : rate(read, elapsedMillis);
+        double currentRate = running ? windowRate(execution.getId(), read) : 0;
+
+        Long estimatedTotal = execution.getExecutionContext().containsKey(ESTIMATED_TOTAL_KEY)
+                ? execution.getExecutionContext().getLong(ESTIMATED_TOTAL_KEY)
+                : null;
+        Long eta = null;
+        double etaRate = currentRate > 0 ? currentRate : averageRate;
+        if (!running) {
+            eta = 0L;
+        } else if (estimatedTotal != null && etaRate > 0 && !runningSteps.isEmpty()) {
+            long remaining = Math.max(0, runningSteps.size() * estimatedTotal - currentRead);
+            eta = (long) Math.ceil(remaining / etaRate);
+        }
+
+        return new BookJobProgress(
+                execution.getId(),
+                execution.getJobInstance().getJobName(),
+                execution.getStatus().toString(),
+                running,
+                start,
+                elapsedMillis,
+                estimatedTotal,
+                read,
+                written,
+                skipped,
+                currentRate,
+                averageRate,
+                eta,
+                steps.stream().map(step -> new BookJobProgress.StepProgress(
+                        step.getStepName(),
+                        step.getStatus().toString(),
+                        step.getReadCount(),
+                        step.getWriteCount(),
+                        step.getSkipCount(),
+                        step.getCommitCount(),
+                        step.getRollbackCount())).toList());
+    }
+
+    /**
+     * 以 RATE_WINDOW_MILLIS 內最舊的取樣點計算讀取速度
+     */
+    private double windowRate(long executionId, long read) {
+        long now = System.currentTimeMillis();
+        Deque<long[]> samples = rateSamples.computeIfAbsent(executionId, id -> new ArrayDeque<>());
+        synchronized (samples) {
+            samples.addLast(new long[] {now, read});
+            while (samples.size() > 2 && now - samples.peekFirst()[0] > RATE_WINDOW_MILLIS) {
+                samples.removeFirst();
+            }
+            long[] oldest = samples.peekFirst();
+            return rate(read - oldest[1], now - oldest[0]);
+        }
+    }
+
+    private static double rate(long items, long millis) {
+        return millis > 0 ? items * 1000.0 / millis : 0;
+    }
+
+    /**
+     * 分區名稱為 worker:分區名稱（分區名稱本身可能含冒號，例如 檔名:起始位移），取第一個冒號前的步驟名稱
+     */
+    private static String baseStepName(String stepName) {
+        int index = stepName.indexOf(':');
+        return index < 0 ? stepName : stepName.substring(0, index);
+    }
+
+    /**
+     * 定時推送單一作業的進度，作業結束或連線中斷時停止
+     */
+    private class ProgressStream implements Runnable {
+
+        private final long executionId;
+        private final SseEmitter emitter;
+        private volatile ScheduledFuture<?> future;
+        private volatile boolean closed;
+
+        ProgressStream(long executionId, SseEmitter emitter) {
+            this.executionId = executionId;
+            this.emitter = emitter;
+        }
+
+        @Override
+        public void run() {
+            if (closed) {
+                close();
+                return;
+            }
+            try {
+                Optional<BookJobProgress> progress = getProgress(executionId);
+                if (progress.isEmpty()) {
+                    close();
+                    emitter.complete();
+                    return;
+                }
+                emitter.send(SseEmitter.event().name("progress").data(progress.get()));
+                if (!progress.get().running()) {
+                    close();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Progress stream for execution {} closed: {}", executionId, e.getMessage());
+                close();
+            } catch (RuntimeException e) {
+                log.warn("Progress stream for execution {} failed: {}", executionId, e.getMessage());
+                close();
+                emitter.completeWithError(e);
+            }
+        }
+
+        void close() {
+            closed = true;
+            ScheduledFuture<?> scheduled = future;
+            if (scheduled != null) {
+                scheduled.cancel(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.demo.batch.writer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import com.example.demo.batch.dto.BookDTO;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 分類統計報告寫入器 (串流累加)
+ * 功能：
+ * 1. 每個項目只走訪一次，以原始型別計數器累加各分類的數量、總額、最小值、最大值
+ * 2. 累加狀態在每個 chunk 提交時寫入 Step 的 ExecutionContext，重啟後從上次提交點繼續累加
+ * 3. 在 afterStep 輸出整個步驟（全部資料）的分類統計報告
+ * 4. 分區步驟由 logMergedReport 合併各分區 ExecutionContext 中的累加狀態，輸出整個作業的報告
+ *
+ * 注意：狀態屬於單一 StepExecution，請以 Step Scope 註冊，勿在多個步驟間共用同一實例
+ */
+@Log4j2
+public class BookCategoryReportWriter implements ItemStreamWriter<BookDTO>, StepExecutionListener {
+
+    private static final String KEY_PREFIX = "bookCategoryReport.";
+    private static final String CATEGORIES_KEY = KEY_PREFIX + "categories";
+
+    private final Map<String, CategoryAccumulator> accumulators = new TreeMap<>();
+
+    @Override
+    public void write(Chunk<? extends BookDTO> chunk) throws Exception {
+        List<? extends BookDTO> books = chunk.getItems();
+
+        for (int i = 0; i < books.size(); i++) {
+            BookDTO book = books.get(i);
+            accumulatorFor(book.category()).add(book.cost());
+        }
+    }
+
+    /**
+     * 從 ExecutionContext 還原上次提交的累加狀態
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        accumulators.clear();
+        restore(executionContext, accumulators);
+        if (!accumulators.isEmpty()) {
+            log.info("Restored category statistics for {} categories", accumulators.size());
+        }
+    }
+
+    /**
+     * 在 chunk 提交前保存累加狀態，與寫入在同一交易中
+     */
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        executionContext.putString(CATEGORIES_KEY, String.join(",", accumulators.keySet()));
+
+        accumulators.forEach((category, accumulator) -> {
+            String prefix = KEY_PREFIX + category + ".";
+            executionContext.putLong(prefix + "count", accumulator.count);
+            executionContext.putLong(prefix + "priced", accumulator.priced);
+            executionContext.putDouble(prefix + "sum", accumulator.sum);
+            // 尚無價格時不寫入 Infinity，避免序列化問題
+            executionContext.putDouble(prefix + "min", accumulator.priced > 0 ? accumulator.min : 0.0);
+            executionContext.putDouble(prefix + "max", accumulator.priced > 0 ? accumulator.max : 0.0);
+        });
+    }
+
+    /**
+     * 步驟結束時輸出全部資料的分類統計報告
+     * 分區步驟的每個工作步驟只輸出自己的範圍，整體報告由 BookCategoryReportListener 合併各分區後輸出
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        logReport(stepExecution.getStepName(), accumulators);
+        return stepExecution.getExitStatus();
+    }
+
+    /**
+     * 合併多個 StepExecution (例如各分區) 保存的累加狀態，輸出一份報告
+     */
+    public static void logMergedReport(String title, Collection<ExecutionContext> executionContexts) {
+        Map<String, CategoryAccumulator> merged = new TreeMap<>();
+        for (ExecutionContext executionContext : executionContexts) {
+            Map<String, CategoryAccumulator> partial = new TreeMap<>();
+            restore(executionContext, partial);
+            partial.forEach((category, accumulator) ->
+                    merged.computeIfAbsent(category, key -> new CategoryAccumulator()).merge(accumulator));
+        }
+        logReport(title, merged);
+    }
+
+    /**
+     * 是否含有本寫入器保存的累加狀態
+     */
+    public static boolean hasStatistics(ExecutionContext executionContext) {
+        return executionContext.containsKey(CATEGORIES_KEY);
+    }
+
+    private static void restore(ExecutionContext executionContext, Map<String, CategoryAccumulator> target) {
+        if (!executionContext.containsKey(CATEGORIES_KEY)) {
+            return;
+        }
+
+        String categories = executionContext.getString(CATEGORIES_KEY);
+        if (categories.isEmpty()) {
+            return;
+        }
+
+        for (String category : categories.split(",")) {
+            String prefix = KEY_PREFIX + category + ".";
+            CategoryAccumulator accumulator = target.computeIfAbsent(category, key -> new CategoryAccumulator());
+            accumulator.count = executionContext.getLong(prefix + "count");
+            accumulator.priced = executionContext.getLong(prefix + "priced");
+            accumulator.sum = executionContext.getDouble(prefix + "sum");
+            if (accumulator.priced > 0) {
+                accumulator.min = executionContext.getDouble(prefix + "min");
+                accumulator.max = executionContext.getDouble(prefix + "max");
+            }
+        }
+    }
+
+    private static void logReport(String title, Map<String, CategoryAccumulator> accumulators) {
+        long totalCount = 0;
+        double totalValue = 0.0;
+
+        log.info("=== CATEGORY STATISTICS REPORT ({}) ===", title);
+        for (Map.Entry<String, CategoryAccumulator> entry : accumulators.entrySet()) {
+            CategoryAccumulator stat = entry.getValue();
+            totalCount += stat.count;
+            totalValue += stat.sum;
+
+            log.info("Category: {} | Count: {} | Total Value: ${} | Avg Price: ${} | Min: ${} | Max: ${}",
+                    entry.getKey(), stat.count,
+                    String.format("%.2f", stat.sum),
+                    String.format("%.2f", stat.mean()),
+                    String.format("%.2f", stat.priced > 0 ? stat.min : 0.0),
+                    String.format("%.2f", stat.priced > 0 ? stat.max : 0.0));
+        }
+        log.info("Total Books: {} | Total Value: ${}", totalCount, String.format("%.2f", totalValue));
+        log.info("=== END OF REPORT ===");
+    }
+
+    private CategoryAccumulator accumulatorFor(String category) {
+        String key = category == null ? "UNCATEGORIZED" : category;
+        CategoryAccumulator accumulator = accumulators.get(key);
+        if (accumulator == null) {
+            accumulator = new CategoryAccumulator();
+            accumulators.put(key, accumulator);
+        }
+        return accumulator;
+    }
+
+    /**
+     * 單一分類的累加器，只使用原始型別欄位
+     */
+    private static final class CategoryAccumulator {
+        private long count;
+        private long priced;
+        private double sum;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private void add(Double cost) {
+            count++;
+            if (cost == null) {
+                return;
+            }
+            double value = cost;
+            priced++;
+            sum += value;
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+        }
+
+        private void merge(CategoryAccumulator other) {
+            count += other.count;
+            priced += other.priced;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        private double mean() {
+            return priced > 0 ? sum / priced : 0.0;
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.demo.batch.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.zip.Deflater;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.reader.BookColumnarFileReader;
+import com.example.demo.batch.writer.BookColumnarFormat.Column;
+import com.example.demo.batch.writer.BookColumnarFormat.Sink;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 書籍欄式匯出寫入器 (.bcol，格式見 BookColumnarFormat)
+ * 功能：
+ * 1. 每個 chunk 寫成一個 row group，同一欄位的值連續存放並各自以 deflate 壓縮
+ * 2. author / publisher / category 以字典編碼，字典屬於整個檔案，每個 row group 只寫入新增的項目
+ * 3. id / isbn / year 以差值 varint 編碼，依 id 排序時每筆約 1 byte
+ * 4. 讀取端 (BookColumnarFileReader) 只解壓需要的欄位，統計報告不必解析每一列的全部欄位
+ *
+ * 重啟：row group 在 write 時完整寫入，update 時在 ExecutionContext 記錄檔案位移；
+ * 重啟時截斷到上次提交的位移，並掃描已提交的 row group 還原字典
+ *
+ * 注意：狀態屬於單一 StepExecution，請以 Step Scope 註冊
+ */
+@Log4j2
+public class BookColumnarExportWriter implements ItemStreamWriter<BookDTO> {
+
+    private static final String KEY_PREFIX = "bookColumnarExport.";
+    private static final String OFFSET_KEY = KEY_PREFIX + "offset";
+    private static final String ROWS_KEY = KEY_PREFIX + "rows";
+    private static final String ROW_GROUPS_KEY = KEY_PREFIX + "rowGroups";
+
+    private final Path file;
+    private final int bufferSize;
+    private final Map<Column, Map<String, Integer>> dictionaries = new EnumMap<>(Column.class);
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    private final Sink block = new Sink();
+    private final Sink compressed = new Sink();
+    private final Sink rowGroup = new Sink();
+
+    private FileChannel channel;
+    private OutputStream out;
+    private long rows;
+    private long rowGroups;
+
+    public BookColumnarExportWriter(Path file, int bufferSize) {
+        this.file = file;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void write(Chunk<? extends BookDTO> chunk) throws Exception {
+        List<? extends BookDTO> books = chunk.getItems();
+        if (books.isEmpty()) {
+            return;
+        }
+
+        rowGroup.reset();
+        rowGroup.writeVarint(books.size());
+        for (Column column : Column.values()) {
+            block.reset();
+            encode(column, books);
+            deflate();
+            rowGroup.writeVarint(block.size());
+            rowGroup.writeVarint(compressed.size());
+            rowGroup.write(compressed.array(), 0, compressed.size());
+        }
+        out.write(rowGroup.array(), 0, rowGroup.size());
+
+        rows += books.size();
+        rowGroups++;
+    }
+
+    /**
+     * 首次執行建立新檔案；重啟時截斷到上次提交的位移並還原字典
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        dictionaries.clear();
+        for (Column column : Column.values()) {
+            if (column.isDictionary()) {
+                dictionaries.put(column, new HashMap<>());
+            }
+        }
+
+        try {
+            Files.createDirectories(file.getParent());
+
+            if (!executionContext.containsKey(OFFSET_KEY)) {
+                channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                out = new BufferedOutputStream(Channels.newOutputStream(channel), bufferSize);
+                out.write(BookColumnarFormat.MAGIC);
+                out.write(BookColumnarFormat.VERSION);
+                rows = 0;
+                rowGroups = 0;
+                return;
+            }
+
+            long offset = executionContext.getLong(OFFSET_KEY);
+            restoreDictionaries(offset);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.truncate(offset);
+            channel.position(offset);
+            out = new BufferedOutputStream(Channels.newOutputStream(channel), bufferSize);
+            rows = executionContext.getLong(ROWS_KEY);
+            rowGroups = executionContext.getLong(ROW_GROUPS_KEY);
+            log.info("Resuming columnar export {} at {} rows ({} row groups)", file.getFileName(), rows, rowGroups);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open columnar export " + file, e);
+        }
+    }
+
+    /**
+     * 在 chunk 提交前將 row group 送進檔案並保存位移，與寫入在同一交易中
+     */
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            out.flush();
+            executionContext.putLong(OFFSET_KEY, channel.position());
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to flush columnar export " + file, e);
+        }
+        executionContext.putLong(ROWS_KEY, rows);
+        executionContext.putLong(ROW_GROUPS_KEY, rowGroups);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+            log.info("Columnar export {} finished: {} rows in {} row groups, {} bytes",
+                    file.getFileName(), rows, rowGroups, Files.size(file));
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close columnar export " + file, e);
+        } finally {
+            out = null;
+            channel = null;
+        }
+    }
+
+    /**
+     * 將一個欄位的值編碼到 block
+     */
+    private void encode(Column column, List<? extends BookDTO> books) {
+        int size = books.size();
+        Object[] values = new Object[size];
+        boolean hasNulls = false;
+        for (int i = 0; i < size; i++) {
+            values[i] = column.value(books.get(i));
+            hasNulls |= values[i] == null;
+        }
+
+        block.write(hasNulls ? 1 : 0);
+        if (hasNulls) {
+            writeBitmap(values, value -> value == null);
+        }
+
+        switch (column) {
+            case ID, ISBN, YEAR -> {
+                long previous = 0;
+                for (Object value : values) {
+                    if (value != null) {
+                        int current = (Integer) value;
+                        block.writeZigzag(current - previous);
+                        previous = current;
+                    }
+                }
+            }
+            case TITLE -> {
+                for (Object value : values) {
+                    if (value != null) {
+                        block.writeString((String) value);
+                    }
+                }
+            }
+            case AUTHOR, PUBLISHER, CATEGORY -> encodeDictionary(column, values);
+            case COST -> {
+                for (Object value : values) {
+                    if (value != null) {
+                        block.writeLong(Double.doubleToLongBits((Double) value));
+                    }
+                }
+            }
+            case PROCESSED -> writeBitmap(values, Boolean.TRUE::equals);
+        }
+    }
+
+    /**
+     * 先寫入本 row group 新增的字典項目，再寫入各值的字典編號
+     */
+    private void encodeDictionary(Column column, Object[] values) {
+        Map<String, Integer> dictionary = dictionaries.get(column);
+        List<String> added = new ArrayList<>();
+        int[] codes = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                Integer code = dictionary.get(values[i]);
+                if (code == null) {
+                    code = dictionary.size();
+                    dictionary.put((String) values[i], code);
+                    added.add((String) values[i]);
+                }
+                codes[i] = code;
+            }
+        }
+
+        block.writeVarint(added.size());
+        for (String value : added) {
+            block.writeString(value);
+        }
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                block.writeVarint(codes[i]);
+            }
+        }
+    }
+
+    private void writeBitmap(Object[] values, Predicate<Object> bitSet) {
+        for (int i = 0; i < values.length; i += 8) {
+            int b = 0;
+            for (int bit = 0; bit < 8 && i + bit < values.length; bit++) {
+                if (bitSet.test(values[i + bit])) {
+                    b |= 1 << bit;
+                }
+            }
+            block.write(b);
+        }
+    }
+
+    private void deflate() {
+        deflater.reset();
+        deflater.setInput(block.array(), 0, block.size());
+        deflater.finish();
+        compressed.reset();
+        while (!deflater.finished()) {
+            compressed.ensureCapacity(compressed.size() + 8 * 1024);
+            int written = deflater.deflate(compressed.array(), compressed.size(),
+                    compressed.array().length - compressed.size());
+            compressed.setSize(compressed.size() + written);
+        }
+    }
+
+    /**
+     * 讀取已提交的 row group，依出現順序重建字典編號
+     */
+    private void restoreDictionaries(long offset) throws IOException {
+        EnumSet<Column> dictionaryColumns = EnumSet.noneOf(Column.class);
+        dictionaryColumns.addAll(dictionaries.keySet());
+
+        try (BookColumnarFileReader reader = new BookColumnarFileReader(file, dictionaryColumns)) {
+            while (reader.position() < offset && reader.next() != null) {
+                // 只需要字典，row group 內容不使用
+            }
+            for (Column column : dictionaryColumns) {
+                List<String> values = reader.dictionary(column);
+                Map<String, Integer> dictionary = dictionaries.get(column);
+                for (int code = 0; code < values.size(); code++) {
+                    dictionary.put(values.get(code), code);
+                }
+            }
+        }
+    }
+}
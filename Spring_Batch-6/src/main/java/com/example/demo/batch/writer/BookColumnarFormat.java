@@ -0,0 +1,192 @@
+package com.example.demo.batch.writer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Function;
+
+import com.example.demo.batch.dto.BookDTO;
+
+/**
+ * 書籍欄式檔案 (.bcol) 的格式定義，由 BookColumnarExportWriter 寫入、BookColumnarFileReader 讀取
+ *
+ * 檔案：MAGIC "BCOL" + 版本 (1 byte)，之後為連續的 row group，每個 row group 對應一個 chunk
+ * row group：varint 筆數，接著依 Column 順序排列各欄位區塊
+ * 欄位區塊：varint 原始長度 + varint 壓縮後長度 + raw deflate 資料；讀取時不需要的欄位可依長度直接跳過
+ * 欄位區塊內容（解壓後）：
+ * 1. 1 byte 是否有 null，有時接著 null bitmap（每筆 1 bit，1 為 null）
+ * 2. 字典欄位：varint 本 row group 新增的字典項目數 + 各項目字串；字典屬於整個檔案，項目編號依出現順序遞增
+ * 3. 非 null 的值：
+ *    ID / ISBN / YEAR：與前一個值的差 (zigzag varint)
+ *    TITLE：varint 長度 + UTF-8
+ *    AUTHOR / PUBLISHER / CATEGORY：字典編號 (varint)
+ *    COST：double 的 IEEE 754 位元 (8 bytes, little-endian)
+ *    PROCESSED：bitmap
+ * 字串皆為 varint 長度 + UTF-8
+ */
+public final class BookColumnarFormat {
+
+    public static final byte[] MAGIC = {'B', 'C', 'O', 'L'};
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".bcol";
+
+    /**
+     * 欄位，宣告順序即檔案中的欄位順序
+     */
+    public enum Column {
+        ID(BookDTO::id, false),
+        ISBN(BookDTO::isbn, false),
+        TITLE(BookDTO::title, false),
+        AUTHOR(BookDTO::author, true),
+        YEAR(BookDTO::year, false),
+        PUBLISHER(BookDTO::publisher, true),
+        COST(BookDTO::cost, false),
+        CATEGORY(BookDTO::category, true),
+        PROCESSED(BookDTO::isProcessed, false);
+
+        private final Function<BookDTO, Object> accessor;
+        private final boolean dictionary;
+
+        Column(Function<BookDTO, Object> accessor, boolean dictionary) {
+            this.accessor = accessor;
+            this.dictionary = dictionary;
+        }
+
+        public Object value(BookDTO book) {
+            return accessor.apply(book);
+        }
+
+        public boolean isDictionary() {
+            return dictionary;
+        }
+    }
+
+    private BookColumnarFormat() {
+    }
+
+    /**
+     * 可增長的位元組緩衝區 (寫入端)
+     */
+    public static final class Sink {
+        private byte[] buffer = new byte[8 * 1024];
+        private int size;
+
+        public void write(int b) {
+            ensureCapacity(size + 1);
+            buffer[size++] = (byte) b;
+        }
+
+        public void write(byte[] bytes, int offset, int length) {
+            ensureCapacity(size + length);
+            System.arraycopy(bytes, offset, buffer, size, length);
+            size += length;
+        }
+
+        public void writeVarint(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        public void writeZigzag(long value) {
+            writeVarint((value << 1) ^ (value >> 63));
+        }
+
+        public void writeLong(long value) {
+            ensureCapacity(size + 8);
+            for (int i = 0; i < 8; i++) {
+                buffer[size++] = (byte) (value >>> (8 * i));
+            }
+        }
+
+        public void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        public void ensureCapacity(int capacity) {
+            if (capacity > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(capacity, buffer.length * 2));
+            }
+        }
+
+        public byte[] array() {
+            return buffer;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public void reset() {
+            size = 0;
+        }
+    }
+
+    /**
+     * 位元組陣列的讀取位置 (讀取端)
+     */
+    public static final class Source {
+        private final byte[] buffer;
+        private int position;
+
+        public Source(byte[] buffer) {
+            this.buffer = buffer;
+        }
+
+        public int read() {
+            return buffer[position++] & 0xFF;
+        }
+
+        public long readVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = read();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+        }
+
+        public long readZigzag() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        public long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value |= (long) read() << (8 * i);
+            }
+            return value;
+        }
+
+        public String readString() {
+            int length = (int) readVarint();
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        /**
+         * 讀取 bitmap，bit 為 1 的位置回傳 true
+         */
+        public boolean[] readBitmap(int rows) {
+            boolean[] bits = new boolean[rows];
+            for (int i = 0; i < rows; i += 8) {
+                int b = read();
+                for (int bit = 0; bit < 8 && i + bit < rows; bit++) {
+                    bits[i + bit] = (b & (1 << bit)) != 0;
+                }
+            }
+            return bits;
+        }
+    }
+}
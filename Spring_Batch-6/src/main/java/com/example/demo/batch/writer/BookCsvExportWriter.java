@@ -0,0 +1,387 @@
+package com.example.demo.batch.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.file.transform.DelimitedLineAggregator;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * 書籍 CSV 匯出寫入器 (串流壓縮)
+ * 功能：
+ * 1. CSV 內容直接寫入 GZIPOutputStream，經大型緩衝區 (bufferSize) 送入 FileChannel，不在記憶體中累積檔案
+ * 2. 檔案達 maxRowsPerFile 筆或 maxBytesPerFile 位元組（壓縮後）時換下一個檔案，每個檔案都有標頭列
+ * 3. 檔名含 job instance id 與步驟名稱，重啟 (同一個 JobInstance 的新 JobExecution) 沿用相同的檔案：
+ *    processed_books_<instance id>_<步驟>_part-00001.csv.gz
+ * 4. close 時寫入 <檔名前綴>.manifest.json：各檔案的筆數、位元組數與 SHA-256，以及總筆數
+ *
+ * 重啟：chunk 提交前 (update) 以 SYNC_FLUSH 將已寫入的資料送進檔案，並在 ExecutionContext 記錄目前檔案的位移；
+ * 重啟時截斷到上次提交的位移，補上該 gzip member 的結尾後接著寫入新的 member
+ * （多個 member 串接仍是合法的 gzip，gunzip / GZIPInputStream 可直接讀取），
+ * 上次執行在提交點之後產生的檔案會刪除
+ * 每次 SYNC_FLUSH 會多出少量位元組，chunk 很小時壓縮率略為下降
+ *
+ * 注意：狀態屬於單一 StepExecution，請以 Step Scope 註冊
+ */
+@Log4j2
+public class BookCsvExportWriter implements ItemStreamWriter<BookDTO> {
+
+    private static final String KEY_PREFIX = "bookCsvExport.";
+    private static final String PART_KEY = KEY_PREFIX + "part";
+    private static final String PART_ROWS_KEY = KEY_PREFIX + "partRows";
+    private static final String PART_OFFSET_KEY = KEY_PREFIX + "partOffset";
+    private static final String MEMBER_CRC_KEY = KEY_PREFIX + "memberCrc";
+    private static final String MEMBER_LENGTH_KEY = KEY_PREFIX + "memberLength";
+    private static final String COMPLETED_KEY = KEY_PREFIX + "completed";
+
+    private static final String HEADER = "ID,ISBN,Title,Author,Year,Publisher,Cost,Category,IsProcessed";
+
+    /**
+     * 匯出檔案的壓縮方式
+     */
+    public enum Compression {
+        NONE(".csv"),
+        GZIP(".csv.gz");
+
+        private final String extension;
+
+        Compression(String extension) {
+            this.extension = extension;
+        }
+
+        public static Compression from(String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    /**
+     * manifest 中的單一檔案
+     */
+    public record ExportFile(String name, long rows, long bytes, String sha256) {
+    }
+
+    public record ExportManifest(String prefix, String compression, long totalRows, String createdAt,
+                                 List<ExportFile> files) {
+    }
+
+    private final Path directory;
+    private final String prefix;
+    private final Compression compression;
+    private final long maxRowsPerFile;
+    private final long maxBytesPerFile;
+    private final int bufferSize;
+    private final DelimitedLineAggregator<BookDTO> lineAggregator = new DelimitedLineAggregator<>();
+
+    private final List<ExportFile> completed = new ArrayList<>();
+    private int part;
+    private long partRows;
+    private FileChannel channel;
+    private CountingOutputStream counting;
+    private MemberGzipOutputStream gzip;
+    private Writer out;
+
+    public BookCsvExportWriter(Path directory, String prefix, Compression compression,
+                               long maxRowsPerFile, long maxBytesPerFile, int bufferSize) {
+        this.directory = directory;
+        this.prefix = prefix.replaceAll("[^A-Za-z0-9_.-]", "_");
+        this.compression = compression;
+        this.maxRowsPerFile = maxRowsPerFile;
+        this.maxBytesPerFile = maxBytesPerFile;
+        this.bufferSize = bufferSize;
+
+        // 直接呼叫 record accessor，欄位順序與標頭相同
+        lineAggregator.setDelimiter(",");
+        lineAggregator.setFieldExtractor(book -> new Object[] {book.id(), book.isbn(), book.title(), book.author(),
+                book.year(), book.publisher(), book.cost(), book.category(), book.isProcessed()});
+    }
+
+    @Override
+    public void write(Chunk<? extends BookDTO> chunk) throws Exception {
+        List<? extends BookDTO> books = chunk.getItems();
+
+        for (int i = 0; i < books.size(); i++) {
+            if (partRows >= maxRowsPerFile || counting.count >= maxBytesPerFile) {
+                finishPart();
+                openPart(part + 1, null);
+            }
+            out.write(lineAggregator.aggregate(books.get(i)));
+            out.write('\n');
+            partRows++;
+        }
+    }
+
+    /**
+     * 首次執行建立第一個檔案；重啟時從上次提交的檔案與位移繼續
+     */
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        completed.clear();
+        try {
+            Files.createDirectories(directory);
+
+            if (!executionContext.containsKey(PART_KEY)) {
+                openPart(1, null);
+                return;
+            }
+
+            completed.addAll(decode(executionContext.getString(COMPLETED_KEY)));
+            int restartPart = executionContext.getInt(PART_KEY);
+            deletePartsAfter(restartPart);
+            openPart(restartPart, executionContext);
+            partRows = executionContext.getLong(PART_ROWS_KEY);
+            log.info("Resuming export {} at part {} ({} rows already committed)",
+                    prefix, restartPart, totalRows() + partRows);
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to open export " + prefix, e);
+        }
+    }
+
+    /**
+     * 在 chunk 提交前將資料送進檔案並保存位移，與寫入在同一交易中
+     */
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to flush export " + fileName(part), e);
+        }
+        executionContext.putInt(PART_KEY, part);
+        executionContext.putLong(PART_ROWS_KEY, partRows);
+        executionContext.putLong(PART_OFFSET_KEY, counting.count);
+        if (gzip != null) {
+            executionContext.putLong(MEMBER_CRC_KEY, gzip.crc());
+            executionContext.putLong(MEMBER_LENGTH_KEY, gzip.length());
+        }
+        executionContext.putString(COMPLETED_KEY, encode(completed));
+    }
+
+    /**
+     * 結束目前的檔案並寫入 manifest
+     * 失敗時同樣會寫入，manifest 反映檔案的實際內容；重啟完成後會以新的內容覆寫
+     */
+    @Override
+    public void close() throws ItemStreamException {
+        if (out == null) {
+            return;
+        }
+        try {
+            finishPart();
+            writeManifest();
+        } catch (IOException e) {
+            throw new ItemStreamException("Failed to close export " + prefix, e);
+        }
+    }
+
+    /**
+     * 開啟第 newPart 個檔案；restartContext 不為 null 時接續上次提交的位移
+     */
+    private void openPart(int newPart, ExecutionContext restartContext) throws IOException {
+        long offset = restartContext != null ? restartContext.getLong(PART_OFFSET_KEY) : 0;
+        part = newPart;
+        partRows = 0;
+        Path file = directory.resolve(fileName(newPart));
+
+        MessageDigest digest = sha256();
+        if (offset > 0) {
+            // 重啟：重新計算已提交部分的雜湊，截斷之後未提交的資料
+            digestPrefix(file, offset, digest);
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.truncate(offset);
+            channel.position(offset);
+        } else {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        counting = new CountingOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(channel), bufferSize), digest, offset);
+        if (offset > 0 && compression == Compression.GZIP) {
+            endMember(restartContext.getLong(MEMBER_CRC_KEY), restartContext.getLong(MEMBER_LENGTH_KEY));
+        }
+        gzip = compression == Compression.GZIP ? new MemberGzipOutputStream(counting) : null;
+        out = new BufferedWriter(new OutputStreamWriter(gzip != null ? gzip : counting, StandardCharsets.UTF_8));
+        if (offset == 0) {
+            out.write(HEADER);
+            out.write('\n');
+        }
+    }
+
+    /**
+     * 將檔案前 length 個位元組送入 digest
+     * 必須實際讀取 (skip 不經過 DigestInputStream.read，雜湊會少算已提交的內容)
+     */
+    private void digestPrefix(Path file, long length, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(bufferSize, length)];
+        long remaining = length;
+        try (InputStream in = Files.newInputStream(file)) {
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read < 0) {
+                    throw new EOFException("Export file " + file + " is shorter than the committed offset " + length);
+                }
+                digest.update(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * 截斷後的 gzip member 停在 SYNC_FLUSH 的位置，補上空的最後區塊與 trailer（CRC32、未壓縮長度）使其成為完整的 member
+     */
+    private void endMember(long crc, long length) throws IOException {
+        byte[] end = new byte[10];
+        end[0] = 0x03;
+        for (int i = 0; i < 4; i++) {
+            end[2 + i] = (byte) (crc >>> (8 * i));
+            end[6 + i] = (byte) (length >>> (8 * i));
+        }
+        counting.write(end, 0, end.length);
+    }
+
+    private void finishPart() throws IOException {
+        // 關閉 GZIPOutputStream 時寫入 gzip trailer，並關閉 FileChannel
+        out.close();
+        out = null;
+        gzip = null;
+        channel = null;
+        completed.add(new ExportFile(fileName(part), partRows, counting.count,
+                HexFormat.of().formatHex(counting.digest.digest())));
+        log.info("Export file {} finished: {} rows, {} bytes", fileName(part), partRows, counting.count);
+    }
+
+    private void writeManifest() throws IOException {
+        ExportManifest manifest = new ExportManifest(prefix, compression.name().toLowerCase(Locale.ROOT),
+                totalRows(), LocalDateTime.now().toString(), List.copyOf(completed));
+        Path target = directory.resolve(prefix + ".manifest.json");
+        Path temp = directory.resolve(prefix + ".manifest.json.tmp");
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(temp.toFile(), manifest);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Export {} complete: {} rows in {} file(s), manifest {}",
+                prefix, manifest.totalRows(), completed.size(), target);
+    }
+
+    private void deletePartsAfter(int lastPart) throws IOException {
+        for (int next = lastPart + 1; Files.deleteIfExists(directory.resolve(fileName(next))); next++) {
+            log.info("Deleted uncommitted export file {}", fileName(next));
+        }
+    }
+
+    private long totalRows() {
+        return completed.stream().mapToLong(ExportFile::rows).sum();
+    }
+
+    private String fileName(int filePart) {
+        return String.format("%s_part-%05d%s", prefix, filePart, compression.extension);
+    }
+
+    private static String encode(List<ExportFile> files) {
+        StringBuilder encoded = new StringBuilder();
+        for (ExportFile file : files) {
+            if (!encoded.isEmpty()) {
+                encoded.append(';');
+            }
+            encoded.append(file.name()).append(',').append(file.rows()).append(',')
+                    .append(file.bytes()).append(',').append(file.sha256());
+        }
+        return encoded.toString();
+    }
+
+    private static List<ExportFile> decode(String encoded) {
+        List<ExportFile> files = new ArrayList<>();
+        if (encoded.isEmpty()) {
+            return files;
+        }
+        for (String file : encoded.split(";")) {
+            String[] fields = file.split(",");
+            files.add(new ExportFile(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), fields[3]));
+        }
+        return files;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * syncFlush 的 GZIPOutputStream：flush 時輸出目前為止的壓縮資料，提交後檔案內容可以完整解壓
+     * 另外提供目前 member 的 CRC32 與未壓縮長度，重啟時用來補上 trailer
+     */
+    private static final class MemberGzipOutputStream extends GZIPOutputStream {
+
+        private MemberGzipOutputStream(OutputStream out) throws IOException {
+            super(out, 64 * 1024, true);
+        }
+
+        private long crc() {
+            return crc.getValue();
+        }
+
+        private long length() {
+            return def.getBytesRead();
+        }
+    }
+
+    /**
+     * 計算寫入檔案的位元組數與雜湊（位於壓縮之後、緩衝區之前）
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private final MessageDigest digest;
+        private long count;
+
+        private CountingOutputStream(OutputStream out, MessageDigest digest, long count) {
+            super(out);
+            this.digest = digest;
+            this.count = count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            digest.update((byte) b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            digest.update(b, off, len);
+            count += len;
+        }
+    }
+}
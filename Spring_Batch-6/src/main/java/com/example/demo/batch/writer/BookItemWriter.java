@@ -1,15 +1,10 @@
 package com.example.demo.batch.writer;
 
-import java.io.File;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.nio.file.Path;
 import java.util.List;
 
 import org.springframework.batch.item.Chunk;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.file.FlatFileItemWriter;
-import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.batch.dto.BookDTO;
@@ -20,8 +15,9 @@ import lombok.extern.log4j.Log4j2;
  * 書籍數據寫入器
  * 支援多種輸出格式：
  * 1. 控制台輸出
- * 2. CSV 文件輸出
- * 3. 分類統計輸出
+ * 2. CSV 文件輸出 (串流壓縮、分檔)
+ * 3. 欄式文件輸出 (字典編碼)
+ * 4. 分類統計輸出
  */
 @Log4j2
 @Component
@@ -67,82 +63,34 @@ public class BookItemWriter implements ItemWriter<BookDTO> {
     }
 
     /**
-     * 創建 CSV 文件寫入器
-     * 將處理後的書籍數據寫入 CSV 文件
+     * 創建 CSV 匯出寫入器
+     * 將處理後的書籍數據串流壓縮寫入 CSV 文件，依筆數 / 大小分檔並輸出 manifest
+     * 檔名前綴含 job instance id 與步驟名稱，重啟時找得到上次執行寫入的檔案；每個 StepExecution 需使用新的實例
      */
-    public FlatFileItemWriter<BookDTO> createCsvWriter() {
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String filename = "processed_books_" + timestamp + ".csv";
-
-        return new FlatFileItemWriterBuilder<BookDTO>()
-                .name("bookCsvItemWriter")
-                .resource(new FileSystemResource(new File("output/" + filename)))
-                .delimited()
-                .delimiter(",")
-                .names("id", "isbn", "title", "author", "year", "publisher", "cost", "category", "isProcessed")
-                .headerCallback(writer -> {
-                    writer.write("ID,ISBN,Title,Author,Year,Publisher,Cost,Category,IsProcessed");
-                })
-                .build();
+    public BookCsvExportWriter createCsvWriter(Path directory, long jobInstanceId, String stepName,
+                                               BookCsvExportWriter.Compression compression,
+                                               long maxRowsPerFile, long maxBytesPerFile, int bufferSize) {
+        return new BookCsvExportWriter(directory, "processed_books_" + jobInstanceId + "_" + stepName,
+                compression, maxRowsPerFile, maxBytesPerFile, bufferSize);
     }
 
     /**
-     * 創建分類報告寫入器
-     * 生成按分類統計的報告文件
+     * 創建欄式匯出寫入器
+     * 將處理後的書籍數據以欄式格式 (.bcol) 寫入，每個 chunk 為一個 row group
+     * 檔名含 job instance id 與步驟名稱，重啟時找得到上次執行寫入的檔案；每個 StepExecution 需使用新的實例
      */
-    public ItemWriter<BookDTO> createCategoryReportWriter() {
-        return new ItemWriter<BookDTO>() {
-            @Override
-            public void write(Chunk<? extends BookDTO> chunk) throws Exception {
-                List<? extends BookDTO> books = chunk.getItems();
-
-                // 按分類分組統計
-                var categoryStats = books.stream()
-                        .collect(java.util.stream.Collectors.groupingBy(
-                                BookDTO::category,
-                                java.util.stream.Collectors.collectingAndThen(
-                                        java.util.stream.Collectors.toList(),
-                                        list -> new CategoryStat(
-                                                list.size(),
-                                                list.stream().mapToDouble(BookDTO::cost).average().orElse(0.0),
-                                                list.stream().mapToDouble(BookDTO::cost).sum()
-                                        )
-                                )
-                        ));
-
-                // 輸出分類統計報告
-                log.info("=== CATEGORY STATISTICS REPORT ===");
-                categoryStats.forEach((category, stat) -> {
-                    log.info("Category: {} | Count: {} | Avg Price: ${:.2f} | Total Value: ${:.2f}",
-                            category, stat.count(), stat.averagePrice(), stat.totalValue());
-                });
-
-                // 找出最昂貴和最便宜的書籍
-                var mostExpensive = books.stream()
-                        .max(java.util.Comparator.comparing(BookDTO::cost))
-                        .orElse(null);
-
-                var cheapest = books.stream()
-                        .min(java.util.Comparator.comparing(BookDTO::cost))
-                        .orElse(null);
-
-                if (mostExpensive != null) {
-                    log.info("Most Expensive: {} by {} - ${}",
-                            mostExpensive.title(), mostExpensive.author(), mostExpensive.cost());
-                }
-
-                if (cheapest != null) {
-                    log.info("Cheapest: {} by {} - ${}",
-                            cheapest.title(), cheapest.author(), cheapest.cost());
-                }
-
-                log.info("=== END OF REPORT ===");
-            }
-        };
+    public BookColumnarExportWriter createColumnarWriter(Path directory, long jobInstanceId, String stepName,
+                                                         int bufferSize) {
+        String fileName = ("processed_books_" + jobInstanceId + "_" + stepName).replaceAll("[^A-Za-z0-9_.-]", "_");
+        return new BookColumnarExportWriter(directory.resolve(fileName + BookColumnarFormat.EXTENSION), bufferSize);
     }
 
     /**
-     * 分類統計內部類
+     * 創建分類報告寫入器
+     * 以單次走訪累加各分類統計，並在步驟結束時輸出全部資料的報告
+     * 狀態保存在 Step 的 ExecutionContext，每個 StepExecution 需使用新的實例
      */
-    private record CategoryStat(int count, double averagePrice, double totalValue) {}
+    public BookCategoryReportWriter createCategoryReportWriter() {
+        return new BookCategoryReportWriter();
+    }
 }
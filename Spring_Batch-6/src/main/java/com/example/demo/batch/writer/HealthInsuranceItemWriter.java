@@ -1,7 +1,12 @@
 package com.example.demo.batch.writer;
 
+import javax.sql.DataSource;
+
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.data.RepositoryItemWriter;
 import org.springframework.batch.item.data.builder.RepositoryItemWriterBuilder;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.stereotype.Component;
 
 import com.example.demo.batch.entity.HealthInsurance;
@@ -10,10 +15,24 @@ import com.example.demo.batch.repository.HealthInsuranceRepository;
 @Component
 public class HealthInsuranceItemWriter {
 
+    /**
+     * 写入器模式：使用 JDBC 批次插入
+     */
+    public static final String JDBC_MODE = "jdbc";
+
     private final HealthInsuranceRepository healthInsuranceRepository;
+    private final DataSource dataSource;
 
-    public HealthInsuranceItemWriter(HealthInsuranceRepository healthInsuranceRepository){
+    public HealthInsuranceItemWriter(HealthInsuranceRepository healthInsuranceRepository, DataSource dataSource){
         this.healthInsuranceRepository = healthInsuranceRepository;
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 依模式建立写入器，jdbc 为批次插入，其余为 RepositoryItemWriter
+     */
+    public ItemWriter<HealthInsurance> createWriter(String mode) {
+        return JDBC_MODE.equalsIgnoreCase(mode) ? createJdbcBatchWriter() : createWriter();
     }
 
     public RepositoryItemWriter<HealthInsurance> createWriter() {
@@ -22,4 +41,23 @@ public class HealthInsuranceItemWriter {
                 .methodName("save")
                 .build();
     }
+
+    /**
+     * JDBC 批次插入写入器
+     * 整个 chunk 以一次 executeBatch 送出，不经过 JPA persist，也没有逐笔取回 IDENTITY 的往返
+     */
+    public JdbcBatchItemWriter<HealthInsurance> createJdbcBatchWriter() {
+        JdbcBatchItemWriter<HealthInsurance> writer = new JdbcBatchItemWriterBuilder<HealthInsurance>()
+                .dataSource(dataSource)
+                .sql("""
+                    INSERT INTO health_insurance
+                        (file_name, pay_type, national_no, cif_no, withhold_date, withhold, reason_type)
+                    VALUES
+                        (:fileName, :payType, :nationalNo, :cifNo, :withholdDate, :withhold, :reasonType)
+                    """)
+                .beanMapped()
+                .build();
+        writer.afterPropertiesSet();
+        return writer;
+    }
 }
@@ -0,0 +1,99 @@
+package com.example.demo.batch.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.FileSystemResource;
+
+import com.example.demo.batch.dto.HealthInsuranceDTO;
+
+/**
+ * 同一份 CSV 分別以 FlatFileItemReader 與記憶體映射讀取器讀取，結果逐筆相同
+ * 視窗遠小於檔案時，多數資料列（含 UTF-8 多位元組字元與 "" 跳脫）會跨越視窗邊界，需重新映射後再切分；
+ * 中途停止後以 ExecutionContext 的位元組位置重啟，接續的結果同樣相同
+ */
+class MappedHealthInsuranceItemReaderTest {
+
+	private static final int ROWS = 3000;
+	private static final int RESTART_AFTER = 1234;
+
+	@TempDir
+	Path directory;
+
+	static Stream<Arguments> layouts() {
+		return Stream.of("\n", "\r\n").flatMap(lineSeparator -> Stream.of(true, false)
+				.flatMap(trailingNewline -> Stream.of(128, 197, 1 << 20)
+						.map(window -> Arguments.of(lineSeparator, trailingNewline, window))));
+	}
+
+	@ParameterizedTest(name = "separator={0} trailing={1} window={2}")
+	@MethodSource("layouts")
+	void matchesFlatFileReader(String lineSeparator, boolean trailingNewline, int window) throws Exception {
+		FileSystemResource resource = new FileSystemResource(writeFixture(lineSeparator, trailingNewline));
+		List<HealthInsuranceDTO> expected = drain(new HealthInsuranceItemReader().createReader(resource),
+				new ExecutionContext(), Integer.MAX_VALUE);
+		assertThat(expected).hasSize(ROWS);
+
+		assertThat(drain(new MappedHealthInsuranceItemReader("mapped", resource, window, 1),
+				new ExecutionContext(), Integer.MAX_VALUE)).isEqualTo(expected);
+
+		ExecutionContext stepContext = new ExecutionContext();
+		List<HealthInsuranceDTO> restarted = drain(
+				new MappedHealthInsuranceItemReader("mapped", resource, window, 1), stepContext, RESTART_AFTER);
+		restarted.addAll(drain(
+				new MappedHealthInsuranceItemReader("mapped", resource, window, 1), stepContext, Integer.MAX_VALUE));
+		assertThat(restarted).isEqualTo(expected);
+	}
+
+	/**
+	 * 與健保檔案相同的七個欄位，全部加上雙引號；第一個欄位輪流使用跳脫引號、中文、空字串與逗號
+	 */
+	private Path writeFixture(String lineSeparator, boolean trailingNewline) throws Exception {
+		Random random = new Random(1);
+		StringBuilder csv = new StringBuilder(
+				"\"fileName\",\"payType\",\"nationalNo\",\"cifNo\",\"withholdDate\",\"withhold\",\"reasonType\"")
+				.append(lineSeparator);
+		for (int i = 0; i < ROWS; i++) {
+			String fileName = switch (i % 5) {
+				case 0 -> "say \"\"hi\"\" 健保";
+				case 1 -> "";
+				case 2 -> "a,b";
+				default -> "EPR" + random.nextInt(100000) + ".enc";
+			};
+			csv.append('"').append(fileName).append("\",\"67\",\"123456789     \",\"")
+					.append(random.nextLong()).append("\",\"1131030\",\"Y\",\"11\"");
+			if (i < ROWS - 1 || trailingNewline) {
+				csv.append(lineSeparator);
+			}
+		}
+		Path file = directory.resolve("health-insurance.csv");
+		Files.writeString(file, csv, StandardCharsets.UTF_8);
+		return file;
+	}
+
+	private static List<HealthInsuranceDTO> drain(ItemStreamReader<HealthInsuranceDTO> reader,
+			ExecutionContext executionContext, int max) throws Exception {
+		List<HealthInsuranceDTO> items = new ArrayList<>();
+		reader.open(executionContext);
+		HealthInsuranceDTO item;
+		while (items.size() < max && (item = reader.read()) != null) {
+			items.add(item);
+		}
+		reader.update(executionContext);
+		reader.close();
+		return items;
+	}
+}
@@ -0,0 +1,173 @@
+package com.example.demo.batch.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.reader.BookColumnarFileReader;
+import com.example.demo.batch.reader.BookColumnarFileReader.RowGroup;
+import com.example.demo.batch.writer.BookColumnarFormat.Column;
+
+/**
+ * 1. 寫入後以 BookColumnarFileReader 讀回，每一列（含 null 欄位）與寫入內容相同；只讀取部分欄位時結果一致
+ * 2. 重啟：步驟在 chunk 寫入後、提交前失敗，未提交的 row group 帶有新的字典項目；
+ *    重新執行時截斷到上次提交的位移並從已提交的 row group 還原字典，檔案與一次執行完成的結果逐位元組相同
+ */
+class BookColumnarExportWriterTest {
+
+	private static final long JOB_INSTANCE_ID = 7;
+	private static final String STEP_NAME = "bookColumnarExportStep";
+	private static final int CHUNK_SIZE = 10;
+	private static final int TOTAL_ROWS = 100;
+
+	private final BookItemWriter bookItemWriter = new BookItemWriter();
+
+	@TempDir
+	Path reference;
+
+	@TempDir
+	Path restarted;
+
+	@Test
+	void roundTripPreservesRowsAndNulls() throws Exception {
+		BookColumnarExportWriter writer = writer(reference);
+		ExecutionContext stepContext = new ExecutionContext();
+		writer.open(stepContext);
+		List<BookDTO> expected = new ArrayList<>();
+		for (int first = 1; first <= TOTAL_ROWS; first += CHUNK_SIZE) {
+			Chunk<BookDTO> chunk = chunk(first, CHUNK_SIZE);
+			expected.addAll(chunk.getItems());
+			writer.write(chunk);
+			writer.update(stepContext);
+		}
+		writer.close();
+
+		assertThat(readAll(file(reference), EnumSet.allOf(Column.class))).isEqualTo(expected);
+
+		// 只讀取 category 與 cost：依分類加總的結果與完整讀取相同
+		Map<String, Double> projected = new TreeMap<>();
+		try (BookColumnarFileReader reader = new BookColumnarFileReader(file(reference),
+				EnumSet.of(Column.CATEGORY, Column.COST))) {
+			for (RowGroup group = reader.next(); group != null; group = reader.next()) {
+				for (int row = 0; row < group.rows(); row++) {
+					if (!group.isNull(Column.CATEGORY, row) && !group.isNull(Column.COST, row)) {
+						projected.merge(group.stringValue(Column.CATEGORY, row),
+								group.doubleValue(Column.COST, row), Double::sum);
+					}
+				}
+			}
+		}
+		Map<String, Double> full = new TreeMap<>();
+		expected.stream()
+				.filter(book -> book.category() != null && book.cost() != null)
+				.forEach(book -> full.merge(book.category(), book.cost(), Double::sum));
+		assertThat(projected).isEqualTo(full);
+	}
+
+	@Test
+	void restartTruncatesToCommittedOffsetAndRebuildsDictionaries() throws Exception {
+		BookColumnarExportWriter complete = writer(reference);
+		complete.open(new ExecutionContext());
+		for (int first = 1; first <= TOTAL_ROWS; first += CHUNK_SIZE) {
+			complete.write(chunk(first, CHUNK_SIZE));
+			complete.update(new ExecutionContext());
+		}
+		complete.close();
+
+		// 第一次執行：提交 5 個 chunk 後，第 6 個 chunk 寫入後失敗，交易回滾
+		// 失敗的 chunk 帶有之後不會出現的作者與出版社，重啟後不可殘留在字典中
+		BookColumnarExportWriter failed = writer(restarted);
+		ExecutionContext stepContext = new ExecutionContext();
+		failed.open(stepContext);
+		for (int first = 1; first <= 50; first += CHUNK_SIZE) {
+			failed.write(chunk(first, CHUNK_SIZE));
+			failed.update(stepContext);
+		}
+		ExecutionContext committed = new ExecutionContext(stepContext);
+		failed.write(uncommittedChunk());
+		failed.close();
+
+		// 重新執行同一個 JobInstance：新的寫入器實例，ExecutionContext 為上次提交的內容
+		BookColumnarExportWriter resumed = writer(restarted);
+		resumed.open(committed);
+		for (int first = 51; first <= TOTAL_ROWS; first += CHUNK_SIZE) {
+			resumed.write(chunk(first, CHUNK_SIZE));
+			resumed.update(committed);
+		}
+		resumed.close();
+
+		assertThat(file(restarted)).hasSameBinaryContentAs(file(reference));
+		assertThat(dictionary(file(restarted), Column.AUTHOR)).doesNotContain("Rolled Back Author")
+				.isEqualTo(dictionary(file(reference), Column.AUTHOR));
+		assertThat(dictionary(file(restarted), Column.PUBLISHER)).doesNotContain("Rolled Back Publisher");
+	}
+
+	private BookColumnarExportWriter writer(Path directory) {
+		return bookItemWriter.createColumnarWriter(directory, JOB_INSTANCE_ID, STEP_NAME, 4096);
+	}
+
+	private static Path file(Path directory) {
+		return directory.resolve("processed_books_" + JOB_INSTANCE_ID + "_" + STEP_NAME + ".bcol");
+	}
+
+	/**
+	 * 字典欄位每隔幾筆換一個新值，讓之後的 row group 也有新增的字典項目；部分欄位為 null
+	 */
+	private static Chunk<BookDTO> chunk(int first, int size) {
+		List<BookDTO> books = new ArrayList<>();
+		for (int id = first; id < first + size; id++) {
+			books.add(new BookDTO(id, 1000 + id,
+					id % 5 == 0 ? null : "書名 " + id,
+					"Author " + id / 7,
+					id % 11 == 0 ? null : 2000 + id % 20,
+					"Publisher " + id / 13,
+					id % 6 == 0 ? null : id * 1.25,
+					id % 9 == 0 ? null : "C" + id % 3,
+					id % 4 == 0 ? null : id % 2 == 0));
+		}
+		return new Chunk<>(books);
+	}
+
+	private static Chunk<BookDTO> uncommittedChunk() {
+		List<BookDTO> books = new ArrayList<>();
+		for (int id = 51; id < 51 + CHUNK_SIZE; id++) {
+			books.add(new BookDTO(id, 1000 + id, "Rolled Back", "Rolled Back Author", 1999,
+					"Rolled Back Publisher", 1.0, "ROLLED_BACK", true));
+		}
+		return new Chunk<>(books);
+	}
+
+	private static List<BookDTO> readAll(Path file, Set<Column> columns) throws IOException {
+		List<BookDTO> books = new ArrayList<>();
+		try (BookColumnarFileReader reader = new BookColumnarFileReader(file, columns)) {
+			for (RowGroup group = reader.next(); group != null; group = reader.next()) {
+				for (int row = 0; row < group.rows(); row++) {
+					books.add(group.book(row));
+				}
+			}
+		}
+		return books;
+	}
+
+	private static List<String> dictionary(Path file, Column column) throws IOException {
+		try (BookColumnarFileReader reader = new BookColumnarFileReader(file, EnumSet.of(column))) {
+			while (reader.next() != null) {
+				// 讀完全部 row group，字典才完整
+			}
+			return reader.dictionary(column);
+		}
+	}
+}
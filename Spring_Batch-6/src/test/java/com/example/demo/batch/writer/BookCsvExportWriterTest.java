@@ -0,0 +1,139 @@
+package com.example.demo.batch.writer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import com.example.demo.batch.dto.BookDTO;
+import com.example.demo.batch.writer.BookCsvExportWriter.Compression;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 重啟：步驟在 chunk 寫入後、提交前失敗，同一個 JobInstance 重新執行時以上次提交的 ExecutionContext 接續，
+ * 輸出內容與一次執行完成的結果相同，manifest 的雜湊與實際檔案一致
+ */
+class BookCsvExportWriterTest {
+
+	private static final long JOB_INSTANCE_ID = 42;
+	private static final String STEP_NAME = "bookJpaStep";
+	private static final int CHUNK_SIZE = 10;
+	private static final int TOTAL_ROWS = 100;
+	private static final int MAX_ROWS_PER_FILE = 25;
+
+	private final BookItemWriter bookItemWriter = new BookItemWriter();
+
+	@TempDir
+	Path reference;
+
+	@TempDir
+	Path restarted;
+
+	@ParameterizedTest
+	@EnumSource(Compression.class)
+	void restartResumesSameFilesWithMatchingManifest(Compression compression) throws Exception {
+		BookCsvExportWriter complete = writer(reference, compression);
+		complete.open(new ExecutionContext());
+		for (int first = 1; first <= TOTAL_ROWS; first += CHUNK_SIZE) {
+			complete.write(chunk(first, CHUNK_SIZE));
+			complete.update(new ExecutionContext());
+		}
+		complete.close();
+
+		// 第一次執行：提交 6 個 chunk 後，第 7 個 chunk (跨到下一個檔案) 寫入後失敗，交易回滾
+		BookCsvExportWriter failed = writer(restarted, compression);
+		ExecutionContext stepContext = new ExecutionContext();
+		failed.open(stepContext);
+		for (int first = 1; first <= 60; first += CHUNK_SIZE) {
+			failed.write(chunk(first, CHUNK_SIZE));
+			failed.update(stepContext);
+		}
+		ExecutionContext committed = new ExecutionContext(stepContext);
+		failed.write(chunk(61, 2 * CHUNK_SIZE));
+		failed.close();
+
+		// 重新執行同一個 JobInstance：新的寫入器實例，ExecutionContext 為上次提交的內容
+		BookCsvExportWriter resumed = writer(restarted, compression);
+		resumed.open(committed);
+		for (int first = 61; first <= TOTAL_ROWS; first += CHUNK_SIZE) {
+			resumed.write(chunk(first, CHUNK_SIZE));
+			resumed.update(committed);
+		}
+		resumed.close();
+
+		List<Path> expectedFiles = exportFiles(reference);
+		List<Path> actualFiles = exportFiles(restarted);
+		assertThat(actualFiles).extracting(Path::getFileName).isEqualTo(
+				expectedFiles.stream().map(Path::getFileName).toList());
+		for (int i = 0; i < expectedFiles.size(); i++) {
+			assertThat(lines(actualFiles.get(i), compression)).isEqualTo(lines(expectedFiles.get(i), compression));
+			if (compression == Compression.NONE) {
+				assertThat(actualFiles.get(i)).hasSameBinaryContentAs(expectedFiles.get(i));
+			}
+		}
+
+		JsonNode manifest = new ObjectMapper().readTree(restarted.resolve(prefix() + ".manifest.json").toFile());
+		assertThat(manifest.get("totalRows").asLong()).isEqualTo(TOTAL_ROWS);
+		assertThat(manifest.get("files")).hasSize(actualFiles.size());
+		for (JsonNode file : manifest.get("files")) {
+			Path path = restarted.resolve(file.get("name").asText());
+			assertThat(file.get("bytes").asLong()).isEqualTo(Files.size(path));
+			assertThat(file.get("sha256").asText()).isEqualTo(sha256(path));
+		}
+	}
+
+	private BookCsvExportWriter writer(Path directory, Compression compression) {
+		return bookItemWriter.createCsvWriter(directory, JOB_INSTANCE_ID, STEP_NAME, compression,
+				MAX_ROWS_PER_FILE, Long.MAX_VALUE, 4096);
+	}
+
+	private static String prefix() {
+		return "processed_books_" + JOB_INSTANCE_ID + "_" + STEP_NAME;
+	}
+
+	private static Chunk<BookDTO> chunk(int first, int size) {
+		List<BookDTO> books = new ArrayList<>();
+		for (int id = first; id < first + size; id++) {
+			books.add(new BookDTO(id, 1000 + id, "Title " + id, "Author", 2020, "Publisher", 9.5, "RECENT", true));
+		}
+		return new Chunk<>(books);
+	}
+
+	private static List<Path> exportFiles(Path directory) throws IOException {
+		try (Stream<Path> files = Files.list(directory)) {
+			return files.filter(file -> file.getFileName().toString().contains("_part-")).sorted().toList();
+		}
+	}
+
+	private static List<String> lines(Path file, Compression compression) throws IOException {
+		InputStream in = Files.newInputStream(file);
+		if (compression == Compression.GZIP) {
+			in = new GZIPInputStream(in);
+		}
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+			return reader.lines().toList();
+		}
+	}
+
+	private static String sha256(Path file) throws Exception {
+		return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(Files.readAllBytes(file)));
+	}
+}
@@ -3,7 +3,6 @@ package com.example.demo;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.job.builder.JobBuilder;
-import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.boot.SpringApplication;
@@ -12,21 +11,25 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.datasource.DataSourceTransactionManager;
 
+import com.example.demo.configuration.HousekeepingJobs;
+
 @SpringBootApplication
 @Configuration
 public class SpringBatchApplication {
 
+	public static final String JOB_NAME = "HelloJob";
+
 	@Bean
-	public Step sampleStep(JobRepository jobRepository, DataSourceTransactionManager transactionManager) {
-		return new StepBuilder("helloStep2", jobRepository).tasklet((contribution, chunkContext) -> {
+	public Step sampleStep(HousekeepingJobs housekeepingJobs, DataSourceTransactionManager transactionManager) {
+		return new StepBuilder("helloStep2", housekeepingJobs.jobRepository(JOB_NAME)).tasklet((contribution, chunkContext) -> {
 			System.out.println("Hello world!");
 			return RepeatStatus.FINISHED;
-		}, transactionManager).build();
+		}, housekeepingJobs.transactionManager(transactionManager)).build();
 	}
 
 	@Bean
-	public Job sampleJob(JobRepository jobRepository, Step sampleStep) {
-		return new JobBuilder("HelloJob", jobRepository).start(sampleStep).build();
+	public Job sampleJob(HousekeepingJobs housekeepingJobs, Step sampleStep) {
+		return new JobBuilder(JOB_NAME, housekeepingJobs.jobRepository(JOB_NAME)).start(sampleStep).build();
 	}
 
 	public static void main(String[] args) {SpringApplication.run(SpringBatchApplication.class, args);}